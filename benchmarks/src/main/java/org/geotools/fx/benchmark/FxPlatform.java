@@ -0,0 +1,56 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javafx.application.Platform;
+
+/**
+ * Starts the JavaFX platform for benchmarks exercising classes that update their state on the
+ * JavaFX application thread (e.g. {@link org.geotools.fx.map.model.Viewport}).
+ */
+public class FxPlatform {
+
+    public static void start() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+            // fine
+        }
+    }
+
+    /**
+     * Runs {@code task} in the JavaFX application thread and waits for it to finish. Since
+     * runnables posted to the JavaFX thread are processed in order, calling this method also waits
+     * for any pending update posted before {@code task}.
+     */
+    public static void runAndWait(Runnable task) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.runLater(
+                () -> {
+                    try {
+                        task.run();
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+        if (!latch.await(1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Timed out waiting for the JavaFX thread");
+        }
+    }
+}
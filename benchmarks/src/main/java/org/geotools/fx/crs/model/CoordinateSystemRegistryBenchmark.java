@@ -0,0 +1,76 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.geotools.referencing.CRS;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks populating a {@link CoordinateSystemRegistry} with the whole EPSG database. The CRSs
+ * are decoded once per fork, only the registry mutations are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoordinateSystemRegistryBenchmark {
+
+    private List<CRSInfo> epsg;
+
+    public @Setup void setup() throws Exception {
+        Set<String> codes =
+                CRS.getAuthorityFactory(true).getAuthorityCodes(CoordinateReferenceSystem.class);
+        epsg = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            try {
+                epsg.add(CRSInfo.fromAuthorityCode(code, true));
+            } catch (RuntimeException ignore) {
+                // code not found
+            }
+        }
+    }
+
+    public @Benchmark CoordinateSystemRegistry add() {
+        CoordinateSystemRegistry registry = CoordinateSystemRegistry.newInstance();
+        for (CRSInfo crs : epsg) {
+            registry.add(crs);
+        }
+        return registry;
+    }
+
+    public @Benchmark CoordinateSystemRegistry addAll() {
+        CoordinateSystemRegistry registry = CoordinateSystemRegistry.newInstance();
+        registry.addAll(epsg);
+        return registry;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.map.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.geotools.fx.benchmark.FxPlatform;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link MapModel#getMaxBounds()} over a number of layers, optionally with every other
+ * layer in a CRS different than the map's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapModelBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int layerCount;
+
+    @Param({"false", "true"})
+    public boolean reproject;
+
+    private MapModel map;
+
+    public @Setup void setup() throws Exception {
+        FxPlatform.start();
+        final CoordinateReferenceSystem wgs84 = CRS.decode("EPSG:4326", true);
+        final CoordinateReferenceSystem webMercator = CRS.decode("EPSG:3857", true);
+
+        map = new MapModel();
+        FxPlatform.runAndWait(() -> map.getViewport().setCoordinateReferenceSystem(wgs84));
+        Random random = new Random(0);
+        for (int i = 0; i < layerCount; i++) {
+            double minx = -170 + random.nextDouble() * 330;
+            double miny = -80 + random.nextDouble() * 150;
+            ReferencedEnvelope bounds =
+                    new ReferencedEnvelope(minx, minx + 10, miny, miny + 10, wgs84);
+            if (reproject && i % 2 == 1) {
+                bounds = bounds.transform(webMercator, true);
+            }
+            map.addLayer(new BoundsLayer(bounds));
+        }
+    }
+
+    public @Benchmark ReferencedEnvelope getMaxBounds() {
+        return map.getMaxBounds();
+    }
+
+    private static class BoundsLayer extends MapLayer {
+
+        private final ReferencedEnvelope bounds;
+
+        BoundsLayer(ReferencedEnvelope bounds) {
+            this.bounds = bounds;
+        }
+
+        public @Override ReferencedEnvelope getBounds() {
+            // defensive copy, getMaxBounds() may expand the returned envelope
+            return new ReferencedEnvelope(bounds);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.map.model;
+
+import java.awt.geom.AffineTransform;
+import java.util.concurrent.TimeUnit;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import org.geotools.fx.benchmark.FxPlatform;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks the {@link MapViewport} world/screen transform computations */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapViewportBenchmark {
+
+    private MapViewport viewport;
+
+    private Bounds displayArea;
+
+    private Bounds mapArea;
+
+    public @Setup void setup() throws Exception {
+        FxPlatform.start();
+        displayArea = new BoundingBox(0, 0, 1024, 768);
+        mapArea = new BoundingBox(-180, -90, 360, 180);
+        viewport = new MapViewport();
+        FxPlatform.runAndWait(
+                () -> {
+                    viewport.displayWidthProperty().set(displayArea.getWidth());
+                    viewport.displayHeightProperty().set(displayArea.getHeight());
+                    viewport.setFitBounds(mapArea);
+                });
+    }
+
+    public @Benchmark Bounds calculateActualBounds() {
+        return MapViewport.calculateActualBounds(displayArea, mapArea);
+    }
+
+    public @Benchmark AffineTransform getWorldToScreen() {
+        return viewport.getWorldToScreen();
+    }
+
+    public @Benchmark AffineTransform getScreenToWorld() {
+        return viewport.getScreenToWorld();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.map.model;
+
+import java.util.concurrent.TimeUnit;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import org.geotools.fx.benchmark.FxPlatform;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks the {@link Viewport} coordinate conversion and scale computation methods */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewportBenchmark {
+
+    private Viewport viewport;
+
+    private Point2D worldPoint;
+
+    private Point2D displayPoint;
+
+    private Bounds worldArea;
+
+    private Bounds displayArea;
+
+    private ReferencedEnvelope sameCrsEnvelope;
+
+    private ReferencedEnvelope reprojectedEnvelope;
+
+    public @Setup void setup() throws Exception {
+        FxPlatform.start();
+        final CoordinateReferenceSystem wgs84 = CRS.decode("EPSG:4326", true);
+        final CoordinateReferenceSystem webMercator = CRS.decode("EPSG:3857", true);
+
+        viewport = new Viewport();
+        FxPlatform.runAndWait(
+                () -> {
+                    viewport.getDisplay().setWidth(1024);
+                    viewport.getDisplay().setHeight(768);
+                    viewport.setCoordinateReferenceSystem(wgs84);
+                    viewport.setFitBounds(new ReferencedEnvelope(-180, 180, -90, 90, wgs84));
+                });
+        // wait for the asynchronous bounds update
+        FxPlatform.runAndWait(() -> {});
+
+        worldPoint = new Point2D(-56.1, -34.9);
+        displayPoint = new Point2D(512, 384);
+        worldArea = new BoundingBox(-60, -40, 10, 10);
+        displayArea = new BoundingBox(100, 100, 640, 480);
+        sameCrsEnvelope = new ReferencedEnvelope(-60, -50, -40, -30, wgs84);
+        reprojectedEnvelope = sameCrsEnvelope.transform(webMercator, true);
+    }
+
+    public @Benchmark Point2D toDisplayPoint() {
+        return viewport.toDisplay(worldPoint);
+    }
+
+    public @Benchmark Point2D toWorldPoint() {
+        return viewport.toWorld(displayPoint);
+    }
+
+    public @Benchmark Bounds toDisplayBounds() {
+        return viewport.toDisplay(worldArea);
+    }
+
+    public @Benchmark ReferencedEnvelope toWorldBounds() {
+        return viewport.toWorld(displayArea);
+    }
+
+    public @Benchmark Bounds toDisplayEnvelopeSameCrs() {
+        return viewport.toDisplay(sameCrsEnvelope);
+    }
+
+    public @Benchmark Bounds toDisplayEnvelopeReprojected() {
+        return viewport.toDisplay(reprojectedEnvelope);
+    }
+
+    public @Benchmark double calculateScale() {
+        return viewport.calculateScale();
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleLongProperty;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Enforces a single heap budget over all the {@link ManagedCache caches} registered with it.
+ *
+ * <p>Render surfaces, tiles, simplified geometries, symbols, and so on, each live in their own
+ * {@link ManagedCache}, but all of them are accounted against this manager's {@link
+ * #budgetProperty() budget}, in bytes. When adding an entry pushes the total size over budget,
+ * entries are evicted across all caches until it fits again.
+ *
+ * <p>The eviction policy is cost aware LRU (GreedyDual-Size): each entry is given a priority of
+ * {@code L + cost / size}, where {@code cost} is what it takes to recreate the entry and {@code L}
+ * is the priority of the last evicted entry. Accessing an entry refreshes its priority. The entry
+ * with the lowest priority is evicted first, so among entries of equal cost per byte the least
+ * recently used goes first, and a cheap to recreate large image is evicted before an expensive
+ * small symbol.
+ *
+ * <p>Caches are thread safe. Observable properties are updated on the JavaFX application thread,
+ * coalescing updates that happen faster than the application thread can process them. Without a
+ * running JavaFX toolkit, e.g. when used headless, the caches work the same but the properties are
+ * not updated.
+ */
+@Accessors(fluent = true)
+public class CacheManager {
+
+    private static final Logger LOGGER = Logging.getLogger(CacheManager.class);
+
+    private static final CacheManager DEFAULT =
+            new CacheManager(Runtime.getRuntime().maxMemory() / 4);
+
+    /** How long to wait before trying to publish again after finding no JavaFX toolkit */
+    private static final long HEADLESS_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** Maximum total size of the cached entries, in bytes */
+    private final @Getter LongProperty budgetProperty;
+
+    /** Total size of the cached entries, in bytes */
+    private final @Getter ReadOnlyLongProperty usedBytesProperty;
+
+    private final @Getter ReadOnlyLongProperty entryCountProperty;
+
+    private final @Getter ReadOnlyLongProperty evictionsProperty;
+
+    /** Ratio of cache hits to lookups across all caches, between {@code 0} and {@code 1} */
+    private final @Getter ReadOnlyDoubleProperty hitRateProperty;
+
+    private final List<ManagedCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+    /** Entries of all caches, in eviction order */
+    private final TreeSet<ManagedCache.Entry<?, ?>> queue = new TreeSet<>();
+
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+
+    /** Whether the JavaFX toolkit wasn't running on the last publication attempt */
+    private volatile boolean headless;
+
+    private volatile long headlessSince;
+
+    private volatile long budget;
+
+    /** Guarded by {@code this} */
+    private long usedBytes;
+
+    /** Guarded by {@code this} */
+    private long evictions;
+
+    /** GreedyDual inflation value, guarded by {@code this} */
+    private double inflation;
+
+    /** Guarded by {@code this} */
+    private long sequence;
+
+    public CacheManager(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+        this.budget = budget;
+        budgetProperty = new SimpleLongProperty(this, "budget", budget);
+        usedBytesProperty = new SimpleLongProperty(this, "usedBytes");
+        entryCountProperty = new SimpleLongProperty(this, "entryCount");
+        evictionsProperty = new SimpleLongProperty(this, "evictions");
+        hitRateProperty = new SimpleDoubleProperty(this, "hitRate");
+        budgetProperty.addListener(
+                (p, o, n) -> {
+                    this.budget = Math.max(0, n.longValue());
+                    evict();
+                });
+    }
+
+    /** The application wide cache manager, with a budget of a quarter of the maximum heap size */
+    public static CacheManager getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a new cache accounted against this manager's budget
+     *
+     * @param name a descriptive name, for logging and monitoring
+     * @param weigher computes the approximate heap size of a cached value, in bytes
+     */
+    public <K, V> ManagedCache<K, V> register(
+            @NonNull String name, @NonNull ToLongFunction<? super V> weigher) {
+        ManagedCache<K, V> cache = new ManagedCache<>(this, name, weigher);
+        caches.add(cache);
+        return cache;
+    }
+
+    /** The registered caches */
+    public List<ManagedCache<?, ?>> getCaches() {
+        return Collections.unmodifiableList(caches);
+    }
+
+    public long getBudget() {
+        return budgetProperty.get();
+    }
+
+    public void setBudget(long budget) {
+        budgetProperty.set(budget);
+    }
+
+    public long getUsedBytes() {
+        return usedBytesProperty.get();
+    }
+
+    public long getEntryCount() {
+        return entryCountProperty.get();
+    }
+
+    public long getEvictions() {
+        return evictionsProperty.get();
+    }
+
+    public double getHitRate() {
+        return hitRateProperty.get();
+    }
+
+    /** Removes all the entries of all caches */
+    public void clear() {
+        caches.forEach(ManagedCache::clear);
+    }
+
+    void unregister(ManagedCache<?, ?> cache) {
+        cache.clear();
+        caches.remove(cache);
+        publish();
+    }
+
+    /** Whether a single entry of {@code size} bytes could ever fit in the budget */
+    boolean fits(long size) {
+        return size <= budget;
+    }
+
+    /** Queues a new entry, or refreshes the priority of an accessed one */
+    synchronized void touch(ManagedCache.Entry<?, ?> entry, boolean added) {
+        if (!added) {
+            queue.remove(entry);
+        }
+        entry.priority = inflation + entry.cost / Math.max(1, entry.size);
+        entry.sequence = sequence++;
+        queue.add(entry);
+        if (added) {
+            usedBytes += entry.size;
+        }
+    }
+
+    synchronized void removed(ManagedCache.Entry<?, ?> entry) {
+        if (queue.remove(entry)) {
+            usedBytes -= entry.size;
+        }
+    }
+
+    /** Evicts entries across all caches until the total size fits the budget */
+    void evict() {
+        List<ManagedCache.Entry<?, ?>> evicted = new ArrayList<>();
+        synchronized (this) {
+            while (usedBytes > budget && !queue.isEmpty()) {
+                ManagedCache.Entry<?, ?> entry = queue.pollFirst();
+                inflation = entry.priority;
+                usedBytes -= entry.size;
+                evictions++;
+                entry.cache().evicted(entry);
+                evicted.add(entry);
+            }
+        }
+        // notify outside the lock, listeners may do arbitrary work like disposing resources
+        for (ManagedCache.Entry<?, ?> entry : evicted) {
+            try {
+                entry.cache().notifyRemoval(entry);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error in removal listener of " + entry.cache(), e);
+            }
+        }
+        publish();
+    }
+
+    /** Schedules an update of the observable properties of the manager and its caches */
+    void publish() {
+        if (headless && System.nanoTime() - headlessSince < HEADLESS_RETRY_NANOS) {
+            return;
+        }
+        if (publishPending.compareAndSet(false, true)) {
+            try {
+                Platform.runLater(this::update);
+                headless = false;
+            } catch (IllegalStateException toolkitNotRunning) {
+                // no JavaFX application to publish to, check again later in case it's started
+                headlessSince = System.nanoTime();
+                headless = true;
+                publishPending.set(false);
+            }
+        }
+    }
+
+    private void update() {
+        publishPending.set(false);
+        long used, count, evicted;
+        synchronized (this) {
+            used = usedBytes;
+            count = queue.size();
+            evicted = evictions;
+        }
+        long hits = 0, lookups = 0;
+        for (ManagedCache<?, ?> cache : caches) {
+            cache.update();
+            hits += cache.hits();
+            lookups += cache.hits() + cache.misses();
+        }
+        ((SimpleLongProperty) usedBytesProperty).set(used);
+        ((SimpleLongProperty) entryCountProperty).set(count);
+        ((SimpleLongProperty) evictionsProperty).set(evicted);
+        ((SimpleDoubleProperty) hitRateProperty).set(lookups == 0 ? 0 : (double) hits / lookups);
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+/**
+ * A key/value cache whose entries are accounted against, and evicted by, a {@link CacheManager}.
+ *
+ * <p>Each entry has a size, computed by the cache's weigher, and a cost, an estimate of what it
+ * takes to recreate it. {@link #computeIfAbsent(Object, Function)} uses the time it took to compute
+ * the value, in nanoseconds, as its cost; when adding entries through {@link #put(Object, Object,
+ * double)} use the same unit so costs are comparable across caches.
+ *
+ * <p>Use {@link #setRemovalListener(Consumer)} to release resources held by values that are evicted
+ * or removed.
+ */
+@Accessors(fluent = true)
+public class ManagedCache<K, V> {
+
+    /** Default cost of entries added through {@link #put(Object, Object)}, one millisecond */
+    public static final double DEFAULT_COST = 1_000_000;
+
+    private final CacheManager manager;
+
+    private final @Getter String name;
+
+    private final ToLongFunction<? super V> weigher;
+
+    /** Guarded by {@code manager} */
+    private final Map<K, Entry<K, V>> entries = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final AtomicBoolean disposed = new AtomicBoolean();
+
+    private volatile Consumer<? super V> removalListener;
+
+    /** Guarded by {@code manager} */
+    private long usedBytes;
+
+    private final @Getter ReadOnlyLongProperty usedBytesProperty;
+
+    private final @Getter ReadOnlyLongProperty entryCountProperty;
+
+    private final @Getter ReadOnlyDoubleProperty hitRateProperty;
+
+    ManagedCache(CacheManager manager, String name, ToLongFunction<? super V> weigher) {
+        this.manager = manager;
+        this.name = name;
+        this.weigher = weigher;
+        usedBytesProperty = new SimpleLongProperty(this, "usedBytes");
+        entryCountProperty = new SimpleLongProperty(this, "entryCount");
+        hitRateProperty = new SimpleDoubleProperty(this, "hitRate");
+    }
+
+    /** Called with values that are evicted, removed, or replaced */
+    public void setRemovalListener(@Nullable Consumer<? super V> listener) {
+        this.removalListener = listener;
+    }
+
+    public @Nullable V get(@NonNull K key) {
+        V value = lookup(key);
+        manager.publish();
+        return value;
+    }
+
+    public Optional<V> value(@NonNull K key) {
+        return Optional.ofNullable(get(key));
+    }
+
+    /** Whether {@code key} is cached, doesn't count as an access */
+    public boolean contains(@NonNull K key) {
+        synchronized (manager) {
+            return entries.containsKey(key);
+        }
+    }
+
+    /**
+     * Returns the cached value for {@code key}, computing and caching it if absent. The value is
+     * computed without holding any lock, so concurrent callers may compute it more than once.
+     */
+    public V computeIfAbsent(@NonNull K key, @NonNull Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            final long start = System.nanoTime();
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value, System.nanoTime() - start);
+            }
+        }
+        return value;
+    }
+
+    public void put(@NonNull K key, @NonNull V value) {
+        put(key, value, DEFAULT_COST);
+    }
+
+    /** @param cost what it takes to recreate {@code value}, in nanoseconds of computation */
+    public void put(@NonNull K key, @NonNull V value, double cost) {
+        if (disposed.get()) {
+            throw new IllegalStateException("Cache " + name + " has been disposed");
+        }
+        final long size = Math.max(0, weigher.applyAsLong(value));
+        Entry<K, V> replaced;
+        synchronized (manager) {
+            replaced = entries.remove(key);
+            if (replaced != null) {
+                removeEntry(replaced);
+            }
+            // entries larger than the whole budget would just flush every other cache
+            if (manager.fits(size)) {
+                Entry<K, V> entry = new Entry<>(this, key, value, size, Math.max(0, cost));
+                entries.put(key, entry);
+                usedBytes += size;
+                manager.touch(entry, true);
+            }
+        }
+        if (replaced != null && replaced.value != value) {
+            notifyRemoval(replaced);
+        }
+        manager.evict();
+    }
+
+    public @Nullable V remove(@NonNull K key) {
+        Entry<K, V> removed;
+        synchronized (manager) {
+            removed = entries.remove(key);
+            if (removed != null) {
+                removeEntry(removed);
+            }
+        }
+        if (removed == null) {
+            return null;
+        }
+        notifyRemoval(removed);
+        manager.publish();
+        return removed.value;
+    }
+
+    public void clear() {
+        List<Entry<K, V>> removed;
+        synchronized (manager) {
+            removed = new ArrayList<>(entries.values());
+            entries.clear();
+            removed.forEach(this::removeEntry);
+        }
+        removed.forEach(this::notifyRemoval);
+        manager.publish();
+    }
+
+    /** Removes all entries and unregisters this cache from its manager */
+    public void dispose() {
+        if (disposed.compareAndSet(false, true)) {
+            manager.unregister(this);
+        }
+    }
+
+    public long getUsedBytes() {
+        return usedBytesProperty.get();
+    }
+
+    public long getEntryCount() {
+        return entryCountProperty.get();
+    }
+
+    /** The current number of entries, unlike {@link #getEntryCount()} which is published later */
+    public int size() {
+        synchronized (manager) {
+            return entries.size();
+        }
+    }
+
+    public double getHitRate() {
+        return hitRateProperty.get();
+    }
+
+    public @Override String toString() {
+        return "ManagedCache[" + name + "]";
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    private V lookup(K key) {
+        synchronized (manager) {
+            Entry<K, V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            manager.touch(entry, false);
+            return entry.value;
+        }
+    }
+
+    private void removeEntry(Entry<K, V> entry) {
+        usedBytes -= entry.size;
+        manager.removed(entry);
+    }
+
+    /** Called by the manager, holding its lock, after taking {@code entry} off its queue */
+    void evicted(Entry<?, ?> entry) {
+        if (entries.get(entry.key) == entry) {
+            entries.remove(entry.key);
+            usedBytes -= entry.size;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void notifyRemoval(Entry<?, ?> entry) {
+        Consumer<? super V> listener = this.removalListener;
+        if (listener != null) {
+            listener.accept((V) entry.value);
+        }
+    }
+
+    /** Called by the manager on the JavaFX application thread */
+    void update() {
+        long used, count;
+        synchronized (manager) {
+            used = usedBytes;
+            count = entries.size();
+        }
+        long h = hits(), lookups = h + misses();
+        ((SimpleLongProperty) usedBytesProperty).set(used);
+        ((SimpleLongProperty) entryCountProperty).set(count);
+        ((SimpleDoubleProperty) hitRateProperty).set(lookups == 0 ? 0 : (double) h / lookups);
+    }
+
+    static final class Entry<K, V> implements Comparable<Entry<?, ?>> {
+        private final ManagedCache<K, V> cache;
+        final K key;
+        final V value;
+        final long size;
+        final double cost;
+        double priority;
+        long sequence;
+
+        Entry(ManagedCache<K, V> cache, K key, V value, long size, double cost) {
+            this.cache = cache;
+            this.key = key;
+            this.value = value;
+            this.size = size;
+            this.cost = cost;
+        }
+
+        ManagedCache<K, V> cache() {
+            return cache;
+        }
+
+        public @Override int compareTo(Entry<?, ?> o) {
+            int c = Double.compare(priority, o.priority);
+            return c != 0 ? c : Long.compare(sequence, o.sequence);
+        }
+    }
+}
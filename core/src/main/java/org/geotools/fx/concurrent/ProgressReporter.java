@@ -0,0 +1,222 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+/**
+ * Coalesces the progress updates of a long running {@link javafx.concurrent.Task} to a fixed rate,
+ * and computes its throughput and estimated time to completion.
+ *
+ * <p>A {@link javafx.concurrent.Service} keeps a reporter and its tasks {@link #start(long, Target)
+ * start} it with their own {@code updateProgress} method as target, then report every unit of work
+ * through {@link #worked()} from whatever threads they run on. The target is called at most {@link
+ * #getRate() rate} times per second, and once more when the task calls {@link #done()}, so the cost
+ * of marshalling progress to the JavaFX application thread no longer grows with the amount of work.
+ *
+ * <p>{@link #throughputProperty() throughput} and {@link #etaProperty() eta} are updated on the
+ * JavaFX application thread at the same rate.
+ */
+@Accessors(fluent = true)
+public class ProgressReporter {
+
+    /** Default number of progress updates per second */
+    public static final double DEFAULT_RATE = 30;
+
+    /** Weight of the latest sample in the smoothed throughput */
+    private static final double SMOOTHING = 0.3;
+
+    /** Receives the coalesced progress updates, usually a task's {@code updateProgress} */
+    @FunctionalInterface
+    public static interface Target {
+        void update(long workDone, long totalWork);
+    }
+
+    /** Work units completed per second, smoothed over the last updates */
+    private final @Getter ReadOnlyDoubleProperty throughputProperty =
+            new SimpleDoubleProperty(this, "throughput");
+
+    /** Estimated time to completion, {@code null} if the total work or throughput are unknown */
+    private final @Getter ReadOnlyObjectProperty<Duration> etaProperty =
+            new SimpleObjectProperty<>(this, "eta");
+
+    private final double rate;
+
+    private final long periodNanos;
+
+    private final LongSupplier nanoTime;
+
+    private final AtomicLong workDone = new AtomicLong();
+
+    private final AtomicLong lastUpdate = new AtomicLong();
+
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+
+    private volatile long totalWork = -1;
+
+    private volatile Target target;
+
+    private long sampleTime;
+
+    private long sampleWork;
+
+    private volatile double throughput = Double.NaN;
+
+    public ProgressReporter() {
+        this(DEFAULT_RATE);
+    }
+
+    /** @param rate maximum number of progress updates per second */
+    public ProgressReporter(double rate) {
+        this(rate, System::nanoTime);
+    }
+
+    /**
+     * @param rate maximum number of progress updates per second
+     * @param nanoTime the time source, in nanoseconds
+     */
+    ProgressReporter(double rate, @NonNull LongSupplier nanoTime) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("rate shall be positive: " + rate);
+        }
+        this.rate = rate;
+        this.periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        this.nanoTime = nanoTime;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Starts reporting a new run, resetting the work done and statistics
+     *
+     * @param totalWork the total amount of work, or {@code -1} if unknown
+     * @param target receives the coalesced progress updates
+     */
+    public void start(long totalWork, @NonNull Target target) {
+        final long now = nanoTime.getAsLong();
+        synchronized (this) {
+            this.workDone.set(0);
+            this.totalWork = totalWork;
+            this.target = target;
+            this.sampleTime = now;
+            this.sampleWork = 0;
+            this.throughput = Double.NaN;
+        }
+        lastUpdate.set(now);
+        target.update(totalWork < 0 ? -1 : 0, totalWork);
+        publish();
+    }
+
+    public void setTotalWork(long totalWork) {
+        this.totalWork = totalWork;
+    }
+
+    public long getTotalWork() {
+        return totalWork;
+    }
+
+    public long getWorkDone() {
+        return workDone.get();
+    }
+
+    /** Reports a unit of work as done */
+    public void worked() {
+        worked(1);
+    }
+
+    /** Reports {@code amount} units of work as done */
+    public void worked(long amount) {
+        workDone.addAndGet(amount);
+        final long now = nanoTime.getAsLong();
+        final long last = lastUpdate.get();
+        if (now - last >= periodNanos && lastUpdate.compareAndSet(last, now)) {
+            update(now);
+        }
+    }
+
+    /** Forces a last update with the final figures, to be called when the run is over */
+    public void done() {
+        final long now = nanoTime.getAsLong();
+        lastUpdate.set(now);
+        update(now);
+    }
+
+    public double getThroughput() {
+        return throughputProperty.get();
+    }
+
+    public @Nullable Duration getEta() {
+        return etaProperty.get();
+    }
+
+    private void update(long now) {
+        final long done = workDone.get();
+        Target target = this.target;
+        if (target != null) {
+            target.update(done, totalWork);
+        }
+        synchronized (this) {
+            if (now > sampleTime) {
+                double sample = (done - sampleWork) * 1e9 / (now - sampleTime);
+                throughput =
+                        Double.isNaN(throughput)
+                                ? sample
+                                : SMOOTHING * sample + (1 - SMOOTHING) * throughput;
+                sampleTime = now;
+                sampleWork = done;
+            }
+        }
+        publish();
+    }
+
+    private void publish() {
+        if (publishPending.compareAndSet(false, true)) {
+            Platform.runLater(this::updateProperties);
+        }
+    }
+
+    private void updateProperties() {
+        publishPending.set(false);
+        final double throughput = this.throughput;
+        final long total = totalWork;
+        final long remaining = total - workDone.get();
+        Duration eta = null;
+        if (total >= 0 && remaining <= 0) {
+            eta = Duration.ZERO;
+        } else if (total >= 0 && throughput > 0) {
+            eta = Duration.ofNanos((long) (remaining * 1e9 / throughput));
+        }
+        ((SimpleDoubleProperty) throughputProperty).set(Double.isNaN(throughput) ? 0 : throughput);
+        ((ObjectProperty<Duration>) etaProperty).set(eta);
+    }
+}
@@ -16,24 +16,42 @@
  */
 package org.geotools.fx.crs.model;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
-import javafx.beans.binding.Bindings;
-import javafx.beans.binding.ObjectExpression;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
 import javafx.beans.binding.StringExpression;
+import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
-import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyObjectPropertyBase;
 import javafx.beans.property.ReadOnlyProperty;
 import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringPropertyBase;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
+import javax.annotation.Nullable;
 import javax.measure.Unit;
 import lombok.NonNull;
+import org.geotools.fx.cache.CacheManager;
+import org.geotools.fx.cache.ManagedCache;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.referencing.CRS;
+import org.geotools.referencing.CRS.AxisOrder;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
 import org.geotools.util.factory.FactoryRegistryException;
+import org.geotools.util.logging.Logging;
 import org.opengis.metadata.extent.Extent;
+import org.opengis.metadata.extent.GeographicBoundingBox;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.NoSuchAuthorityCodeException;
 import org.opengis.referencing.crs.CompoundCRS;
@@ -43,6 +61,7 @@ import org.opengis.referencing.crs.GeocentricCRS;
 import org.opengis.referencing.crs.GeographicCRS;
 import org.opengis.referencing.crs.ImageCRS;
 import org.opengis.referencing.crs.ProjectedCRS;
+import org.opengis.referencing.crs.SingleCRS;
 import org.opengis.referencing.crs.TemporalCRS;
 import org.opengis.referencing.crs.VerticalCRS;
 import org.opengis.referencing.cs.AxisDirection;
@@ -50,104 +69,203 @@ import org.opengis.referencing.cs.CoordinateSystem;
 import org.opengis.referencing.cs.CoordinateSystemAxis;
 import org.opengis.referencing.operation.Projection;
 
+/**
+ * Describes a coordinate reference system of a {@link CoordinateSystemRegistry}.
+ *
+ * <p>A registry holds tens of thousands of these, so they keep their state in plain fields, with
+ * the strings shared by many of them (projection names, domains of validity, failure reasons)
+ * interned. The JavaFX properties are only created the first time they're requested, typically when
+ * a UI binds to them, and are meant to be requested from the JavaFX application thread. Requesting
+ * them never decodes the CRS, the properties derived from it are empty until it's decoded, and
+ * updated once the decoding is published.
+ */
 public class CRSInfo {
 
-    private static final ReadOnlyObjectProperty<?> VOID = new ReadOnlyObjectWrapper<>();
+    private static final Logger LOGGER = Logging.getLogger(CRSInfo.class);
 
-    private static final ReadOnlyStringProperty EMPTYSTRING = new SimpleStringProperty();
+    /** Axes descriptions by coordinate system, which many CRSs share */
+    private static final ManagedCache<CoordinateSystem, String> AXES_DESCRIPTIONS =
+            CacheManager.getDefault().register("crs-axes-descriptions", CRSInfo::weigh);
 
-    @SuppressWarnings("unchecked")
-    private static <T> ReadOnlyProperty<T> emptyReadOnly() {
-        return (ReadOnlyObjectProperty<T>) VOID;
-    }
+    /**
+     * Formatted WKTs by {@code CRSInfo}. They're accounted against the byte budget the cache
+     * manager shares with render surfaces, tiles, and so on, rather than softly referenced, so the
+     * memory they take is bounded by that budget and they're evicted before costlier entries when
+     * it's full, instead of lingering until the heap runs short.
+     */
+    private static final ManagedCache<CRSInfo, String> WELL_KNOWN_TEXTS =
+            CacheManager.getDefault().register("crs-wkt", CRSInfo::weigh);
+
+    /** Guards {@link #decodeCallbacks} of all the entries, held only to add or take callbacks */
+    private static final Object DECODE_CALLBACKS_LOCK = new Object();
+
+    private final String authorityCode;
+
+    private final String description;
+
+    /** The CRS, {@code null} if unsupported or not decoded yet */
+    private volatile CoordinateReferenceSystem crs;
+
+    /** Whether the CRS is decoded on demand, see {@link #lazy} and {@link #cached} */
+    private final boolean onDemand;
 
-    private ReadOnlyStringProperty authorityCode = EMPTYSTRING;
+    private final boolean forceLongitudeFirst;
 
-    private ReadOnlyProperty<CoordinateReferenceSystem> crs = emptyReadOnly();
+    /**
+     * The latitude first entry a {@link #longitudeFirst longitude first} one decodes through, its
+     * CRS is reused when forcing longitude first doesn't change it
+     */
+    private final CRSInfo shared;
 
-    private StringExpression description = EMPTYSTRING;
+    /** Whether {@link #crs} is final, always {@code true} unless decoded on demand */
+    private volatile boolean decoded;
 
-    private StringExpression scope;
+    /** Whether the decoding has been published to the JavaFX application thread */
+    private boolean decodedPublished;
 
-    private StringExpression domainOfValidity;
+    private volatile String unsupportedReason;
 
-    private ReadOnlyProperty<ReferencedEnvelope> areaOfValidity;
+    /**
+     * Metadata known without decoding the CRS, e.g. when read from a {@link
+     * org.geotools.fx.crs.service.CoordinateSystemCatalog catalog}. {@code type} is {@code null} if
+     * there's no such metadata.
+     */
+    private final CoordinateSystemType type;
 
-    private ReadOnlyIntegerProperty dimension;
+    private final int dimension;
 
-    private StringExpression wkt;
+    private final String projectionName;
 
-    // CoordinateSystem properties
-    private ObjectExpression<CoordinateSystem> coordinateSystem;
+    private final String domainOfValidity;
 
-    private StringExpression axesDescription;
+    private ReferencedEnvelope geographicAreaOfValidity;
 
-    private StringExpression unsupportedReason;
+    /** The JavaFX properties, created the first time any of them is requested */
+    private Observables observables;
+
+    /** Plain callbacks run once the CRS is decoded, see {@link #addDecodeCallback} */
+    private List<Consumer<CRSInfo>> decodeCallbacks;
 
     /** Constructor for groups of coordinate reference systems */
     public CRSInfo(@NonNull String groupName) {
-        this.description = new SimpleStringProperty(groupName);
-        this.crs = new SimpleObjectProperty<>();
-        this.authorityCode = new SimpleStringProperty();
-        this.wkt = new SimpleStringProperty();
-        this.coordinateSystem = new SimpleObjectProperty<>();
+        this(null, groupName, null, false, false, null, null);
     }
 
     /** Constructor for supported coordinate reference systems */
     public CRSInfo(@NonNull String authorityCode, @NonNull CoordinateReferenceSystem coordRefSys) {
-        this.authorityCode = new SimpleStringProperty(authorityCode);
-        this.crs = new SimpleObjectProperty<>(coordRefSys);
-        this.description = stringProp(crs.getValue().getName().getCode());
-        this.wkt = Bindings.createStringBinding(() -> crs.getValue().toString(), crs);
-
-        this.coordinateSystem =
-                Bindings.createObjectBinding(() -> crs.getValue().getCoordinateSystem(), crs);
+        this(authorityCode, coordRefSys.getName().getCode(), null, false, false, null, null);
+        this.crs = coordRefSys;
+    }
 
-        this.axesDescription = Bindings.createStringBinding(() -> getUnitsStr(), coordinateSystem);
+    /** constructor for unsupported coordinate reference systems */
+    CRSInfo(String crsCode, String description, String reason) {
+        this(crsCode, description, reason, false, false, null, null);
+    }
+
+    /**
+     * Constructor for coordinate reference systems decoded on demand, whose metadata may be known
+     * before decoding
+     */
+    private CRSInfo(
+            @NonNull String authorityCode,
+            @Nullable String description,
+            boolean forceLongitudeFirst,
+            @Nullable CachedMetadata metadata,
+            @Nullable CRSInfo shared) {
+        this(authorityCode, description, null, true, forceLongitudeFirst, metadata, shared);
+    }
+
+    private CRSInfo(
+            String authorityCode,
+            String description,
+            String unsupportedReason,
+            boolean onDemand,
+            boolean forceLongitudeFirst,
+            CachedMetadata metadata,
+            CRSInfo shared) {
+        this.authorityCode = authorityCode;
+        this.description = description;
+        this.unsupportedReason = intern(unsupportedReason);
+        this.onDemand = onDemand;
+        this.forceLongitudeFirst = forceLongitudeFirst;
+        this.shared = shared;
+        this.decoded = !onDemand;
+        this.decodedPublished = !onDemand;
+        if (metadata == null) {
+            this.type = null;
+            this.dimension = 0;
+            this.projectionName = null;
+            this.domainOfValidity = null;
+        } else {
+            this.type = metadata.type;
+            this.dimension = metadata.dimension;
+            this.projectionName = intern(metadata.projectionName);
+            this.domainOfValidity = intern(metadata.domainOfValidity);
+            this.geographicAreaOfValidity = metadata.geographicAreaOfValidity;
+        }
     }
 
-    private StringExpression stringProp(Object o) {
-        return o == null ? EMPTYSTRING : new SimpleStringProperty(string(o));
+    private static String intern(String s) {
+        return s == null ? null : s.intern();
     }
 
-    private String string(Object val) {
+    private static String string(Object val) {
         return val == null ? null : val.toString();
     }
 
-    /** constructor for unsupported coordinate reference systems */
-    CRSInfo(String crsCode, String description, String reason) {
-        this.authorityCode = new SimpleStringProperty(crsCode);
-        this.description = new SimpleStringProperty(description);
-        this.unsupportedReason = new SimpleStringProperty(reason);
+    /** Approximate heap size of a cached string, including its key and cache entry */
+    private static long weigh(String value) {
+        return 2L * value.length() + 128;
+    }
+
+    /** Whether the metadata was provided at construction rather than derived from the CRS */
+    private boolean isCached() {
+        return type != null;
+    }
+
+    private Observables observables() {
+        if (observables == null) {
+            observables = new Observables();
+        }
+        return observables;
     }
 
     public StringExpression unsupportedReasonProperty() {
-        return unsupportedReason == null ? new SimpleStringProperty() : unsupportedReason;
+        Observables o = observables();
+        if (o.unsupportedReason == null) {
+            o.unsupportedReason =
+                    new SimpleStringProperty(this, "unsupportedReason", unsupportedReason);
+        }
+        return o.unsupportedReason;
     }
 
     public String getUnsupportedReason() {
-        return unsupportedReasonProperty().get();
+        return unsupportedReason;
     }
 
-    private String getUnitsStr() {
-        CoordinateSystem cs = coordinateSystem.get();
-        int dimension = cs.getDimension();
-        String d = axisDesc(cs.getAxis(0));
-        for (int i = 1; i < dimension; i++) {
-            d += ", " + axisDesc(cs.getAxis(i));
-        }
-        return d;
+    private static String getUnitsStr(CoordinateSystem cs) {
+        return AXES_DESCRIPTIONS.computeIfAbsent(
+                cs,
+                c -> {
+                    StringBuilder sb = new StringBuilder();
+                    for (int i = 0; i < c.getDimension(); i++) {
+                        if (i > 0) {
+                            sb.append(", ");
+                        }
+                        axisDesc(c.getAxis(i), sb);
+                    }
+                    return sb.toString().intern();
+                });
     }
 
-    private String axisDesc(CoordinateSystemAxis axis) {
+    private static void axisDesc(CoordinateSystemAxis axis, StringBuilder sb) {
         AxisDirection direction = axis.getDirection();
-        String abbreviation = axis.getAbbreviation();
         Unit<?> unit = axis.getUnit();
-        String directionArrow = axisDirectionIndicator(direction);
-        return String.format("%s %s(%s)", directionArrow, abbreviation, unit);
+        sb.append(axisDirectionIndicator(direction)).append(' ');
+        sb.append(axis.getAbbreviation()).append('(').append(unit).append(')');
     }
 
-    private String axisDirectionIndicator(final AxisDirection direction) {
+    private static String axisDirectionIndicator(final AxisDirection direction) {
         switch (direction.name()) {
             case "OTHER":
                 return "";
@@ -201,65 +319,270 @@ public class CRSInfo {
         return "";
     }
 
+    /**
+     * The decoded coordinate reference system. For {@code CRSInfo}s created {@link #lazy lazily} or
+     * from {@link #cached cached} metadata, the CRS is decoded on the calling thread the first time
+     * its value is requested, use {@link #decodeAsync()} to avoid blocking the caller.
+     */
     public ReadOnlyProperty<CoordinateReferenceSystem> crsProperty() {
-        return crs;
+        Observables o = observables();
+        if (o.crs == null) {
+            o.crs = new CrsProperty(this);
+        }
+        return o.crs;
+    }
+
+    /**
+     * Whether the CRS has been decoded already, so that requesting it, or the properties derived
+     * from it, won't block
+     */
+    public ReadOnlyBooleanProperty decodedProperty() {
+        Observables o = observables();
+        if (o.decoded == null) {
+            o.decoded = new SimpleBooleanProperty(this, "decoded", decodedPublished);
+        }
+        return o.decoded;
+    }
+
+    public boolean isDecoded() {
+        return decoded;
+    }
+
+    /** Whether the metadata derived from the CRS can be obtained without decoding it */
+    boolean hasMetadata() {
+        return isCached() || isDecoded();
+    }
+
+    /**
+     * Decodes the CRS in a background thread if it hasn't been decoded yet
+     *
+     * @return a future completed with the CRS, or {@code null} if it can't be decoded
+     */
+    public CompletableFuture<CoordinateReferenceSystem> decodeAsync() {
+        if (isDecoded()) {
+            return CompletableFuture.completedFuture(crs);
+        }
+        return CompletableFuture.supplyAsync(this::getCrs, DecoderPool.EXECUTOR);
     }
 
     public CoordinateReferenceSystem getCrs() {
-        return crs.getValue();
+        if (!decoded) {
+            decode();
+        }
+        return crs;
+    }
+
+    /** Decodes the CRS from its authority code, called at most once for on demand entries */
+    private synchronized void decode() {
+        if (decoded) {
+            return;
+        }
+        String failure = null;
+        try {
+            CoordinateReferenceSystem same = shared == null ? null : sharedCrs();
+            crs = same != null ? same : CRS.decode(authorityCode, forceLongitudeFirst);
+        } catch (FactoryException e) {
+            LOGGER.log(Level.FINE, "Error decoding " + authorityCode, e);
+            failure = intern(e.getMessage() == null ? e.toString() : e.getMessage());
+            unsupportedReason = failure;
+        }
+        decoded = true;
+        publishDecoded(failure);
+        List<Consumer<CRSInfo>> callbacks;
+        synchronized (DECODE_CALLBACKS_LOCK) {
+            callbacks = decodeCallbacks;
+            decodeCallbacks = null;
+        }
+        if (callbacks != null) {
+            callbacks.forEach(c -> c.accept(this));
+        }
+    }
+
+    /**
+     * Adds a callback called with this entry once its CRS is decoded, from the decoding thread.
+     * Unlike listening to {@link #decodedProperty()}, it doesn't create the entry's JavaFX
+     * properties, so it's meant for collections tracking many entries until they're decoded. The
+     * callback shall be quick, and hand the entry over to its own thread if needed.
+     *
+     * @return {@code false}, and the callback is not added, if the CRS is decoded already
+     */
+    public boolean addDecodeCallback(@NonNull Consumer<CRSInfo> callback) {
+        synchronized (DECODE_CALLBACKS_LOCK) {
+            if (decoded) {
+                return false;
+            }
+            if (decodeCallbacks == null) {
+                decodeCallbacks = new ArrayList<>(2);
+            }
+            decodeCallbacks.add(callback);
+            return true;
+        }
+    }
+
+    /** Removes a callback added with {@link #addDecodeCallback}, if not called already */
+    public void removeDecodeCallback(@NonNull Consumer<CRSInfo> callback) {
+        synchronized (DECODE_CALLBACKS_LOCK) {
+            if (decodeCallbacks != null) {
+                decodeCallbacks.remove(callback);
+                if (decodeCallbacks.isEmpty()) {
+                    decodeCallbacks = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the CRS of the {@link #shared} latitude first entry if forcing longitude first makes
+     *     no difference to it, {@code null} otherwise
+     */
+    private @Nullable CoordinateReferenceSystem sharedCrs() {
+        // geographic CRSs are latitude first, don't decode them twice
+        if (!shared.isDecoded() && shared.type == CoordinateSystemType.GEOGRAPHIC) {
+            return null;
+        }
+        CoordinateReferenceSystem same = shared.getCrs();
+        SingleCRS horizontal = same == null ? null : CRS.getHorizontalCRS(same);
+        if (horizontal != null && CRS.getAxisOrder(horizontal) != AxisOrder.EAST_NORTH) {
+            return null;
+        }
+        return same;
+    }
+
+    /** Updates the observable properties on the JavaFX application thread */
+    private void publishDecoded(String failure) {
+        Runnable update =
+                () -> {
+                    decodedPublished = true;
+                    Observables o = observables;
+                    if (o == null) {
+                        return;
+                    }
+                    if (o.scope != null) {
+                        o.scope.set(getScope());
+                    }
+                    if (o.domainOfValidity != null) {
+                        o.domainOfValidity.set(getDomainOfValidity());
+                    }
+                    if (o.areaOfValidity != null) {
+                        o.areaOfValidity.set(getAreaOfValidity());
+                    }
+                    if (o.dimension != null) {
+                        o.dimension.set(getDimension());
+                    }
+                    if (o.coordinateSystemType != null) {
+                        o.coordinateSystemType.set(getCoordinateSystemType());
+                    }
+                    if (o.decoded != null) {
+                        o.decoded.set(true);
+                    }
+                    if (failure != null && o.unsupportedReason != null) {
+                        o.unsupportedReason.set(failure);
+                    }
+                };
+        if (Platform.isFxApplicationThread()) {
+            update.run();
+        } else {
+            try {
+                Platform.runLater(update);
+            } catch (IllegalStateException toolkitNotRunning) {
+                // headless, there's no application thread to publish to
+                update.run();
+            }
+        }
     }
 
     public ReadOnlyStringProperty authorityCodeProperty() {
-        return authorityCode;
+        Observables o = observables();
+        if (o.authorityCode == null) {
+            o.authorityCode = new SimpleStringProperty(this, "authorityCode", authorityCode);
+        }
+        return o.authorityCode;
     }
 
     public String getAuthorityCode() {
-        return authorityCode.getValue();
+        return authorityCode;
     }
 
     public StringExpression descriptionProperty() {
-        return description;
+        Observables o = observables();
+        if (o.description == null) {
+            o.description = new SimpleStringProperty(this, "description", description);
+        }
+        return o.description;
     }
 
     public String getDescription() {
-        return description.get();
+        return description;
     }
 
     public StringExpression scopeProperty() {
-        if (scope == null) {
-            scope = stringProp(getScope());
+        Observables o = observables();
+        if (o.scope == null) {
+            o.scope = new SimpleStringProperty(this, "scope", decoded ? getScope() : null);
         }
-        return scope;
+        return o.scope;
     }
 
     public String getScope() {
-        CoordinateReferenceSystem cs = crs.getValue();
+        CoordinateReferenceSystem cs = getCrs();
         return cs == null ? null : string(cs.getScope());
     }
 
     public StringExpression domainOfValidityProperty() {
-        if (domainOfValidity == null) {
-            domainOfValidity = stringProp(getDomainOfValidity());
+        Observables o = observables();
+        if (o.domainOfValidity == null) {
+            o.domainOfValidity =
+                    new SimpleStringProperty(
+                            this, "domainOfValidity", hasMetadata() ? getDomainOfValidity() : null);
         }
-        return domainOfValidity;
+        return o.domainOfValidity;
     }
 
     public String getDomainOfValidity() {
-        CoordinateReferenceSystem cs = crs.getValue();
+        if (isCached()) {
+            return domainOfValidity;
+        }
+        CoordinateReferenceSystem cs = getCrs();
         Extent extent = cs == null ? null : cs.getDomainOfValidity();
         return extent == null ? null : string(extent.getDescription());
     }
 
     public ReadOnlyProperty<ReferencedEnvelope> areaOfValidityProperty() {
-        if (areaOfValidity == null) {
-            final ReferencedEnvelope aov = getAreaOfValidityInternal();
-            areaOfValidity = new SimpleObjectProperty<>(this, "areaOfValidity", aov);
+        Observables o = observables();
+        if (o.areaOfValidity == null) {
+            final ReferencedEnvelope aov = decoded ? getAreaOfValidity() : null;
+            o.areaOfValidity = new SimpleObjectProperty<>(this, "areaOfValidity", aov);
         }
-        return areaOfValidity;
+        return o.areaOfValidity;
     }
 
     public ReferencedEnvelope getAreaOfValidity() {
-        return areaOfValidityProperty().getValue();
+        return getAreaOfValidityInternal();
+    }
+
+    /**
+     * The area of validity of the CRS as a {@link DefaultGeographicCRS#WGS84 WGS84} envelope,
+     * useful to compare the areas of validity of different coordinate reference systems.
+     *
+     * @return the WGS84 area of validity, or {@code null} if unknown
+     */
+    public @Nullable ReferencedEnvelope getGeographicAreaOfValidity() {
+        if (geographicAreaOfValidity == null && !isCached()) {
+            CoordinateReferenceSystem cs = getCrs();
+            GeographicBoundingBox bbox = cs == null ? null : CRS.getGeographicBoundingBox(cs);
+            if (bbox != null) {
+                double west = bbox.getWestBoundLongitude();
+                double east = bbox.getEastBoundLongitude();
+                geographicAreaOfValidity =
+                        new ReferencedEnvelope(
+                                west,
+                                west > east ? east + 360 : east,
+                                bbox.getSouthBoundLatitude(),
+                                bbox.getNorthBoundLatitude(),
+                                DefaultGeographicCRS.WGS84);
+            }
+        }
+        return geographicAreaOfValidity;
     }
 
     private ReferencedEnvelope getAreaOfValidityInternal() {
@@ -288,29 +611,91 @@ public class CRSInfo {
         return new ReferencedEnvelope(envelope);
     }
 
+    /** The CRS dimension, {@code 0} until it's decoded unless it's known from cached metadata */
     public ReadOnlyIntegerProperty dimensionProperty() {
-        if (dimension == null) {
-            CoordinateReferenceSystem cs = crs.getValue();
-            int dim = cs == null ? 0 : cs.getCoordinateSystem().getDimension();
-            dimension = new SimpleIntegerProperty(dim);
+        Observables o = observables();
+        if (o.dimension == null) {
+            o.dimension =
+                    new SimpleIntegerProperty(
+                            this, "dimension", hasMetadata() ? getDimension() : 0);
         }
-        return dimension;
+        return o.dimension;
     }
 
     public int getDimension() {
-        return dimensionProperty().get();
+        if (isCached()) {
+            return dimension;
+        }
+        CoordinateReferenceSystem cs = getCrs();
+        return cs == null ? 0 : cs.getCoordinateSystem().getDimension();
     }
 
+    /**
+     * The description of the CRS axes, with their direction and units. Computed in a background
+     * thread the first time it's requested, the property value is {@code null} until then.
+     */
     public StringExpression axesDescriptionProperty() {
-        return axesDescription;
+        Observables o = observables();
+        if (o.axesDescription == null) {
+            o.axesDescription =
+                    new BackgroundStringProperty(
+                            this,
+                            "axesDescription",
+                            this::peekAxesDescription,
+                            this::getAxesDescription);
+        }
+        return o.axesDescription;
+    }
+
+    public @Nullable String getAxesDescription() {
+        CoordinateReferenceSystem cs = getCrs();
+        return cs == null ? null : getUnitsStr(cs.getCoordinateSystem());
     }
 
+    private @Nullable String peekAxesDescription() {
+        CoordinateReferenceSystem cs = decoded ? crs : null;
+        return cs == null ? null : AXES_DESCRIPTIONS.get(cs.getCoordinateSystem());
+    }
+
+    /**
+     * The WKT of the CRS. Formatted in a background thread the first time it's requested, the
+     * property value is {@code null} until then.
+     */
     public StringExpression wellKnownTextProperty() {
+        Observables o = observables();
+        if (o.wkt == null) {
+            o.wkt =
+                    new BackgroundStringProperty(
+                            this, "wellKnownText", this::peekWellKnownText, this::getWellKnownText);
+        }
+        return o.wkt;
+    }
+
+    /** @return the WKT of the CRS, formatted once and kept until evicted from the cache */
+    public @Nullable String getWellKnownText() {
+        String wkt = peekWellKnownText();
+        if (wkt == null) {
+            CoordinateReferenceSystem cs = getCrs();
+            wkt = cs == null ? null : WELL_KNOWN_TEXTS.computeIfAbsent(this, i -> string(cs));
+        }
         return wkt;
     }
 
-    public String getWellKnownText() {
-        return wkt.get();
+    private @Nullable String peekWellKnownText() {
+        return WELL_KNOWN_TEXTS.get(this);
+    }
+
+    /**
+     * Decodes the CRS and formats its WKT and axes description in a background thread, e.g. for the
+     * list rows about to be shown, so that reading them later doesn't block
+     */
+    public CompletableFuture<Void> prefetchAsync() {
+        return CompletableFuture.runAsync(
+                () -> {
+                    getWellKnownText();
+                    getAxesDescription();
+                },
+                DecoderPool.EXECUTOR);
     }
 
     public static CRSInfo unsupported(String crsCode, String description, String reason) {
@@ -340,6 +725,190 @@ public class CRSInfo {
         return new CRSInfo(authCode, crs);
     }
 
+    /**
+     * Creates a {@code CRSInfo} that decodes its coordinate reference system on demand. Until then,
+     * only the authority code and description are known, and requesting any other property decodes
+     * the CRS on the calling thread. A CRS that fails to decode is reported through {@link
+     * #unsupportedReasonProperty()}.
+     *
+     * @param description the authority's description text for the code
+     */
+    public static CRSInfo lazy(
+            @NonNull String authorityCode,
+            @Nullable String description,
+            boolean forceLongitudeFirst) {
+        return new CRSInfo(authorityCode, description, forceLongitudeFirst, null, null);
+    }
+
+    /**
+     * Creates a {@code CRSInfo} for a supported coordinate reference system whose metadata is
+     * already known, typically from a previous run. The CRS itself is decoded from its authority
+     * code the first time it's requested.
+     *
+     * @param geographicAreaOfValidity the WGS84 area of validity, if known
+     */
+    public static CRSInfo cached(
+            @NonNull String authorityCode,
+            @Nullable String description,
+            @NonNull CoordinateSystemType type,
+            int dimension,
+            @Nullable String projectionName,
+            @Nullable String domainOfValidity,
+            @Nullable ReferencedEnvelope geographicAreaOfValidity,
+            boolean forceLongitudeFirst) {
+        CachedMetadata metadata = new CachedMetadata();
+        metadata.type = type;
+        metadata.dimension = dimension;
+        metadata.projectionName = projectionName;
+        metadata.domainOfValidity = domainOfValidity;
+        metadata.geographicAreaOfValidity = geographicAreaOfValidity;
+        return new CRSInfo(authorityCode, description, forceLongitudeFirst, metadata, null);
+    }
+
+    /**
+     * Creates a longitude first {@code CRSInfo} decoded on demand through a latitude first one.
+     * When decoded, it shares the latitude first CRS if its axis order is already longitude first,
+     * and decodes its own otherwise. Cached metadata, which doesn't depend on the axis order, is
+     * shared too.
+     */
+    public static CRSInfo longitudeFirst(@NonNull CRSInfo latitudeFirst) {
+        CachedMetadata metadata = null;
+        if (latitudeFirst.isCached()) {
+            metadata = new CachedMetadata();
+            metadata.type = latitudeFirst.type;
+            metadata.dimension = latitudeFirst.dimension;
+            metadata.projectionName = latitudeFirst.projectionName;
+            metadata.domainOfValidity = latitudeFirst.domainOfValidity;
+            metadata.geographicAreaOfValidity = latitudeFirst.geographicAreaOfValidity;
+        }
+        return new CRSInfo(
+                latitudeFirst.authorityCode,
+                latitudeFirst.description,
+                true,
+                metadata,
+                latitudeFirst);
+    }
+
+    private static class CachedMetadata {
+        CoordinateSystemType type;
+        int dimension;
+        String projectionName;
+        String domainOfValidity;
+        ReferencedEnvelope geographicAreaOfValidity;
+    }
+
+    /** Daemon threads decoding CRSs on behalf of {@link #decodeAsync()} */
+    private static class DecoderPool {
+        static final ExecutorService EXECUTOR =
+                Executors.newFixedThreadPool(
+                        Runtime.getRuntime().availableProcessors(),
+                        r -> {
+                            Thread t = new Thread(r, "crs-decoder");
+                            t.setDaemon(true);
+                            return t;
+                        });
+    }
+
+    /** The JavaFX properties of a {@code CRSInfo}, only allocated when requested */
+    private static class Observables {
+        ReadOnlyStringProperty authorityCode;
+        ReadOnlyProperty<CoordinateReferenceSystem> crs;
+        SimpleBooleanProperty decoded;
+        StringExpression description;
+        SimpleStringProperty unsupportedReason;
+        SimpleStringProperty scope;
+        SimpleStringProperty domainOfValidity;
+        SimpleObjectProperty<ReferencedEnvelope> areaOfValidity;
+        SimpleIntegerProperty dimension;
+        StringExpression wkt;
+        StringExpression axesDescription;
+        SimpleObjectProperty<CoordinateSystemType> coordinateSystemType;
+    }
+
+    /**
+     * Read-only string computed from the CRS in a background thread. The value is not held by the
+     * property, which asks for it to the bean's cache each time it's read, and computes it again if
+     * it's not there.
+     */
+    private static class BackgroundStringProperty extends ReadOnlyStringPropertyBase {
+
+        private final CRSInfo bean;
+
+        private final String name;
+
+        private final Supplier<String> cached;
+
+        private final Supplier<String> compute;
+
+        /** Whether a computation is in progress, only accessed on the JavaFX application thread */
+        private boolean pending;
+
+        /** Whether the value can't be computed, e.g. for unsupported CRSs */
+        private boolean unavailable;
+
+        BackgroundStringProperty(
+                CRSInfo bean, String name, Supplier<String> cached, Supplier<String> compute) {
+            this.bean = bean;
+            this.name = name;
+            this.cached = cached;
+            this.compute = compute;
+        }
+
+        public @Override String get() {
+            String value = cached.get();
+            if (value == null && !pending && !unavailable) {
+                pending = true;
+                CompletableFuture.supplyAsync(compute, DecoderPool.EXECUTOR)
+                        .whenComplete(
+                                (computed, error) ->
+                                        Platform.runLater(() -> computed(computed, error)));
+            }
+            return value;
+        }
+
+        private void computed(String value, Throwable error) {
+            pending = false;
+            if (value == null) {
+                unavailable = true;
+                if (error != null) {
+                    LOGGER.log(Level.FINE, "Error computing " + name + " of " + bean, error);
+                }
+            } else {
+                fireValueChangedEvent();
+            }
+        }
+
+        public @Override Object getBean() {
+            return bean;
+        }
+
+        public @Override String getName() {
+            return name;
+        }
+    }
+
+    /** Read-only view of the CRS, decoding it on demand the first time its value is requested */
+    private static class CrsProperty extends ReadOnlyObjectPropertyBase<CoordinateReferenceSystem> {
+
+        private final CRSInfo bean;
+
+        CrsProperty(CRSInfo bean) {
+            this.bean = bean;
+        }
+
+        public @Override CoordinateReferenceSystem get() {
+            return bean.getCrs();
+        }
+
+        public @Override Object getBean() {
+            return bean;
+        }
+
+        public @Override String getName() {
+            return "crs";
+        }
+    }
+
     public static enum CoordinateSystemType {
         ENGINEERING,
         PROJECTED,
@@ -351,22 +920,36 @@ public class CRSInfo {
         UNKNOWN
     }
 
-    private ReadOnlyObjectProperty<CoordinateSystemType> coordinateSystemTypeProperty;
-
+    /** The CRS type, {@code null} until it's decoded unless it's known from cached metadata */
     public ReadOnlyObjectProperty<CoordinateSystemType> coordinateSystemTypeProperty() {
-        if (coordinateSystemTypeProperty == null) {
-            coordinateSystemTypeProperty =
+        Observables o = observables();
+        if (o.coordinateSystemType == null) {
+            o.coordinateSystemType =
                     new SimpleObjectProperty<>(
-                            this, "Coordinate System Type", _getCoordinateSystemType());
+                            this,
+                            "Coordinate System Type",
+                            hasMetadata() ? getCoordinateSystemType() : null);
         }
-        return coordinateSystemTypeProperty;
+        return o.coordinateSystemType;
     }
 
+    /**
+     * The type of the CRS, as cached until it's decoded, {@link CoordinateSystemType#UNKNOWN} if
+     * unsupported or it failed to decode
+     */
     public CoordinateSystemType getCoordinateSystemType() {
-        return _getCoordinateSystemType();
+        return isCached() && !isDecodeFailed() ? type : _getCoordinateSystemType();
+    }
+
+    /** Whether the CRS was decoded on demand and failed to */
+    private boolean isDecodeFailed() {
+        return onDemand && decoded && crs == null;
     }
 
     public String getProjectionName() {
+        if (isCached()) {
+            return projectionName;
+        }
         CoordinateReferenceSystem crs = getCrs();
         if (crs instanceof ProjectedCRS) {
             Projection projection = ((ProjectedCRS) crs).getConversionFromBase();
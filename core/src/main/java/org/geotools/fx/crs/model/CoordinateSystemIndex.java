@@ -0,0 +1,227 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import lombok.NonNull;
+
+/**
+ * Full-text and prefix search index over {@link CRSInfo}s, as kept by a {@link
+ * CoordinateSystemRegistry}.
+ *
+ * <p>The authority code, description (name), projection name, and domain of validity of each entry
+ * are split into lower case alphanumeric tokens, held in a sorted token dictionary pointing to the
+ * entries containing them. A query is tokenized the same way; every query token must match some
+ * entry token, exactly or as a prefix of it, so results narrow as the user types. Results are
+ * ranked by where the tokens matched (code, name, projection, domain, in decreasing weight),
+ * whether they matched exactly, and then by authority code.
+ *
+ * <p>Entries that haven't decoded their CRS yet (see {@link CRSInfo#lazy}) are indexed by code and
+ * description only, and re-indexed once decoded. Without a running JavaFX toolkit, entries decoded
+ * in other threads are re-indexed on the next call to the index.
+ *
+ * <p>This class is not thread safe, it's meant to be used from the JavaFX application thread.
+ */
+public class CoordinateSystemIndex {
+
+    static final int CODE_WEIGHT = 8;
+
+    static final int NAME_WEIGHT = 4;
+
+    static final int PROJECTION_WEIGHT = 2;
+
+    static final int DOMAIN_WEIGHT = 1;
+
+    /** token -> entries containing it, with the weight of the best field it appears in */
+    private final TreeMap<String, Map<CRSInfo, Integer>> postings = new TreeMap<>();
+
+    /** entry -> its tokens, to remove it without scanning the dictionary */
+    private final Map<CRSInfo, Set<String>> tokens = new IdentityHashMap<>();
+
+    /** Entries indexed without their CRS metadata, to re-index once decoded */
+    private final Set<CRSInfo> awaitingDecode = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final DecodedEntries reindexOnDecode = new DecodedEntries(this::reindex);
+
+    public void add(@NonNull CRSInfo info) {
+        reindexOnDecode.drain();
+        if (tokens.containsKey(info)) {
+            return;
+        }
+        Map<String, Integer> weights = new HashMap<>();
+        index(weights, info.getAuthorityCode(), CODE_WEIGHT);
+        index(weights, info.getDescription(), NAME_WEIGHT);
+        if (!info.hasMetadata() && info.addDecodeCallback(reindexOnDecode)) {
+            awaitingDecode.add(info);
+        } else {
+            index(weights, info.getProjectionName(), PROJECTION_WEIGHT);
+            index(weights, info.getDomainOfValidity(), DOMAIN_WEIGHT);
+        }
+        weights.forEach(
+                (token, weight) ->
+                        postings.computeIfAbsent(token, t -> new HashMap<>()).put(info, weight));
+        tokens.put(info, weights.keySet());
+    }
+
+    public void remove(@NonNull CRSInfo info) {
+        reindexOnDecode.drain();
+        Set<String> removed = tokens.remove(info);
+        if (removed == null) {
+            return;
+        }
+        if (awaitingDecode.remove(info)) {
+            info.removeDecodeCallback(reindexOnDecode);
+        }
+        for (String token : removed) {
+            Map<CRSInfo, Integer> entries = postings.get(token);
+            entries.remove(info);
+            if (entries.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    public void clear() {
+        reindexOnDecode.drain();
+        awaitingDecode.forEach(info -> info.removeDecodeCallback(reindexOnDecode));
+        awaitingDecode.clear();
+        tokens.clear();
+        postings.clear();
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    /** Indexes the metadata of entries decoded since they were added */
+    private void reindex(List<CRSInfo> decoded) {
+        for (CRSInfo info : decoded) {
+            if (awaitingDecode.remove(info)) {
+                remove(info);
+                add(info);
+            }
+        }
+    }
+
+    /**
+     * @param query free text, e.g. {@code "utm 33n"}, {@code "4326"}, or {@code "merc wgs"}
+     * @param limit maximum number of results
+     * @return the entries matching all the query tokens, best matches first. All entries sorted by
+     *     authority code if the query has no tokens
+     */
+    public List<CRSInfo> search(@NonNull String query, int limit) {
+        reindexOnDecode.drain();
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            List<CRSInfo> all = new ArrayList<>(tokens.keySet());
+            all.sort(Comparator.comparing(CRSInfo::getAuthorityCode));
+            return all.subList(0, Math.min(limit, all.size()));
+        }
+        // process the most selective token first, and only intersect afterwards
+        queryTokens.sort(Comparator.comparingInt(t -> -t.length()));
+
+        Map<CRSInfo, Integer> scores = null;
+        for (String token : queryTokens) {
+            Map<CRSInfo, Integer> matches = match(token, scores == null ? null : scores.keySet());
+            if (scores == null) {
+                scores = matches;
+            } else {
+                Map<CRSInfo, Integer> intersection = new HashMap<>();
+                for (Map.Entry<CRSInfo, Integer> e : matches.entrySet()) {
+                    intersection.put(e.getKey(), e.getValue() + scores.get(e.getKey()));
+                }
+                scores = intersection;
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        final Map<CRSInfo, Integer> ranking = scores;
+        List<CRSInfo> results = new ArrayList<>(ranking.keySet());
+        results.sort(
+                Comparator.<CRSInfo>comparingInt(ranking::get)
+                        .reversed()
+                        .thenComparing(CRSInfo::getAuthorityCode));
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    /**
+     * @param candidates if not {@code null}, only these entries are considered
+     * @return the entries with a token starting with {@code prefix}, and their best score
+     */
+    private Map<CRSInfo, Integer> match(String prefix, Set<CRSInfo> candidates) {
+        Map<CRSInfo, Integer> matches = new HashMap<>();
+        SortedMap<String, Map<CRSInfo, Integer>> range =
+                postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        for (Map.Entry<String, Map<CRSInfo, Integer>> e : range.entrySet()) {
+            // exact token matches rank above prefix matches
+            final int factor = e.getKey().length() == prefix.length() ? 2 : 1;
+            Map<CRSInfo, Integer> entries = e.getValue();
+            if (candidates != null && candidates.size() < entries.size()) {
+                for (CRSInfo info : candidates) {
+                    Integer weight = entries.get(info);
+                    if (weight != null) {
+                        matches.merge(info, factor * weight, Math::max);
+                    }
+                }
+            } else {
+                for (Map.Entry<CRSInfo, Integer> p : entries.entrySet()) {
+                    if (candidates == null || candidates.contains(p.getKey())) {
+                        matches.merge(p.getKey(), factor * p.getValue(), Math::max);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static void index(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Math::max);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> tokens = new HashSet<>();
+        final String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean alnum = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (alnum && start < 0) {
+                start = i;
+            } else if (!alnum && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+}
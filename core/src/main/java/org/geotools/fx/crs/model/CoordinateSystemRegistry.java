@@ -25,23 +25,41 @@ import static org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType.TEMPORAL;
 import static org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType.UNKNOWN;
 import static org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType.VERTICAL;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 import javafx.beans.property.ReadOnlyListProperty;
 import javafx.beans.property.ReadOnlySetProperty;
 import javafx.beans.property.SetProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleSetProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.MapChangeListener;
-import javafx.collections.ObservableMap;
+import javafx.collections.ModifiableObservableListBase;
 import javafx.collections.ObservableSet;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.experimental.Accessors;
 import org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType;
 
+/**
+ * {@link CRSInfo}s by authority code, with search indexes and derived views kept up to date as
+ * entries are added, removed, and decoded.
+ *
+ * <p>This class is not thread safe, it's meant to be used from the JavaFX application thread.
+ * Without a running JavaFX toolkit, entries decoded in other threads are classified again on the
+ * next call to the registry.
+ */
 @Accessors(fluent = true)
 public class CoordinateSystemRegistry {
 
@@ -55,31 +73,42 @@ public class CoordinateSystemRegistry {
 
     private ReadOnlySetProperty<CRSInfo> unsupported;
 
-    private @Getter ReadOnlyListProperty<CRSInfo> all =
-            new SimpleListProperty<>(FXCollections.observableArrayList());
+    private final CodeOrderedList entries = new CodeOrderedList();
 
-    private final ObservableMap<String, CRSInfo> map = FXCollections.observableMap(new TreeMap<>());
+    /** All the registry entries, sorted by authority code */
+    private @Getter ReadOnlyListProperty<CRSInfo> all = new SimpleListProperty<>(entries);
 
-    public CoordinateSystemRegistry() {
-        MapChangeListener<? super String, ? super CRSInfo> listener =
-                new MapChangeListener<String, CRSInfo>() {
-                    public @Override void onChanged(
-                            Change<? extends String, ? extends CRSInfo> change) {
-                        if (change.wasAdded()) {
-                            addToProperty(change.getValueAdded());
-                        } else if (change.wasRemoved()) {
-                            removeFromProperty(change.getValueRemoved());
-                        }
-                    }
-                };
-        map.addListener(listener);
-    }
+    private final TreeMap<String, CRSInfo> map = new TreeMap<>();
+
+    /** Search index over the registry entries, kept up to date as entries are added and removed */
+    private final @Getter CoordinateSystemIndex index = new CoordinateSystemIndex();
+
+    private CoordinateSystemSpatialIndex spatialIndex;
+
+    /**
+     * Coordinate system type of each entry, computed when it's added and again once its CRS is
+     * decoded, {@code null} for entries whose type isn't known until then
+     */
+    private final Map<CRSInfo, CoordinateSystemType> classification = new IdentityHashMap<>();
+
+    /** The derived views, supported, unsupported, by type, and filtered */
+    private final List<View> views = new ArrayList<>();
+
+    /** Strong references to the views by type, the others are referenced by their fields */
+    private final EnumMap<CoordinateSystemType, ReadOnlySetProperty<CRSInfo>> typeViews =
+            new EnumMap<>(CoordinateSystemType.class);
+
+    /** Entries classified without their CRS metadata, to classify again once decoded */
+    private final Set<CRSInfo> awaitingDecode = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final DecodedEntries classifyOnDecode = new DecodedEntries(this::reclassify);
 
     public boolean contains(@NonNull CRSInfo crs) {
         return containsAuthorityCode(crs.getAuthorityCode());
     }
 
     public boolean containsAuthorityCode(@NonNull String authorityCode) {
+        classifyOnDecode.drain();
         return map.containsKey(authorityCode);
     }
 
@@ -87,9 +116,47 @@ public class CoordinateSystemRegistry {
         return new CoordinateSystemRegistry();
     }
 
+    /**
+     * Adds or replaces all the given entries, notifying listeners of {@link #all()} of a single
+     * change
+     */
     public void addAll(@NonNull Iterable<CRSInfo> crss) {
+        classifyOnDecode.drain();
+        List<CRSInfo> added = new ArrayList<>();
+        List<CRSInfo> replaced = new ArrayList<>();
         for (CRSInfo crs : crss) {
-            add(crs);
+            CRSInfo old = map.put(crs.getAuthorityCode(), crs);
+            if (old != crs) {
+                if (old != null) {
+                    replaced.add(old);
+                }
+                added.add(crs);
+            }
+        }
+        // entries replaced by a later one in the same batch were never added
+        added.removeIf(crs -> map.get(crs.getAuthorityCode()) != crs);
+        removed(replaced);
+        added(added);
+        if (!added.isEmpty()) {
+            entries.update(added, Collections.emptyList(), map.values());
+        }
+    }
+
+    /** Removes all the given entries, notifying listeners of {@link #all()} of a single change */
+    public void removeAll(@NonNull Iterable<String> authorityCodes) {
+        classifyOnDecode.drain();
+        List<String> removedCodes = new ArrayList<>();
+        List<CRSInfo> removed = new ArrayList<>();
+        for (String authorityCode : authorityCodes) {
+            CRSInfo crs = map.remove(authorityCode);
+            if (crs != null) {
+                removed.add(crs);
+                removedCodes.add(authorityCode);
+            }
+        }
+        removed(removed);
+        if (!removedCodes.isEmpty()) {
+            entries.update(Collections.emptyList(), removedCodes, map.values());
         }
     }
 
@@ -99,69 +166,312 @@ public class CoordinateSystemRegistry {
     }
 
     public CRSInfo remove(@NonNull String authorityCode) {
+        classifyOnDecode.drain();
         CRSInfo removed = map.remove(authorityCode);
         if (removed != null) {
-            all.remove(removed);
+            entries.remove(entries.indexOf(authorityCode));
+            removed(Collections.singletonList(removed));
         }
         return removed;
     }
 
     public boolean add(@NonNull CRSInfo crs) {
-        CRSInfo old = map.put(crs.getAuthorityCode(), crs);
+        classifyOnDecode.drain();
+        final String code = crs.getAuthorityCode();
+        CRSInfo old = map.put(code, crs);
+        if (old == crs) {
+            return false;
+        }
+        final int index = entries.indexOf(code);
         if (old != null) {
-            all.remove(old);
+            removed(Collections.singletonList(old));
+            entries.set(index, crs);
+        } else {
+            entries.add(-index - 1, crs);
         }
-        all.add(crs);
+        added(Collections.singletonList(crs));
         return old == null;
     }
 
+    /** Updates the indexes and derived sets after {@code crss} are put in the map */
+    private void added(List<CRSInfo> crss) {
+        classify(crss);
+        for (CRSInfo crs : crss) {
+            index.add(crs);
+            if (spatialIndex != null) {
+                spatialIndex.add(crs);
+            }
+        }
+    }
+
+    /** Updates the indexes and derived sets after {@code crss} are taken out of the map */
+    private void removed(List<CRSInfo> crss) {
+        unclassify(crss);
+        for (CRSInfo crs : crss) {
+            index.remove(crs);
+            if (spatialIndex != null) {
+                spatialIndex.remove(crs);
+            }
+        }
+    }
+
+    /**
+     * Searches the registry by authority code, name, projection name, and domain of validity
+     *
+     * @see CoordinateSystemIndex#search(String, int)
+     */
+    public List<CRSInfo> search(@NonNull String query, int limit) {
+        classifyOnDecode.drain();
+        return index.search(query, limit);
+    }
+
+    /**
+     * Spatial index over the areas of validity of the registry entries, built in the background the
+     * first time it's requested and kept up to date afterwards
+     */
+    public CoordinateSystemSpatialIndex spatialIndex() {
+        classifyOnDecode.drain();
+        if (spatialIndex == null) {
+            spatialIndex = new CoordinateSystemSpatialIndex(map.values());
+        }
+        return spatialIndex;
+    }
+
     public int size() {
+        classifyOnDecode.drain();
         return map.size();
     }
 
+    /**
+     * Entries of a {@link #SUPPORTED_TYPES supported} coordinate system type. Entries whose type
+     * isn't known until their CRS is {@link CRSInfo#lazy decoded} are presumed supported, and moved
+     * to {@link #unsupported()} if they turn out not to be once decoded.
+     */
     public ReadOnlySetProperty<CRSInfo> supported() {
         if (supported == null) {
-            supported = newSet("supported", SUPPORTED_TYPES);
+            supported =
+                    newView(
+                            "supported",
+                            crs -> {
+                                CoordinateSystemType type = typeOf(crs);
+                                return type == null || SUPPORTED_TYPES.contains(type);
+                            });
         }
         return supported;
     }
 
+    /** Entries of an unsupported coordinate system type, including those that failed to decode */
     public ReadOnlySetProperty<CRSInfo> unsupported() {
         if (unsupported == null) {
-            unsupported = newSet("unsupported", UNSUPPORTED_TYPES);
+            unsupported = newView("unsupported", crs -> UNSUPPORTED_TYPES.contains(typeOf(crs)));
         }
         return unsupported;
     }
 
-    private void removeFromProperty(@NonNull CRSInfo crs) {
-        SetProperty<CRSInfo> prop = propertyFor(crs);
-        if (prop != null) {
-            prop.add(crs);
+    /** Entries of the given coordinate system type */
+    public ReadOnlySetProperty<CRSInfo> ofType(@NonNull CoordinateSystemType type) {
+        return typeViews.computeIfAbsent(
+                type, t -> newView(t.name().toLowerCase(Locale.ROOT), crs -> typeOf(crs) == t));
+    }
+
+    /**
+     * Entries matching {@code predicate}, kept up to date as entries are added and removed. The
+     * predicate is evaluated when an entry is classified, that is when it's added and, for entries
+     * decoded on demand, again once decoded, so it shall only depend on properties of the entry
+     * that don't change otherwise.
+     *
+     * <p>The registry only keeps a weak reference to the returned set, hold on to it for as long as
+     * it's needed.
+     */
+    public ReadOnlySetProperty<CRSInfo> filtered(@NonNull Predicate<CRSInfo> predicate) {
+        return newView("filtered", predicate);
+    }
+
+    /**
+     * The coordinate system type of a registry entry, as classified when it was added or decoded,
+     * or {@code null} if it's not in the registry or its type isn't known until its CRS is decoded
+     */
+    public CoordinateSystemType typeOf(@NonNull CRSInfo crs) {
+        classifyOnDecode.drain();
+        return classification.get(crs);
+    }
+
+    private ReadOnlySetProperty<CRSInfo> newView(String name, Predicate<CRSInfo> predicate) {
+        classifyOnDecode.drain();
+        ObservableSet<CRSInfo> set = FXCollections.observableSet(new LinkedHashSet<>());
+        for (CRSInfo crs : map.values()) {
+            if (predicate.test(crs)) {
+                set.add(crs);
+            }
+        }
+        SimpleSetProperty<CRSInfo> property = new SimpleSetProperty<>(this, name, set);
+        views.add(new View(property, predicate));
+        return property;
+    }
+
+    /**
+     * Classifies {@code crss} by the metadata available without decoding their CRS, if any, and
+     * arranges for the undecoded ones to be classified again once decoded, which may tell they're
+     * unsupported after all
+     */
+    private void classify(List<CRSInfo> crss) {
+        for (CRSInfo crs : crss) {
+            if (!crs.isDecoded() && crs.addDecodeCallback(classifyOnDecode)) {
+                awaitingDecode.add(crs);
+            }
+            classification.put(crs, crs.hasMetadata() ? crs.getCoordinateSystemType() : null);
+        }
+        boolean collected = false;
+        for (View view : views) {
+            SetProperty<CRSInfo> set = view.set.get();
+            if (set == null) {
+                collected = true;
+            } else {
+                List<CRSInfo> matching = new ArrayList<>();
+                for (CRSInfo crs : crss) {
+                    if (view.predicate.test(crs)) {
+                        matching.add(crs);
+                    }
+                }
+                set.addAll(matching);
+            }
+        }
+        if (collected) {
+            views.removeIf(v -> v.set.get() == null);
         }
     }
 
-    private void addToProperty(@NonNull CRSInfo crs) {
-        SetProperty<CRSInfo> prop = propertyFor(crs);
-        if (prop != null) {
-            prop.remove(crs);
+    private void unclassify(List<CRSInfo> crss) {
+        List<CRSInfo> classified = new ArrayList<>(crss.size());
+        for (CRSInfo crs : crss) {
+            if (classification.containsKey(crs)) {
+                classification.remove(crs);
+                if (awaitingDecode.remove(crs)) {
+                    crs.removeDecodeCallback(classifyOnDecode);
+                }
+                classified.add(crs);
+            }
+        }
+        if (classified.isEmpty()) {
+            return;
+        }
+        for (View view : views) {
+            SetProperty<CRSInfo> set = view.set.get();
+            if (set != null) {
+                set.removeAll(classified);
+            }
         }
     }
 
-    private ReadOnlySetProperty<CRSInfo> newSet(
-            @NonNull String propertyName, @NonNull EnumSet<CoordinateSystemType> of) {
+    /** Classifies the entries decoded since they were added again */
+    private void reclassify(List<CRSInfo> decoded) {
+        List<CRSInfo> crss = new ArrayList<>(decoded.size());
+        for (CRSInfo crs : decoded) {
+            if (awaitingDecode.remove(crs) && map.get(crs.getAuthorityCode()) == crs) {
+                crss.add(crs);
+            }
+        }
+        unclassify(crss);
+        classify(crss);
+    }
 
-        ObservableSet<CRSInfo> observableSet =
-                map.values().stream()
-                        .filter(crs -> of.contains(crs.getCoordinateSystemType()))
-                        .collect(Collectors.toCollection(FXCollections::observableSet));
-        return new SimpleSetProperty<>(observableSet);
+    /** A derived set of registry entries */
+    private static class View {
+        final WeakReference<SetProperty<CRSInfo>> set;
+
+        final Predicate<CRSInfo> predicate;
+
+        View(SetProperty<CRSInfo> set, Predicate<CRSInfo> predicate) {
+            this.set = new WeakReference<>(set);
+            this.predicate = predicate;
+        }
     }
 
-    private SetProperty<CRSInfo> propertyFor(@NonNull CRSInfo crs) {
-        final CoordinateSystemType projectionType = crs.getCoordinateSystemType();
-        if (SUPPORTED_TYPES.contains(projectionType)) {
-            return (SetProperty<CRSInfo>) supported;
+    /**
+     * Observable list of the registry entries sorted by authority code. Entries are located by
+     * binary search, and batches of changes are reported as a single change notification.
+     */
+    private static class CodeOrderedList extends ModifiableObservableListBase<CRSInfo> {
+
+        private final ArrayList<CRSInfo> list = new ArrayList<>();
+
+        /**
+         * @return the index of the entry with the given code if present, otherwise {@code
+         *     -(insertion point) - 1}, as in {@link Collections#binarySearch(List, Object)}
+         */
+        int indexOf(String authorityCode) {
+            int low = 0, high = list.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int c = list.get(mid).getAuthorityCode().compareTo(authorityCode);
+                if (c < 0) {
+                    low = mid + 1;
+                } else if (c > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * Applies a batch of changes as a single change notification. Small batches are applied
+         * entry by entry, so listeners get precise change ranges. Large ones replace the whole
+         * contents with {@code sorted}, which is cheaper than shifting the list around for every
+         * entry.
+         *
+         * @param added entries added or replaced
+         * @param removed codes of the removed entries
+         * @param sorted the full contents after the batch, sorted by code
+         */
+        void update(List<CRSInfo> added, List<String> removed, Collection<CRSInfo> sorted) {
+            beginChange();
+            try {
+                if (8 * (added.size() + removed.size()) > list.size()) {
+                    List<CRSInfo> old = new ArrayList<>(list);
+                    list.clear();
+                    list.addAll(sorted);
+                    if (!old.isEmpty()) {
+                        nextRemove(0, old);
+                    }
+                    nextAdd(0, list.size());
+                } else {
+                    for (String code : removed) {
+                        remove(indexOf(code));
+                    }
+                    for (CRSInfo crs : added) {
+                        int index = indexOf(crs.getAuthorityCode());
+                        if (index >= 0) {
+                            set(index, crs);
+                        } else {
+                            add(-index - 1, crs);
+                        }
+                    }
+                }
+            } finally {
+                endChange();
+            }
+        }
+
+        public @Override CRSInfo get(int index) {
+            return list.get(index);
+        }
+
+        public @Override int size() {
+            return list.size();
+        }
+
+        protected @Override void doAdd(int index, CRSInfo element) {
+            list.add(index, element);
+        }
+
+        protected @Override CRSInfo doSet(int index, CRSInfo element) {
+            return list.set(index, element);
+        }
+
+        protected @Override CRSInfo doRemove(int index) {
+            return list.remove(index);
         }
-        return (SetProperty<CRSInfo>) unsupported;
     }
 }
@@ -0,0 +1,337 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * R-tree over the {@link CRSInfo#getGeographicAreaOfValidity() WGS84 areas of validity} of the
+ * entries of a {@link CoordinateSystemRegistry}, to find the coordinate reference systems usable at
+ * a given location.
+ *
+ * <p>The tree is a bulk loaded, immutable JTS {@link STRtree}, built in a background thread.
+ * Entries added or removed after it was built are kept aside and accounted for at query time, and
+ * the tree is rebuilt once enough of them accumulate. Until the first build completes, {@link
+ * #readyProperty() ready} is {@code false} and queries only see the entries added since.
+ *
+ * <p>Areas of validity crossing the antimeridian are split in two. Entries whose CRS hasn't been
+ * decoded yet (see {@link CRSInfo#lazy}) are indexed once decoded.
+ *
+ * <p>This class is not thread safe, it's meant to be used from the JavaFX application thread.
+ * Without a running JavaFX toolkit, builds and entries decoded in other threads are accounted for
+ * on the next call to the index.
+ */
+@Accessors(fluent = true)
+public class CoordinateSystemSpatialIndex {
+
+    private static final Logger LOGGER = Logging.getLogger(CoordinateSystemSpatialIndex.class);
+
+    /** Number of changes since the last build that trigger a rebuild */
+    static final int REBUILD_THRESHOLD = 256;
+
+    private static final ExecutorService BUILDER =
+            Executors.newSingleThreadExecutor(
+                    r -> {
+                        Thread t = new Thread(r, "crs-spatial-index");
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+    private final @Getter ReadOnlyBooleanProperty readyProperty =
+            new SimpleBooleanProperty(this, "ready", false);
+
+    private STRtree tree = new STRtree();
+
+    /** Entries in {@link #tree} */
+    private Set<CRSInfo> indexed = identitySet();
+
+    /** Entries added since {@link #tree} was built */
+    private final Set<CRSInfo> added = identitySet();
+
+    /** Entries in {@link #tree} removed since it was built */
+    private final Set<CRSInfo> removed = identitySet();
+
+    /** Entries without an area of validity until their CRS is decoded */
+    private final Set<CRSInfo> awaitingDecode = identitySet();
+
+    private final DecodedEntries indexOnDecode = new DecodedEntries(this::indexDecoded);
+
+    /** Publication of a tree built while the JavaFX toolkit wasn't running */
+    private final AtomicReference<Runnable> unpublished = new AtomicReference<>();
+
+    private boolean building;
+
+    private Collection<CRSInfo> rebuildSource;
+
+    /** Builds the index for {@code entries} in the background */
+    public CoordinateSystemSpatialIndex(@NonNull Collection<CRSInfo> entries) {
+        entries.forEach(this::addNew);
+        rebuild();
+    }
+
+    public boolean isReady() {
+        update();
+        return readyProperty.get();
+    }
+
+    public void add(@NonNull CRSInfo info) {
+        update();
+        if (!removed.remove(info) && !indexed.contains(info) && !awaitingDecode.contains(info)) {
+            addNew(info);
+        }
+        checkRebuild();
+    }
+
+    public void remove(@NonNull CRSInfo info) {
+        update();
+        if (awaitingDecode.remove(info)) {
+            info.removeDecodeCallback(indexOnDecode);
+        } else if (!added.remove(info) && indexed.contains(info)) {
+            removed.add(info);
+        }
+        checkRebuild();
+    }
+
+    /** Adds an entry that's not in the tree, or waits for it to be decoded to add it */
+    private void addNew(CRSInfo info) {
+        if (!info.hasMetadata() && info.addDecodeCallback(indexOnDecode)) {
+            awaitingDecode.add(info);
+        } else {
+            added.add(info);
+        }
+    }
+
+    private void indexDecoded(List<CRSInfo> decoded) {
+        for (CRSInfo info : decoded) {
+            if (awaitingDecode.remove(info)) {
+                added.add(info);
+            }
+        }
+        checkRebuild();
+    }
+
+    /**
+     * Accounts for the builds and decodings that couldn't be published to the application thread
+     */
+    private void update() {
+        Runnable publish = unpublished.getAndSet(null);
+        if (publish != null) {
+            publish.run();
+        }
+        indexOnDecode.drain();
+    }
+
+    /**
+     * @param longitude WGS84 longitude
+     * @param latitude WGS84 latitude
+     * @param types the coordinate system types to return, or {@code null} for all
+     * @return the entries whose area of validity contains the location, smallest area first
+     */
+    public List<CRSInfo> query(
+            double longitude, double latitude, @Nullable Set<CoordinateSystemType> types) {
+        return query(new Envelope(longitude, longitude, latitude, latitude), types);
+    }
+
+    /**
+     * @param extent the extent to find coordinate reference systems for, in any CRS
+     * @param types the coordinate system types to return, or {@code null} for all
+     * @return the entries whose area of validity contains {@code extent}, smallest area first
+     * @throws IllegalArgumentException if {@code extent} can't be transformed to WGS84
+     */
+    public List<CRSInfo> query(
+            @NonNull ReferencedEnvelope extent, @Nullable Set<CoordinateSystemType> types) {
+        Envelope wgs84 = extent;
+        if (extent.getCoordinateReferenceSystem() != null
+                && !CRS.equalsIgnoreMetadata(
+                        extent.getCoordinateReferenceSystem(), DefaultGeographicCRS.WGS84)) {
+            try {
+                wgs84 = extent.transform(DefaultGeographicCRS.WGS84, true);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Unable to transform extent to WGS84", e);
+            }
+        }
+        return query(wgs84, types);
+    }
+
+    private List<CRSInfo> query(Envelope wgs84, Set<CoordinateSystemType> types) {
+        update();
+        List<Item> matches = new ArrayList<>();
+        tree.query(
+                wgs84,
+                o -> {
+                    Item item = (Item) o;
+                    if (item.envelope.contains(wgs84) && !removed.contains(item.info)) {
+                        matches.add(item);
+                    }
+                });
+        for (CRSInfo info : added) {
+            for (Item item : items(info)) {
+                if (item.envelope.contains(wgs84)) {
+                    matches.add(item);
+                }
+            }
+        }
+        return matches.stream()
+                .filter(i -> types == null || types.contains(i.info.getCoordinateSystemType()))
+                .sorted(
+                        Comparator.<Item>comparingDouble(i -> i.area)
+                                .thenComparing(i -> i.info.getAuthorityCode()))
+                .map(i -> i.info)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private void checkRebuild() {
+        if (added.size() + removed.size() >= REBUILD_THRESHOLD) {
+            rebuild();
+        }
+    }
+
+    /** Rebuilds the tree in the background with the current entries */
+    public void rebuild() {
+        Set<CRSInfo> entries = identitySet();
+        entries.addAll(indexed);
+        entries.removeAll(removed);
+        entries.addAll(added);
+        if (building) {
+            // build again once the current build is done
+            rebuildSource = entries;
+            return;
+        }
+        building = true;
+        BUILDER.execute(() -> build(entries));
+    }
+
+    private void build(Set<CRSInfo> entries) {
+        STRtree newTree = new STRtree();
+        try {
+            for (CRSInfo info : entries) {
+                for (Item item : items(info)) {
+                    newTree.insert(item.envelope, item);
+                }
+            }
+            newTree.build();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error building CRS spatial index", e);
+        }
+        Runnable publish = () -> publish(newTree, entries);
+        try {
+            Platform.runLater(publish);
+        } catch (IllegalStateException toolkitNotRunning) {
+            // headless, published on the next call to the index
+            unpublished.set(publish);
+        }
+    }
+
+    private void publish(STRtree newTree, Set<CRSInfo> entries) {
+        // changes made while building, relative to the new tree
+        Set<CRSInfo> current = identitySet();
+        current.addAll(indexed);
+        current.removeAll(removed);
+        current.addAll(added);
+
+        tree = newTree;
+        indexed = entries;
+        added.clear();
+        removed.clear();
+        for (CRSInfo info : current) {
+            if (!entries.contains(info)) {
+                added.add(info);
+            }
+        }
+        for (CRSInfo info : entries) {
+            if (!current.contains(info)) {
+                removed.add(info);
+            }
+        }
+        building = false;
+        ((SimpleBooleanProperty) readyProperty).set(true);
+        if (rebuildSource != null) {
+            rebuildSource = null;
+            rebuild();
+        }
+    }
+
+    /** The entry's area of validity, split at the antimeridian if needed */
+    private static List<Item> items(CRSInfo info) {
+        if (!info.hasMetadata()) {
+            return Collections.emptyList();
+        }
+        ReferencedEnvelope aov;
+        try {
+            aov = info.getGeographicAreaOfValidity();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Error computing area of validity of " + info, e);
+            return Collections.emptyList();
+        }
+        if (aov == null || aov.isEmpty()) {
+            return Collections.emptyList();
+        }
+        double west = aov.getMinX(), east = aov.getMaxX();
+        double south = aov.getMinY(), north = aov.getMaxY();
+        if (east <= 180) {
+            return Collections.singletonList(
+                    new Item(info, new Envelope(west, east, south, north)));
+        }
+        List<Item> items = new ArrayList<>(2);
+        items.add(new Item(info, new Envelope(west, 180, south, north)));
+        items.add(new Item(info, new Envelope(-180, east - 360, south, north)));
+        return items;
+    }
+
+    private static Set<CRSInfo> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private static class Item {
+        final CRSInfo info;
+        final Envelope envelope;
+        final double area;
+
+        Item(CRSInfo info, Envelope envelope) {
+            this.info = info;
+            this.envelope = envelope;
+            this.area = envelope.getArea();
+        }
+    }
+}
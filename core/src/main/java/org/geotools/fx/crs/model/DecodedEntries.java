@@ -0,0 +1,73 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+import lombok.NonNull;
+
+/**
+ * {@link CRSInfo#addDecodeCallback Decode callback} handing the entries decoded in background
+ * threads over to a collection confined to the JavaFX application thread, in batches.
+ *
+ * <p>Decoded entries are queued, and drained on the application thread. When the JavaFX toolkit
+ * isn't running, there's no such thread, and they're drained by the owning collection the next time
+ * it calls {@link #drain()}, so it's never changed from a decoding thread.
+ */
+final class DecodedEntries implements Consumer<CRSInfo> {
+
+    private final Queue<CRSInfo> decoded = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final Consumer<List<CRSInfo>> consumer;
+
+    DecodedEntries(@NonNull Consumer<List<CRSInfo>> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void accept(CRSInfo info) {
+        decoded.add(info);
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                Platform.runLater(this::drain);
+            } catch (IllegalStateException toolkitNotRunning) {
+                // headless, drained on the owner's next call
+                scheduled.set(false);
+            }
+        }
+    }
+
+    /** Hands the entries decoded so far over to the consumer, from the owning thread */
+    void drain() {
+        scheduled.set(false);
+        if (decoded.isEmpty()) {
+            return;
+        }
+        List<CRSInfo> batch = new ArrayList<>();
+        for (CRSInfo info = decoded.poll(); info != null; info = decoded.poll()) {
+            batch.add(info);
+        }
+        consumer.accept(batch);
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import java.awt.geom.AffineTransform;
+import lombok.NonNull;
+import org.geotools.referencing.operation.transform.AbstractMathTransform;
+import org.locationtech.jts.geom.Envelope;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * A two dimensional {@link MathTransform} that approximates an exact one by bilinear interpolation
+ * over a grid of samples, in the spirit of GDAL's approximate transformer.
+ *
+ * <p>The exact transform is sampled over a source area, typically the area being rendered, on an
+ * adaptive grid: each cell is split in four until interpolating its corners reproduces the exact
+ * transform at the cell center and edge midpoints within the {@link #getTolerance() tolerance}, in
+ * target units. Cells that still don't meet the tolerance at the {@link #MAX_DEPTH maximum depth},
+ * or where the exact transform fails, and points outside the sampled area, are transformed exactly.
+ *
+ * <p>Meant for rendering, where the target units are pixels and a fraction of a pixel error is not
+ * noticeable, while evaluating a projection for every vertex is much slower than interpolating.
+ */
+public class ApproximateTransform extends AbstractMathTransform {
+
+    /** Default maximum error, an eighth of a pixel when the target units are pixels */
+    public static final double DEFAULT_TOLERANCE = 0.125;
+
+    /** Number of times the source area is split in four before testing the tolerance */
+    static final int MIN_DEPTH = 2;
+
+    /** Maximum number of times the source area is split in four, a 64x64 grid */
+    static final int MAX_DEPTH = 6;
+
+    private final MathTransform exact;
+
+    private final double tolerance;
+
+    private final Cell root;
+
+    private int cellCount;
+
+    /**
+     * @param exact the two dimensional transform to approximate
+     * @param area the source area to sample, points outside of it are transformed exactly
+     * @param tolerance maximum error in target units
+     */
+    public ApproximateTransform(
+            @NonNull MathTransform exact, @NonNull Envelope area, double tolerance)
+            throws TransformException {
+        if (exact.getSourceDimensions() != 2 || exact.getTargetDimensions() != 2) {
+            throw new IllegalArgumentException("Only two dimensional transforms are supported");
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("tolerance shall be positive: " + tolerance);
+        }
+        this.exact = exact;
+        this.tolerance = tolerance;
+        this.root =
+                area.isNull()
+                        ? null
+                        : new Cell(area.getMinX(), area.getMinY(), area.getMaxX(), area.getMaxY());
+        if (root != null) {
+            build(root, 0);
+        }
+    }
+
+    /**
+     * Creates an approximation of {@code exact} over {@code area}, or returns {@code exact} itself
+     * if it's affine, since interpolating it wouldn't save anything
+     */
+    public static MathTransform create(
+            @NonNull MathTransform exact, @NonNull Envelope area, double tolerance)
+            throws TransformException {
+        if (exact.isIdentity() || exact instanceof AffineTransform) {
+            return exact;
+        }
+        return new ApproximateTransform(exact, area, tolerance);
+    }
+
+    public MathTransform getExact() {
+        return exact;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /** Number of leaf cells of the sampling grid, interpolated or not */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public @Override int getSourceDimensions() {
+        return 2;
+    }
+
+    public @Override int getTargetDimensions() {
+        return 2;
+    }
+
+    public @Override void transform(
+            double[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts)
+            throws TransformException {
+        if (srcPts == dstPts && srcOff < dstOff && srcOff + 2 * numPts > dstOff) {
+            // overlapping, work on a copy
+            double[] copy = new double[2 * numPts];
+            System.arraycopy(srcPts, srcOff, copy, 0, copy.length);
+            srcPts = copy;
+            srcOff = 0;
+        }
+        final double[] point = new double[2];
+        for (int i = 0; i < numPts; i++) {
+            final int s = srcOff + 2 * i;
+            final int d = dstOff + 2 * i;
+            final double x = srcPts[s];
+            final double y = srcPts[s + 1];
+            Cell cell = root == null ? null : root.find(x, y);
+            if (cell == null || cell.corners == null) {
+                point[0] = x;
+                point[1] = y;
+                exact.transform(point, 0, point, 0, 1);
+                dstPts[d] = point[0];
+                dstPts[d + 1] = point[1];
+            } else {
+                cell.interpolate(x, y, dstPts, d);
+            }
+        }
+    }
+
+    /** The inverse of the exact transform, not approximated */
+    public @Override MathTransform inverse() throws NoninvertibleTransformException {
+        return exact.inverse();
+    }
+
+    public @Override boolean equals(Object o) {
+        return this == o;
+    }
+
+    public @Override int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    private void build(Cell cell, int depth) throws TransformException {
+        cell.corners =
+                sample(cell.x0, cell.y0, cell.x1, cell.y0, cell.x0, cell.y1, cell.x1, cell.y1);
+        if (cell.corners != null && depth >= MIN_DEPTH && withinTolerance(cell)) {
+            cellCount++;
+            return;
+        }
+        cell.corners = null;
+        if (depth == MAX_DEPTH) {
+            // not good enough, or the exact transform fails here, transform exactly
+            cellCount++;
+            return;
+        }
+        cell.split();
+        for (Cell child : cell.children) {
+            build(child, depth + 1);
+        }
+    }
+
+    /** Compares the interpolated center and edge midpoints of the cell with the exact ones */
+    private boolean withinTolerance(Cell cell) throws TransformException {
+        final double mx = (cell.x0 + cell.x1) / 2;
+        final double my = (cell.y0 + cell.y1) / 2;
+        double[] probes = {mx, my, mx, cell.y0, mx, cell.y1, cell.x0, my, cell.x1, my};
+        double[] expected = sample(probes);
+        if (expected == null) {
+            return false;
+        }
+        double[] actual = new double[2];
+        for (int i = 0; i < probes.length; i += 2) {
+            cell.interpolate(probes[i], probes[i + 1], actual, 0);
+            if (Math.abs(actual[0] - expected[i]) > tolerance
+                    || Math.abs(actual[1] - expected[i + 1]) > tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return the exactly transformed points, or {@code null} if the transform fails */
+    private double[] sample(double... points) {
+        double[] result = new double[points.length];
+        try {
+            exact.transform(points, 0, result, 0, points.length / 2);
+        } catch (TransformException | RuntimeException e) {
+            return null;
+        }
+        for (double v : result) {
+            if (Double.isNaN(v) || Double.isInfinite(v)) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    /** A node of the sampling quad tree */
+    private static class Cell {
+        final double x0, y0, x1, y1;
+
+        /** Transformed corners, lower left, lower right, upper left, upper right */
+        double[] corners;
+
+        Cell[] children;
+
+        Cell(double x0, double y0, double x1, double y1) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+        }
+
+        void split() {
+            final double mx = (x0 + x1) / 2;
+            final double my = (y0 + y1) / 2;
+            children =
+                    new Cell[] {
+                        new Cell(x0, y0, mx, my),
+                        new Cell(mx, y0, x1, my),
+                        new Cell(x0, my, mx, y1),
+                        new Cell(mx, my, x1, y1)
+                    };
+        }
+
+        /** @return the leaf cell containing the point, {@code null} if outside this cell */
+        Cell find(double x, double y) {
+            if (!(x >= x0 && x <= x1 && y >= y0 && y <= y1)) {
+                return null;
+            }
+            Cell cell = this;
+            while (cell.children != null) {
+                final boolean east = x >= (cell.x0 + cell.x1) / 2;
+                final boolean north = y >= (cell.y0 + cell.y1) / 2;
+                cell = cell.children[(north ? 2 : 0) + (east ? 1 : 0)];
+            }
+            return cell;
+        }
+
+        void interpolate(double x, double y, double[] dst, int dstOff) {
+            final double u = x1 == x0 ? 0 : (x - x0) / (x1 - x0);
+            final double v = y1 == y0 ? 0 : (y - y0) / (y1 - y0);
+            final double[] c = corners;
+            for (int k = 0; k < 2; k++) {
+                double bottom = c[k] + u * (c[2 + k] - c[k]);
+                double top = c[4 + k] + u * (c[6 + k] - c[4 + k]);
+                dst[dstOff + k] = bottom + v * (top - bottom);
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import org.geotools.fx.crs.model.CRSInfo;
+import org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.util.Version;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Compact binary catalog of the {@link CRSInfo} metadata produced by a full load of the EPSG
+ * database, so later loads can skip decoding every coordinate reference system.
+ *
+ * <p>For each authority code the catalog stores the description, coordinate system type, dimension,
+ * projection name, domain of validity, WGS84 area of validity, and the reason it's unsupported, if
+ * it is. {@code CRSInfo}s read from the catalog decode their CRS lazily, on first access.
+ *
+ * <p>There's one catalog file per axis order, in the catalog {@link #directory() directory}. Each
+ * file records the EPSG database version it was built from, and is ignored if it doesn't match the
+ * version of the EPSG factory currently available.
+ */
+@Accessors(fluent = true)
+public class CoordinateSystemCatalog {
+
+    private static final Logger LOGGER = Logging.getLogger(CoordinateSystemCatalog.class);
+
+    /** System property overriding the {@link #getDefault() default} catalog directory */
+    public static final String DIRECTORY_PROPERTY = "org.geotools.fx.crs.catalog";
+
+    private static final int MAGIC = 0x47544643; // GTFC
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final CoordinateSystemType[] TYPES = CoordinateSystemType.values();
+
+    /** Size of the smallest record, an unsupported CRS with {@code null} strings */
+    private static final int MIN_RECORD_SIZE = 4 + 4 + 1 + 4;
+
+    private final @Getter Path directory;
+
+    public CoordinateSystemCatalog(@NonNull Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The catalog in the directory given by the {@code org.geotools.fx.crs.catalog} system
+     * property, or {@code ~/.geotools/fx} if not set.
+     */
+    public static CoordinateSystemCatalog getDefault() {
+        String dir = System.getProperty(DIRECTORY_PROPERTY);
+        Path path =
+                dir == null
+                        ? Paths.get(System.getProperty("user.home"), ".geotools", "fx")
+                        : Paths.get(dir);
+        return new CoordinateSystemCatalog(path);
+    }
+
+    public Path file(boolean forceLongitudeFirst) {
+        return directory.resolve(
+                forceLongitudeFirst ? "crs-catalog-lonfirst.bin" : "crs-catalog.bin");
+    }
+
+    /**
+     * @return the version of the EPSG database the catalog must match, or {@code null} if unknown,
+     *     in which case the catalog is not used
+     */
+    protected @Nullable String databaseVersion() {
+        try {
+            Version version = CRS.getVersion("EPSG");
+            return version == null ? null : version.toString();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Unable to determine the EPSG database version", e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the catalog, if it exists and matches the current EPSG database version
+     *
+     * @return the catalog entries, or empty if there's no valid catalog
+     */
+    public Optional<List<CRSInfo>> read(boolean forceLongitudeFirst) {
+        final Path file = file(forceLongitudeFirst);
+        final String version = databaseVersion();
+        if (version == null || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                LOGGER.fine("Ignoring CRS catalog with unknown format " + file);
+                return Optional.empty();
+            }
+            String catalogVersion = readString(buffer);
+            if (!version.equals(catalogVersion)) {
+                LOGGER.fine(
+                        String.format(
+                                "Ignoring CRS catalog for EPSG %s, current version is %s",
+                                catalogVersion, version));
+                return Optional.empty();
+            }
+            final int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / MIN_RECORD_SIZE) {
+                throw new BufferUnderflowException();
+            }
+            List<CRSInfo> infos = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                infos.add(readRecord(buffer, forceLongitudeFirst));
+            }
+            return Optional.of(infos);
+        } catch (IOException | RuntimeException e) {
+            // a damaged catalog, whatever the damage, is just not used
+            LOGGER.log(Level.WARNING, "Ignoring invalid CRS catalog " + file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the catalog for {@code infos}, replacing any previous one. Does nothing if the EPSG
+     * database version is unknown.
+     */
+    public void write(@NonNull Collection<CRSInfo> infos, boolean forceLongitudeFirst)
+            throws IOException {
+        final String version = databaseVersion();
+        if (version == null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        final Path file = file(forceLongitudeFirst);
+        final Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, version);
+                out.writeInt(infos.size());
+                for (CRSInfo info : infos) {
+                    writeRecord(out, info);
+                }
+            }
+            // readers either see the old catalog or the new one, never a partial write
+            Files.move(
+                    tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Deletes the catalog files */
+    public void clear() throws IOException {
+        Files.deleteIfExists(file(false));
+        Files.deleteIfExists(file(true));
+    }
+
+    private void writeRecord(DataOutputStream out, CRSInfo info) throws IOException {
+        writeString(out, info.getAuthorityCode());
+        writeString(out, info.getDescription());
+        String unsupportedReason = info.getUnsupportedReason();
+        out.writeBoolean(unsupportedReason != null);
+        if (unsupportedReason != null) {
+            writeString(out, unsupportedReason);
+            return;
+        }
+        out.writeByte(info.getCoordinateSystemType().ordinal());
+        out.writeInt(info.getDimension());
+        writeString(out, info.getProjectionName());
+        writeString(out, info.getDomainOfValidity());
+        ReferencedEnvelope aov = info.getGeographicAreaOfValidity();
+        out.writeBoolean(aov != null);
+        if (aov != null) {
+            out.writeDouble(aov.getMinX());
+            out.writeDouble(aov.getMaxX());
+            out.writeDouble(aov.getMinY());
+            out.writeDouble(aov.getMaxY());
+        }
+    }
+
+    private CRSInfo readRecord(ByteBuffer buffer, boolean forceLongitudeFirst) {
+        String code = readString(buffer);
+        String description = readString(buffer);
+        if (buffer.get() != 0) {
+            return CRSInfo.unsupported(code, description, readString(buffer));
+        }
+        CoordinateSystemType type = TYPES[buffer.get()];
+        int dimension = buffer.getInt();
+        String projectionName = readString(buffer);
+        String domainOfValidity = readString(buffer);
+        ReferencedEnvelope aov = null;
+        if (buffer.get() != 0) {
+            double minx = buffer.getDouble();
+            double maxx = buffer.getDouble();
+            double miny = buffer.getDouble();
+            double maxy = buffer.getDouble();
+            aov = new ReferencedEnvelope(minx, maxx, miny, maxy, DefaultGeographicCRS.WGS84);
+        }
+        return CRSInfo.cached(
+                code,
+                description,
+                type,
+                dimension,
+                projectionName,
+                domainOfValidity,
+                aov,
+                forceLongitudeFirst);
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String value)
+            throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static @Nullable String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        ByteBuffer bytes = buffer.slice();
+        bytes.limit(length);
+        buffer.position(buffer.position() + length);
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+}
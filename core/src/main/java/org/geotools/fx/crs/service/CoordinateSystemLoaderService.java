@@ -16,40 +16,125 @@
  */
 package org.geotools.fx.crs.service;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SetProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleSetProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableSet;
 import javafx.concurrent.Service;
 import javafx.concurrent.Task;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
+import org.geotools.fx.concurrent.ProgressReporter;
 import org.geotools.fx.crs.model.CRSInfo;
 import org.geotools.referencing.CRS;
+import org.geotools.referencing.factory.AbstractAuthorityFactory;
+import org.geotools.util.logging.Logging;
+import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.crs.CRSAuthorityFactory;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 
 @Accessors(fluent = true)
 public class CoordinateSystemLoaderService extends Service<ObservableList<CRSInfo>> {
 
+    private static final Logger LOGGER = Logging.getLogger(CoordinateSystemLoaderService.class);
+
+    /**
+     * Codes loaded ahead of the others when streaming partial results, so the ones users look for
+     * the most are available first
+     */
+    public static final List<String> PRIORITY_CODES =
+            List.of(
+                    "EPSG:4326",
+                    "EPSG:3857",
+                    "EPSG:4258",
+                    "EPSG:4269",
+                    "EPSG:4230",
+                    "EPSG:4267",
+                    "EPSG:4283",
+                    "EPSG:4674",
+                    "EPSG:4617",
+                    "EPSG:3035",
+                    "EPSG:3395",
+                    "EPSG:900913",
+                    "EPSG:2154",
+                    "EPSG:27700",
+                    "EPSG:25832",
+                    "EPSG:25833",
+                    "EPSG:25830",
+                    "EPSG:28992",
+                    "EPSG:31370",
+                    "EPSG:32632",
+                    "EPSG:32633",
+                    "EPSG:5070");
+
+    /** Maximum time loaded entries wait to be handed over when streaming partial results */
+    static final long BATCH_INTERVAL_MILLIS = 100;
+
     private @Getter SetProperty<String> providedCodesProperty =
             new SimpleSetProperty<>(this, "providedCodes", FXCollections.observableSet());
 
     private @Getter BooleanProperty forceLongitudeFirstProperty =
             new SimpleBooleanProperty(this, "forceLongitudeFirst", false);
 
+    /**
+     * Number of worker threads decoding coordinate reference systems. The codes are partitioned
+     * across the workers, each decoding its partition with the {@link
+     * #createAuthorityFactory(boolean) authority factory} it's given. Defaults to {@code 1},
+     * decoding all codes sequentially with the shared GeoTools factory: the default factory
+     * serializes decoding, so more workers only contend on it. Raise it together with a {@link
+     * #createAuthorityFactory(boolean)} override that gives each worker its own factory.
+     */
+    private @Getter IntegerProperty parallelismProperty =
+            new SimpleIntegerProperty(this, "parallelism", 1);
+
+    /**
+     * Catalog the metadata of a full load is saved to, and read from on later loads instead of
+     * decoding every CRS again. {@code null} to always decode.
+     */
+    private @Getter ObjectProperty<CoordinateSystemCatalog> catalogProperty =
+            new SimpleObjectProperty<>(this, "catalog", CoordinateSystemCatalog.getDefault());
+
+    /**
+     * Whether to skip decoding the coordinate reference systems while loading. Only the authority
+     * code and description are loaded, and each {@link CRSInfo#lazy CRSInfo} decodes its CRS when
+     * first requested. Catalogs are read but not written in lazy mode.
+     */
+    private @Getter BooleanProperty lazyProperty = new SimpleBooleanProperty(this, "lazy", false);
+
+    /** Throughput and estimated time to completion of the running task */
+    private final @Getter ProgressReporter progressReporter = new ProgressReporter();
+
     public ObservableSet<String> getProvidedCodes() {
         return providedCodesProperty;
     }
@@ -60,8 +145,88 @@ public class CoordinateSystemLoaderService extends Service<ObservableList<CRSInf
     }
 
     protected @Override Task<ObservableList<CRSInfo>> createTask() {
+        return createTask(null, 0);
+    }
+
+    /**
+     * Creates a loading task that, besides returning the full list once done, hands the loaded
+     * {@link CRSInfo}s over to {@code batches} as they're loaded, in batches of up to {@code
+     * batchSize} elements, or whatever was loaded in the last {@link #BATCH_INTERVAL_MILLIS}
+     * milliseconds if that's fewer. {@code batches} is called from the loading threads, one batch
+     * at a time, and the last batch is handed over before the task completes.
+     *
+     * <p>The {@link #PRIORITY_CODES most commonly used codes} are loaded first.
+     */
+    Task<ObservableList<CRSInfo>> createTask(
+            @Nullable Consumer<List<CRSInfo>> batches, int batchSize) {
         return new LoadCrsListTask(
-                new ArrayList<>(providedCodesProperty), forceLongitudeFirstProperty.get());
+                this,
+                new ArrayList<>(providedCodesProperty),
+                forceLongitudeFirstProperty.get(),
+                Math.max(1, parallelismProperty.get()),
+                catalogProperty.get(),
+                lazyProperty.get(),
+                batches == null ? null : new Batcher(batches, Math.max(1, batchSize)),
+                progressReporter);
+    }
+
+    public boolean isLazy() {
+        return lazyProperty.get();
+    }
+
+    public void setLazy(boolean lazy) {
+        lazyProperty.set(lazy);
+    }
+
+    public CoordinateSystemCatalog getCatalog() {
+        return catalogProperty.get();
+    }
+
+    public void setCatalog(CoordinateSystemCatalog catalog) {
+        catalogProperty.set(catalog);
+    }
+
+    public int getParallelism() {
+        return parallelismProperty.get();
+    }
+
+    public void setParallelism(int parallelism) {
+        parallelismProperty.set(parallelism);
+    }
+
+    /**
+     * Returns the authority factory a loader worker decodes its partition of codes with, called
+     * once per worker from the worker thread when {@link #parallelismProperty() parallelism} is
+     * greater than {@code 1}.
+     *
+     * <p>The default implementation returns the shared GeoTools factory, so the loaded CRSs are the
+     * very instances {@link CRS#decode} caches and hands out to the rest of the application, which
+     * the identity keyed caches (e.g. {@link ReprojectionService}) rely on. As that factory
+     * serializes decoding, workers sharing it are no faster than a single one. Subclasses may
+     * return a private factory instead, with its own backing store, trading that sharing and the
+     * cost of starting up the backing store for less contention, and release it in {@link
+     * #disposeAuthorityFactory}.
+     */
+    protected CRSAuthorityFactory createAuthorityFactory(boolean forceLongitudeFirst)
+            throws FactoryException {
+        return CRS.getAuthorityFactory(forceLongitudeFirst);
+    }
+
+    /**
+     * Releases a factory obtained from {@link #createAuthorityFactory(boolean)} once its worker is
+     * done. Shared factories are left alone.
+     */
+    protected void disposeAuthorityFactory(@NonNull CRSAuthorityFactory factory) {
+        if (factory == CRS.getAuthorityFactory(true) || factory == CRS.getAuthorityFactory(false)) {
+            return;
+        }
+        if (factory instanceof AbstractAuthorityFactory) {
+            try {
+                ((AbstractAuthorityFactory) factory).dispose();
+            } catch (FactoryException e) {
+                LOGGER.log(Level.FINE, "Error disposing authority factory", e);
+            }
+        }
     }
 
     public boolean isForceLongitudeFirst() {
@@ -75,16 +240,39 @@ public class CoordinateSystemLoaderService extends Service<ObservableList<CRSInf
     private static @RequiredArgsConstructor class LoadCrsListTask
             extends Task<ObservableList<CRSInfo>> {
 
+        private final CoordinateSystemLoaderService service;
+
         private final List<String> providedCodes;
 
         private final boolean forceLongitudFirst;
 
+        private final int parallelism;
+
+        private final CoordinateSystemCatalog catalog;
+
+        private final boolean lazy;
+
+        private final @Nullable Batcher batcher;
+
+        private final ProgressReporter progress;
+
         protected @Override ObservableList<CRSInfo> call() throws Exception {
             final Set<String> crsCodes;
             final CRSAuthorityFactory authorityFactory;
             authorityFactory = CRS.getAuthorityFactory(forceLongitudFirst);
 
             super.updateTitle("Loading coordinate reference systems");
+            // map the datum shift grids while the CRSs load, ahead of the first reprojection
+            GridShiftService.getDefault().warmUp();
+
+            Optional<ObservableList<CRSInfo>> cached = readCatalog();
+            if (cached.isPresent()) {
+                if (batcher != null) {
+                    cached.get().forEach(batcher::add);
+                    batcher.flush();
+                }
+                return cached.get();
+            }
 
             if (this.providedCodes.isEmpty()) {
                 crsCodes = authorityFactory.getAuthorityCodes(CoordinateReferenceSystem.class);
@@ -100,31 +288,169 @@ public class CoordinateSystemLoaderService extends Service<ObservableList<CRSInf
                             crsCodes.size(),
                             (providedCodes.isEmpty() ? "" : " provided "),
                             (forceLongitudFirst ? "Forcing CRS longitude forst axis order." : "")));
-            super.updateProgress(-1L, crsCodes.size());
+            progress.start(crsCodes.size(), this::updateProgress);
+
+            final List<String> codes = prioritize(crsCodes);
+
+            ObservableList<CRSInfo> crslist;
+            if (parallelism == 1 || crsCodes.size() < 2 * parallelism) {
+                crslist =
+                        codes.stream()
+                                .map(code -> load(code, authorityFactory))
+                                .collect(
+                                        Collectors.toCollection(
+                                                FXCollections::observableArrayList));
+            } else {
+                crslist = loadParallel(codes);
+            }
+            progress.done();
+            if (isCancelled()) {
+                return null;
+            }
+            if (batcher != null) {
+                batcher.flush();
+            }
+            if (catalog != null && providedCodes.isEmpty() && !lazy) {
+                try {
+                    catalog.write(crslist, forceLongitudFirst);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Error writing CRS catalog", e);
+                }
+            }
+            return crslist;
+        }
 
-            final long total = crsCodes.size();
-            final AtomicLong workDone = new AtomicLong();
+        /**
+         * Orders the codes to load so that the {@link #PRIORITY_CODES} come first, only matters
+         * when streaming partial results
+         */
+        private List<String> prioritize(Set<String> crsCodes) {
+            List<String> codes = new ArrayList<>(crsCodes.size());
+            if (batcher != null) {
+                for (String code : PRIORITY_CODES) {
+                    if (crsCodes.contains(code)) {
+                        codes.add(code);
+                    }
+                }
+                if (!codes.isEmpty()) {
+                    Set<String> first = new HashSet<>(codes);
+                    crsCodes.stream().filter(c -> !first.contains(c)).forEach(codes::add);
+                    return codes;
+                }
+            }
+            codes.addAll(crsCodes);
+            return codes;
+        }
 
-            // not doing Stream.parallel() as the amount of locking inside the GeoTools CRS
-            // subsystem makes it slower
-            ObservableList<CRSInfo> crslist =
-                    crsCodes.stream()
-                            .map(code -> load(code, authorityFactory, workDone, total))
-                            .collect(Collectors.toCollection(FXCollections::observableArrayList));
+        /**
+         * @return the catalog entries for the provided codes, or all of them if no codes were
+         *     provided, empty if there's no valid catalog or it lacks some provided code
+         */
+        private Optional<ObservableList<CRSInfo>> readCatalog() {
+            Optional<List<CRSInfo>> entries =
+                    catalog == null ? Optional.empty() : catalog.read(forceLongitudFirst);
+            if (!entries.isPresent()) {
+                return Optional.empty();
+            }
+            ObservableList<CRSInfo> crslist;
+            if (providedCodes.isEmpty()) {
+                crslist = FXCollections.observableArrayList(entries.get());
+            } else {
+                Map<String, CRSInfo> byCode =
+                        entries.get().stream()
+                                .collect(
+                                        Collectors.toMap(
+                                                CRSInfo::getAuthorityCode,
+                                                Function.identity(),
+                                                (a, b) -> a));
+                crslist = FXCollections.observableArrayList();
+                for (String code : new HashSet<>(providedCodes)) {
+                    CRSInfo info = byCode.get(code);
+                    if (info == null) {
+                        return Optional.empty();
+                    }
+                    crslist.add(info);
+                }
+            }
+            super.updateMessage(
+                    String.format(
+                            "%,d coordinate reference systems read from catalog", crslist.size()));
+            progress.start(crslist.size(), this::updateProgress);
+            progress.worked(crslist.size());
+            progress.done();
+            return Optional.of(crslist);
+        }
 
-            return isCancelled() ? null : crslist;
+        /**
+         * Partitions the codes across {@link #parallelism} workers, each decoding its partition
+         * with the authority factory the service {@link
+         * CoordinateSystemLoaderService#createAuthorityFactory gives} it. Partitions are striped
+         * rather than contiguous, so that expensive runs of codes (e.g. compound or projected CRSs
+         * with grid based transforms) are spread across workers.
+         */
+        private ObservableList<CRSInfo> loadParallel(List<String> codes) throws Exception {
+            final CRSInfo[] loaded = new CRSInfo[codes.size()];
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ExecutorService executor =
+                    Executors.newFixedThreadPool(
+                            parallelism,
+                            r -> {
+                                Thread t = new Thread(r);
+                                t.setName("crs-loader-" + threadCount.incrementAndGet());
+                                t.setDaemon(true);
+                                return t;
+                            });
+            try {
+                List<Future<?>> workers = new ArrayList<>(parallelism);
+                for (int w = 0; w < parallelism; w++) {
+                    final int partition = w;
+                    workers.add(
+                            executor.submit(
+                                    () -> {
+                                        loadPartition(codes, partition, loaded);
+                                        return null;
+                                    }));
+                }
+                for (Future<?> worker : workers) {
+                    try {
+                        worker.get();
+                    } catch (ExecutionException e) {
+                        workers.forEach(f -> f.cancel(true));
+                        throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            return Arrays.stream(loaded)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(FXCollections::observableArrayList));
+        }
+
+        private void loadPartition(List<String> codes, int partition, CRSInfo[] loaded)
+                throws FactoryException {
+            final CRSAuthorityFactory factory = service.createAuthorityFactory(forceLongitudFirst);
+            try {
+                for (int i = partition; i < loaded.length && !isCancelled(); i += parallelism) {
+                    loaded[i] = load(codes.get(i), factory);
+                }
+            } finally {
+                service.disposeAuthorityFactory(factory);
+            }
         }
 
         private CRSInfo load(
-                @NonNull String crsCode,
-                @NonNull CRSAuthorityFactory authorityFactory,
-                @NonNull AtomicLong workDone,
-                long total) {
+                @NonNull String crsCode, @NonNull CRSAuthorityFactory authorityFactory) {
             if (isCancelled()) {
                 return null;
             }
 
             CRSInfo info;
+            if (lazy) {
+                info = describe(crsCode, authorityFactory);
+                loaded(info);
+                return info;
+            }
             try {
                 final CoordinateReferenceSystem crs;
                 crs = authorityFactory.createCoordinateReferenceSystem(crsCode);
@@ -139,8 +465,67 @@ public class CoordinateSystemLoaderService extends Service<ObservableList<CRSInf
                 String reason = eaten.getMessage();
                 info = CRSInfo.unsupported(crsCode, description, reason);
             }
-            super.updateProgress(workDone.incrementAndGet(), total);
+            loaded(info);
             return info;
         }
+
+        private void loaded(CRSInfo info) {
+            if (batcher != null) {
+                batcher.add(info);
+            }
+            progress.worked();
+        }
+
+        /** Creates a lazy CRSInfo out of the code's description text, without decoding it */
+        private CRSInfo describe(String crsCode, CRSAuthorityFactory authorityFactory) {
+            try {
+                Object description = authorityFactory.getDescriptionText(crsCode);
+                return CRSInfo.lazy(
+                        crsCode,
+                        description == null ? null : description.toString(),
+                        forceLongitudFirst);
+            } catch (Exception unknown) {
+                return CRSInfo.unsupported(crsCode, null, unknown.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Accumulates loaded {@link CRSInfo}s from any number of loading threads and hands them over in
+     * batches
+     */
+    private static class Batcher {
+
+        private final Consumer<List<CRSInfo>> consumer;
+
+        private final int batchSize;
+
+        private List<CRSInfo> batch;
+
+        private long lastFlush = System.nanoTime();
+
+        Batcher(Consumer<List<CRSInfo>> consumer, int batchSize) {
+            this.consumer = consumer;
+            this.batchSize = batchSize;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        synchronized void add(CRSInfo info) {
+            batch.add(info);
+            if (batch.size() >= batchSize
+                    || System.nanoTime() - lastFlush
+                            >= TimeUnit.MILLISECONDS.toNanos(BATCH_INTERVAL_MILLIS)) {
+                flush();
+            }
+        }
+
+        synchronized void flush() {
+            lastFlush = System.nanoTime();
+            if (!batch.isEmpty()) {
+                List<CRSInfo> full = batch;
+                batch = new ArrayList<>(batchSize);
+                consumer.accept(full);
+            }
+        }
     }
 }
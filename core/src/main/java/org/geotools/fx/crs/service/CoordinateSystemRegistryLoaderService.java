@@ -16,11 +16,18 @@
  */
 package org.geotools.fx.crs.service;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SetProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleSetProperty;
 import javafx.collections.FXCollections;
@@ -28,9 +35,11 @@ import javafx.collections.ObservableList;
 import javafx.collections.ObservableSet;
 import javafx.concurrent.Service;
 import javafx.concurrent.Task;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
+import org.geotools.fx.concurrent.ProgressReporter;
 import org.geotools.fx.crs.model.CRSInfo;
 import org.geotools.fx.crs.model.CoordinateSystemRegistry;
 
@@ -43,6 +52,51 @@ public class CoordinateSystemRegistryLoaderService extends Service<CoordinateSys
     private final @Getter BooleanProperty forceLongitudeFirstProperty =
             new SimpleBooleanProperty(this, "forceLongitudeFirst", false);
 
+    /** @see CoordinateSystemLoaderService#parallelismProperty() */
+    private final @Getter IntegerProperty parallelismProperty =
+            new SimpleIntegerProperty(this, "parallelism", 1);
+
+    /** @see CoordinateSystemLoaderService#catalogProperty() */
+    private final @Getter ObjectProperty<CoordinateSystemCatalog> catalogProperty =
+            new SimpleObjectProperty<>(this, "catalog", CoordinateSystemCatalog.getDefault());
+
+    /** @see CoordinateSystemLoaderService#lazyProperty() */
+    private final @Getter BooleanProperty lazyProperty =
+            new SimpleBooleanProperty(this, "lazy", false);
+
+    /**
+     * Whether to publish the loaded coordinate reference systems to a live {@link
+     * #registryProperty() registry} while loading continues, instead of only once every code is
+     * loaded. The most commonly used codes are loaded first.
+     */
+    private final @Getter BooleanProperty streamingProperty =
+            new SimpleBooleanProperty(this, "streaming", false);
+
+    /** Maximum number of entries added to the registry at once when streaming */
+    private final @Getter IntegerProperty batchSizeProperty =
+            new SimpleIntegerProperty(this, "batchSize", 256);
+
+    /**
+     * Whether to obtain the registry from the {@link #providerProperty() provider}, sharing it with
+     * the other services loading the same codes with the same axis order, instead of loading a new
+     * one. The {@link #getLoader() loader} settings and {@link #streamingProperty() streaming} mode
+     * don't apply to shared registries.
+     */
+    private final @Getter BooleanProperty sharedProperty =
+            new SimpleBooleanProperty(this, "shared", false);
+
+    private final @Getter ObjectProperty<CoordinateSystemRegistryProvider> providerProperty =
+            new SimpleObjectProperty<>(
+                    this, "provider", CoordinateSystemRegistryProvider.getDefault());
+
+    /**
+     * The registry being loaded. When {@link #streamingProperty() streaming}, it's set as soon as
+     * the service starts and gets filled in batches, on the JavaFX application thread, while
+     * loading continues. Otherwise it's set once loading succeeds, same as {@link #getValue()}.
+     */
+    private final @Getter ReadOnlyObjectProperty<CoordinateSystemRegistry> registryProperty =
+            new SimpleObjectProperty<>(this, "registry");
+
     private final @Getter ObjectProperty<CoordinateSystemLoaderService> loaderProperty =
             new SimpleObjectProperty<>();
 
@@ -52,19 +106,40 @@ public class CoordinateSystemRegistryLoaderService extends Service<CoordinateSys
                     if (o != null) {
                         o.providedCodesProperty().unbind();
                         o.forceLongitudeFirstProperty().unbind();
+                        o.parallelismProperty().unbind();
+                        o.catalogProperty().unbind();
+                        o.lazyProperty().unbind();
                     }
                     if (n != null) {
                         n.providedCodesProperty().bind(providedCodesProperty);
                         n.forceLongitudeFirstProperty().bind(forceLongitudeFirstProperty);
+                        n.parallelismProperty().bind(parallelismProperty);
+                        n.catalogProperty().bind(catalogProperty);
+                        n.lazyProperty().bind(lazyProperty);
                     }
                 });
         loaderProperty.set(new CoordinateSystemLoaderService());
+        valueProperty()
+                .addListener(
+                        (p, o, n) -> {
+                            if (n != null) {
+                                setRegistry(n);
+                            }
+                        });
     }
 
     public CoordinateSystemLoaderService getLoader() {
         return loaderProperty().get();
     }
 
+    /**
+     * Throughput and estimated time to completion of the running task, as reported by the {@link
+     * #getLoader() loader}
+     */
+    public ProgressReporter progressReporter() {
+        return getLoader().progressReporter();
+    }
+
     public ObservableSet<String> getProvidedCodes() {
         return providedCodesProperty;
     }
@@ -76,10 +151,88 @@ public class CoordinateSystemRegistryLoaderService extends Service<CoordinateSys
         }
     }
 
+    public int getParallelism() {
+        return parallelismProperty.get();
+    }
+
+    public void setParallelism(int parallelism) {
+        parallelismProperty.set(parallelism);
+    }
+
+    public CoordinateSystemCatalog getCatalog() {
+        return catalogProperty.get();
+    }
+
+    public void setCatalog(CoordinateSystemCatalog catalog) {
+        catalogProperty.set(catalog);
+    }
+
+    public boolean isLazy() {
+        return lazyProperty.get();
+    }
+
+    public void setLazy(boolean lazy) {
+        lazyProperty.set(lazy);
+    }
+
+    public boolean isShared() {
+        return sharedProperty.get();
+    }
+
+    public void setShared(boolean shared) {
+        sharedProperty.set(shared);
+    }
+
+    public CoordinateSystemRegistryProvider getProvider() {
+        return providerProperty.get();
+    }
+
+    public void setProvider(CoordinateSystemRegistryProvider provider) {
+        providerProperty.set(provider);
+    }
+
+    public boolean isStreaming() {
+        return streamingProperty.get();
+    }
+
+    public void setStreaming(boolean streaming) {
+        streamingProperty.set(streaming);
+    }
+
+    public int getBatchSize() {
+        return batchSizeProperty.get();
+    }
+
+    public void setBatchSize(int batchSize) {
+        batchSizeProperty.set(batchSize);
+    }
+
+    public CoordinateSystemRegistry getRegistry() {
+        return registryProperty.get();
+    }
+
+    private void setRegistry(CoordinateSystemRegistry registry) {
+        ((ObjectProperty<CoordinateSystemRegistry>) registryProperty).set(registry);
+    }
+
     protected @Override Task<CoordinateSystemRegistry> createTask() {
+        if (isShared() && getProvider() != null) {
+            return new SharedRegistryTask(
+                    getProvider()
+                            .get(
+                                    forceLongitudeFirstProperty.get(),
+                                    new ArrayList<>(providedCodesProperty)));
+        }
         CoordinateSystemLoaderService loader = getLoader();
-        Task<ObservableList<CRSInfo>> listTask = loader.createTask();
-        return new LoadCrsRegistryTask(listTask);
+        if (!isStreaming()) {
+            return new LoadCrsRegistryTask(loader.createTask(), null);
+        }
+        final CoordinateSystemRegistry registry = CoordinateSystemRegistry.newInstance();
+        setRegistry(registry);
+        Task<ObservableList<CRSInfo>> listTask =
+                loader.createTask(
+                        batch -> Platform.runLater(() -> registry.addAll(batch)), getBatchSize());
+        return new LoadCrsRegistryTask(listTask, registry);
     }
 
     private static @RequiredArgsConstructor class LoadCrsRegistryTask
@@ -87,6 +240,9 @@ public class CoordinateSystemRegistryLoaderService extends Service<CoordinateSys
 
         private final Task<ObservableList<CRSInfo>> listTask;
 
+        /** The live registry when streaming, already populated by the list task batches */
+        private final @Nullable CoordinateSystemRegistry streamed;
+
         protected @Override CoordinateSystemRegistry call() throws Exception {
             super.updateTitle("Loading coordinate reference systems");
             listTask.workDoneProperty().addListener(e -> updateProgress());
@@ -96,13 +252,39 @@ public class CoordinateSystemRegistryLoaderService extends Service<CoordinateSys
             if (isCancelled()) {
                 return null;
             }
+            if (streamed != null) {
+                // the batches are added on the FX thread before the value is set
+                return streamed;
+            }
             final CoordinateSystemRegistry registry = CoordinateSystemRegistry.newInstance();
             registry.addAll(list);
             return isCancelled() ? null : registry;
         }
 
+        /** Stops the list task's workers too */
+        protected @Override void cancelled() {
+            listTask.cancel();
+        }
+
+        /** Called on the FX thread, at the loader's {@link ProgressReporter#getRate() rate} */
         private void updateProgress() {
             super.updateProgress(listTask.getWorkDone(), listTask.getTotalWork());
         }
     }
+
+    /** Waits for a registry shared through a {@link CoordinateSystemRegistryProvider} */
+    private static @RequiredArgsConstructor class SharedRegistryTask
+            extends Task<CoordinateSystemRegistry> {
+
+        private final CompletableFuture<CoordinateSystemRegistry> registry;
+
+        protected @Override CoordinateSystemRegistry call() throws Exception {
+            super.updateTitle("Loading coordinate reference systems");
+            try {
+                return registry.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+    }
 }
@@ -0,0 +1,234 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import org.geotools.fx.crs.model.CRSInfo;
+import org.geotools.fx.crs.model.CoordinateSystemRegistry;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.CRS.AxisOrder;
+import org.geotools.util.logging.Logging;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.crs.SingleCRS;
+
+/**
+ * Process wide cache of {@link CoordinateSystemRegistry} instances, so that screens needing the
+ * same set of coordinate reference systems share a single registry instead of decoding the EPSG
+ * database once each.
+ *
+ * <p>Registries are cached per axis order and set of provided authority codes (an empty set
+ * standing for all the available codes). Concurrent requests for a registry that's not loaded yet
+ * share the same in-flight load. A load that fails is evicted, so the next request tries again.
+ *
+ * <p>When loading a longitude first registry while the latitude first one for the same codes is
+ * already loaded, the coordinate reference systems whose axis order is already longitude first are
+ * reused instead of decoded again, since forcing the axis order makes no difference to them.
+ * Entries the latitude first registry hasn't decoded yet, e.g. lazy or read from a catalog, are
+ * shared too, and decoded through the latitude first entry on demand.
+ *
+ * <p>Shared registries are meant to be treated as read only.
+ *
+ * @see CoordinateSystemRegistryLoaderService#sharedProperty()
+ */
+public class CoordinateSystemRegistryProvider {
+
+    private static final Logger LOGGER = Logging.getLogger(CoordinateSystemRegistryProvider.class);
+
+    private static final CoordinateSystemRegistryProvider DEFAULT =
+            new CoordinateSystemRegistryProvider();
+
+    private final ConcurrentMap<Key, CompletableFuture<CoordinateSystemRegistry>> registries =
+            new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    public CoordinateSystemRegistryProvider() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        executor =
+                Executors.newCachedThreadPool(
+                        r -> {
+                            Thread t = new Thread(r);
+                            t.setName("crs-registry-provider-" + threadCount.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+    }
+
+    /** The process wide provider */
+    public static CoordinateSystemRegistryProvider getDefault() {
+        return DEFAULT;
+    }
+
+    /** @return the registry with all the available coordinate reference systems */
+    public CompletableFuture<CoordinateSystemRegistry> get(boolean forceLongitudeFirst) {
+        return get(forceLongitudeFirst, Set.of());
+    }
+
+    /**
+     * Returns the registry for the given axis order and codes, loading it if it's neither loaded
+     * nor being loaded.
+     *
+     * @param providedCodes the authority codes to load, all the available ones if empty
+     */
+    public CompletableFuture<CoordinateSystemRegistry> get(
+            boolean forceLongitudeFirst, @NonNull Collection<String> providedCodes) {
+        final Key key = new Key(forceLongitudeFirst, Set.copyOf(providedCodes));
+        CompletableFuture<CoordinateSystemRegistry> registry = registries.get(key);
+        if (registry == null) {
+            CompletableFuture<CoordinateSystemRegistry> load = new CompletableFuture<>();
+            registry = registries.putIfAbsent(key, load);
+            if (registry == null) {
+                registry = load;
+                executor.execute(() -> load(key, load));
+            }
+        }
+        return registry;
+    }
+
+    /** Whether the registry for the given axis order and codes is loaded or being loaded */
+    public boolean isCached(
+            boolean forceLongitudeFirst, @NonNull Collection<String> providedCodes) {
+        return registries.containsKey(new Key(forceLongitudeFirst, Set.copyOf(providedCodes)));
+    }
+
+    /**
+     * Discards all the cached registries, the ones being loaded are discarded once loaded. The
+     * registries already handed out are left untouched.
+     */
+    public void clear() {
+        registries.clear();
+    }
+
+    /**
+     * Creates the service whose task loads the coordinate reference systems of a registry. The
+     * provided codes and axis order are set by the caller, override to change the loading settings
+     * (e.g. catalog or parallelism).
+     */
+    protected CoordinateSystemLoaderService createLoader() {
+        return new CoordinateSystemLoaderService();
+    }
+
+    private void load(Key key, CompletableFuture<CoordinateSystemRegistry> future) {
+        try {
+            CoordinateSystemRegistry registry = CoordinateSystemRegistry.newInstance();
+            List<CRSInfo> reused = new ArrayList<>();
+            Collection<String> codes = key.codes;
+            CoordinateSystemRegistry latitudeFirst = key.forceLongitudeFirst ? loaded(key) : null;
+            if (latitudeFirst != null) {
+                codes = new ArrayList<>();
+                for (CRSInfo info : latitudeFirst.all()) {
+                    CRSInfo same = reusable(info);
+                    if (same == null) {
+                        codes.add(info.getAuthorityCode());
+                    } else {
+                        reused.add(same);
+                    }
+                }
+                LOGGER.fine(
+                        () ->
+                                String.format(
+                                        "Reusing %,d of %,d latitude first CRSs",
+                                        reused.size(), latitudeFirst.size()));
+            }
+            registry.addAll(reused);
+            if (latitudeFirst == null || !codes.isEmpty()) {
+                CoordinateSystemLoaderService loader = createLoader();
+                loader.setProvidedCodes(codes);
+                loader.setForceLongitudeFirst(key.forceLongitudeFirst);
+                Task<ObservableList<CRSInfo>> task = loader.createTask();
+                task.run();
+                registry.addAll(task.get());
+            }
+            future.complete(registry);
+        } catch (Throwable e) {
+            Throwable cause =
+                    e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            LOGGER.log(Level.WARNING, "Error loading coordinate reference systems", cause);
+            registries.remove(key, future);
+            future.completeExceptionally(cause);
+        }
+    }
+
+    /** @return the already loaded latitude first counterpart of a longitude first registry */
+    private @Nullable CoordinateSystemRegistry loaded(Key key) {
+        CompletableFuture<CoordinateSystemRegistry> other =
+                registries.get(new Key(false, key.codes));
+        if (other != null && other.isDone() && !other.isCompletedExceptionally()) {
+            return other.join();
+        }
+        return null;
+    }
+
+    /**
+     * @return a longitude first {@code CRSInfo} sharing the latitude first one's CRS, or {@code
+     *     null} if it failed to decode or forcing longitude first changes its axis order
+     */
+    private @Nullable CRSInfo reusable(CRSInfo latitudeFirst) {
+        if (!latitudeFirst.isDecoded()) {
+            return CRSInfo.longitudeFirst(latitudeFirst);
+        }
+        if (latitudeFirst.getCrs() == null) {
+            return null;
+        }
+        CoordinateReferenceSystem crs = latitudeFirst.getCrs();
+        SingleCRS horizontal = CRS.getHorizontalCRS(crs);
+        if (horizontal != null && CRS.getAxisOrder(horizontal) != AxisOrder.EAST_NORTH) {
+            return null;
+        }
+        return new CRSInfo(latitudeFirst.getAuthorityCode(), crs);
+    }
+
+    private static class Key {
+        final boolean forceLongitudeFirst;
+
+        final Set<String> codes;
+
+        Key(boolean forceLongitudeFirst, Set<String> codes) {
+            this.forceLongitudeFirst = forceLongitudeFirst;
+            this.codes = codes;
+        }
+
+        public @Override boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return forceLongitudeFirst == k.forceLongitudeFirst && codes.equals(k.codes);
+        }
+
+        public @Override int hashCode() {
+            return Objects.hash(forceLongitudeFirst, codes);
+        }
+    }
+}
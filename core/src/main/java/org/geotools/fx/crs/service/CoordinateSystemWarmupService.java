@@ -0,0 +1,255 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ListProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleListProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.geotools.fx.concurrent.ProgressReporter;
+import org.geotools.fx.map.model.MapLayer;
+import org.geotools.fx.map.model.MapModel;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.util.logging.Logging;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+
+/**
+ * Builds the transforms between commonly used coordinate reference systems in the background, and
+ * caches them in the {@link ReprojectionService}, so that the first render or pan in a CRS doesn't
+ * stall while GeoTools builds them and fills its factory caches.
+ *
+ * <p>The transforms built are the ones between each of the configured {@link #pairsProperty()
+ * pairs}, plus, if a {@link #mapModelProperty() map model} is set, the ones from the CRS of each of
+ * its layers to its viewport CRS and to each of the {@link #targetsProperty() targets}. The inverse
+ * transforms are built too, unless {@link #inverseProperty() inverse} is disabled.
+ *
+ * <p>A typical use is to start it once the {@link CoordinateSystemRegistryLoaderService} succeeds,
+ * with the CRSs the user is offered as targets. The value of the service is the number of
+ * transforms built, failures are logged and skipped.
+ */
+@Accessors(fluent = true)
+public class CoordinateSystemWarmupService extends Service<Integer> {
+
+    private static final Logger LOGGER = Logging.getLogger(CoordinateSystemWarmupService.class);
+
+    private final @Getter ListProperty<Pair> pairsProperty =
+            new SimpleListProperty<>(this, "pairs", FXCollections.observableArrayList());
+
+    /** The map whose layer CRSs are warmed up, taken as the sources of the transforms */
+    private final @Getter ObjectProperty<MapModel> mapModelProperty =
+            new SimpleObjectProperty<>(this, "mapModel");
+
+    /** Additional targets for the map layer CRSs, besides the map's viewport CRS */
+    private final @Getter ListProperty<CoordinateReferenceSystem> targetsProperty =
+            new SimpleListProperty<>(this, "targets", FXCollections.observableArrayList());
+
+    private final @Getter BooleanProperty inverseProperty =
+            new SimpleBooleanProperty(this, "inverse", true);
+
+    private final @Getter ObjectProperty<ReprojectionService> reprojectionServiceProperty =
+            new SimpleObjectProperty<>(
+                    this, "reprojectionService", ReprojectionService.getDefault());
+
+    /** Throughput and estimated time to completion of the running task */
+    private final @Getter ProgressReporter progressReporter = new ProgressReporter();
+
+    /** A source and target coordinate reference system to build the transform between */
+    public static final class Pair {
+        private final CoordinateReferenceSystem source;
+
+        private final CoordinateReferenceSystem target;
+
+        private Pair(CoordinateReferenceSystem source, CoordinateReferenceSystem target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        public static Pair of(
+                @NonNull CoordinateReferenceSystem source,
+                @NonNull CoordinateReferenceSystem target) {
+            return new Pair(source, target);
+        }
+
+        public CoordinateReferenceSystem getSource() {
+            return source;
+        }
+
+        public CoordinateReferenceSystem getTarget() {
+            return target;
+        }
+
+        /** Identity based, as the {@link ReprojectionService} cache */
+        public @Override boolean equals(Object o) {
+            return o instanceof Pair && ((Pair) o).source == source && ((Pair) o).target == target;
+        }
+
+        public @Override int hashCode() {
+            return 31 * System.identityHashCode(source) + System.identityHashCode(target);
+        }
+
+        public @Override String toString() {
+            return String.format("%s -> %s", source.getName(), target.getName());
+        }
+    }
+
+    public ObservableList<Pair> getPairs() {
+        return pairsProperty.get();
+    }
+
+    public void addPair(
+            @NonNull CoordinateReferenceSystem source, @NonNull CoordinateReferenceSystem target) {
+        getPairs().add(Pair.of(source, target));
+    }
+
+    public @Nullable MapModel getMapModel() {
+        return mapModelProperty.get();
+    }
+
+    public void setMapModel(@Nullable MapModel mapModel) {
+        mapModelProperty.set(mapModel);
+    }
+
+    public ObservableList<CoordinateReferenceSystem> getTargets() {
+        return targetsProperty.get();
+    }
+
+    public boolean isInverse() {
+        return inverseProperty.get();
+    }
+
+    public void setInverse(boolean inverse) {
+        inverseProperty.set(inverse);
+    }
+
+    public ReprojectionService getReprojectionService() {
+        return reprojectionServiceProperty.get();
+    }
+
+    public void setReprojectionService(@NonNull ReprojectionService service) {
+        reprojectionServiceProperty.set(service);
+    }
+
+    /** Called on the FX thread, snapshots the configuration for the task */
+    protected @Override Task<Integer> createTask() {
+        final List<CoordinateReferenceSystem> targets = new ArrayList<>(getTargets());
+        final MapModel mapModel = getMapModel();
+        final List<MapLayer> layers = new ArrayList<>();
+        if (mapModel != null) {
+            layers.addAll(mapModel.leafLayers());
+            CoordinateReferenceSystem mapCrs =
+                    mapModel.getViewport().getCoordinateReferenceSystem();
+            if (mapCrs != null) {
+                targets.add(0, mapCrs);
+            }
+        }
+        return new WarmupTask(
+                new ArrayList<>(getPairs()),
+                layers,
+                targets,
+                isInverse(),
+                Objects.requireNonNull(getReprojectionService(), "reprojectionService"),
+                progressReporter);
+    }
+
+    private static @RequiredArgsConstructor class WarmupTask extends Task<Integer> {
+
+        private final List<Pair> configured;
+
+        private final List<MapLayer> layers;
+
+        private final List<CoordinateReferenceSystem> targets;
+
+        private final boolean inverse;
+
+        private final ReprojectionService reprojection;
+
+        private final ProgressReporter progress;
+
+        protected @Override Integer call() throws Exception {
+            super.updateTitle("Preparing coordinate transformations");
+            final Set<Pair> pairs = new LinkedHashSet<>(configured);
+            for (MapLayer layer : layers) {
+                if (isCancelled()) {
+                    return null;
+                }
+                CoordinateReferenceSystem source = layerCrs(layer);
+                if (source != null) {
+                    targets.forEach(target -> pairs.add(Pair.of(source, target)));
+                }
+            }
+            progress.start(pairs.size(), this::updateProgress);
+            int built = 0;
+            for (Pair pair : pairs) {
+                if (isCancelled()) {
+                    return null;
+                }
+                super.updateMessage(pair.toString());
+                if (build(pair)) {
+                    built++;
+                }
+                progress.worked();
+            }
+            progress.done();
+            return built;
+        }
+
+        private boolean build(Pair pair) {
+            try {
+                MathTransform transform =
+                        reprojection.getTransform(pair.getSource(), pair.getTarget());
+                if (inverse && !transform.isIdentity()) {
+                    reprojection.getTransform(pair.getTarget(), pair.getSource());
+                }
+                return true;
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Unable to build transform " + pair, e);
+                return false;
+            }
+        }
+
+        /** The layer bounds may come from the data source, hence resolved on the task thread */
+        private @Nullable CoordinateReferenceSystem layerCrs(MapLayer layer) {
+            try {
+                return layer.bounds()
+                        .map(ReferencedEnvelope::getCoordinateReferenceSystem)
+                        .orElse(null);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.FINE, "Unable to determine the CRS of " + layer, e);
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.measure.Unit;
+import javax.measure.quantity.Angle;
+import lombok.NonNull;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.CRS.AxisOrder;
+import org.geotools.util.logging.Logging;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.crs.GeographicCRS;
+import org.opengis.referencing.cs.CoordinateSystem;
+import org.opengis.referencing.datum.PrimeMeridian;
+import org.opengis.referencing.operation.MathTransform;
+import si.uom.NonSI;
+
+/**
+ * Optional provider of datum shifts backed by {@link MappedNTv2Grid memory mapped} NTv2 grid files.
+ *
+ * <p>Applications {@link #register register} the grid to use between the datums of two geographic
+ * CRSs, and {@link ReprojectionService} uses it in either direction for any pair of two dimensional
+ * geographic CRSs on those datums, whatever their axis order, instead of the transform {@link
+ * CRS#findMathTransform} would create. Pairs with no registered grid are left to GeoTools, and so
+ * are CRSs whose coordinates aren't in degrees from Greenwich, like NTF (Paris) or CRSs in grads,
+ * since grids shift degrees from Greenwich.
+ *
+ * <p>Grid files are mapped the first time they're needed and shared afterwards. {@link #warmUp()}
+ * maps and faults in all the registered grids in the background, and is called when the coordinate
+ * reference systems are loaded, so the first reprojection doesn't pay for the disk reads.
+ *
+ * <p>Instances are thread safe.
+ */
+public class GridShiftService {
+
+    private static final Logger LOGGER = Logging.getLogger(GridShiftService.class);
+
+    private static final GridShiftService DEFAULT = new GridShiftService();
+
+    private final ConcurrentMap<Path, MappedNTv2Grid> grids = new ConcurrentHashMap<>();
+
+    private final List<Binding> bindings = new CopyOnWriteArrayList<>();
+
+    /** The process wide service, used by {@link ReprojectionService#getDefault()} */
+    public static GridShiftService getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Registers the NTv2 grid shifting coordinates from the datum of {@code source} to the datum of
+     * {@code target}. The file is not read until needed or {@link #warmUp() warmed up}.
+     *
+     * @throws IllegalArgumentException if either CRS is not in degrees from Greenwich
+     *     <p>Transforms already cached by {@link ReprojectionService} are not affected, clear it if
+     *     needed.
+     */
+    public void register(
+            @NonNull GeographicCRS source, @NonNull GeographicCRS target, @NonNull Path grid) {
+        if (!isSupported(source) || !isSupported(target)) {
+            throw new IllegalArgumentException(
+                    "Grid shifts apply to two dimensional CRSs in degrees from Greenwich");
+        }
+        bindings.add(new Binding(source, target, grid.toAbsolutePath().normalize()));
+    }
+
+    /** Whether any grid is registered */
+    public boolean isEmpty() {
+        return bindings.isEmpty();
+    }
+
+    /** Unregisters all the grids and releases the mapped files */
+    public void clear() {
+        bindings.clear();
+        grids.clear();
+    }
+
+    /** @return the mapped grid file, mapping it if it's not already */
+    public MappedNTv2Grid getGrid(@NonNull Path file) throws IOException {
+        final Path key = file.toAbsolutePath().normalize();
+        MappedNTv2Grid grid = grids.get(key);
+        if (grid == null) {
+            grid = MappedNTv2Grid.open(key);
+            MappedNTv2Grid existing = grids.putIfAbsent(key, grid);
+            if (existing != null) {
+                grid = existing;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return the grid shift transform between {@code source} and {@code target}, or {@code null}
+     *     if no registered grid applies to them
+     */
+    public @Nullable MathTransform findTransform(
+            @NonNull CoordinateReferenceSystem source, @NonNull CoordinateReferenceSystem target)
+            throws FactoryException {
+        if (bindings.isEmpty() || !isSupported(source) || !isSupported(target)) {
+            return null;
+        }
+        final GeographicCRS from = (GeographicCRS) source;
+        final GeographicCRS to = (GeographicCRS) target;
+        for (Binding binding : bindings) {
+            boolean forward = binding.matches(from, to);
+            if (forward || binding.matches(to, from)) {
+                MappedNTv2Grid grid;
+                try {
+                    grid = getGrid(binding.grid);
+                } catch (IOException e) {
+                    throw new FactoryException("Unable to read grid shift file " + binding.grid, e);
+                }
+                return new GridShiftTransform(
+                        grid, !forward, isLatitudeFirst(source), isLatitudeFirst(target));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maps and faults in the registered grid files in the background. Grids that can't be read are
+     * logged and skipped.
+     */
+    public CompletableFuture<Void> warmUp() {
+        if (bindings.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(
+                () -> {
+                    for (Binding binding : bindings) {
+                        try {
+                            MappedNTv2Grid grid = getGrid(binding.grid);
+                            if (!grid.isLoaded()) {
+                                grid.load();
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            LOGGER.log(
+                                    Level.WARNING,
+                                    "Unable to load grid shift file " + binding.grid,
+                                    e);
+                        }
+                    }
+                });
+    }
+
+    /** Whether {@code crs} is two dimensional geographic, in degrees from Greenwich */
+    private static boolean isSupported(CoordinateReferenceSystem crs) {
+        if (!(crs instanceof GeographicCRS)) {
+            return false;
+        }
+        CoordinateSystem cs = crs.getCoordinateSystem();
+        PrimeMeridian pm = ((GeographicCRS) crs).getDatum().getPrimeMeridian();
+        return cs.getDimension() == 2
+                && pm.getGreenwichLongitude() == 0
+                && isDegrees(cs.getAxis(0).getUnit())
+                && isDegrees(cs.getAxis(1).getUnit());
+    }
+
+    private static boolean isDegrees(Unit<?> unit) {
+        return unit != null
+                && unit.isCompatible(NonSI.DEGREE_ANGLE)
+                && unit.asType(Angle.class).getConverterTo(NonSI.DEGREE_ANGLE).isIdentity();
+    }
+
+    private static boolean isLatitudeFirst(CoordinateReferenceSystem crs) {
+        return CRS.getAxisOrder(crs) == AxisOrder.NORTH_EAST;
+    }
+
+    private static class Binding {
+        final GeographicCRS source;
+
+        final GeographicCRS target;
+
+        final Path grid;
+
+        Binding(GeographicCRS source, GeographicCRS target, Path grid) {
+            this.source = source;
+            this.target = target;
+            this.grid = grid;
+        }
+
+        /** Grids shift between datums, the axis order is handled by the transform */
+        boolean matches(GeographicCRS from, GeographicCRS to) {
+            return CRS.equalsIgnoreMetadata(source.getDatum(), from.getDatum())
+                    && CRS.equalsIgnoreMetadata(target.getDatum(), to.getDatum());
+        }
+    }
+}
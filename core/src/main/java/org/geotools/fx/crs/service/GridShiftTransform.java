@@ -0,0 +1,109 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import lombok.NonNull;
+import org.geotools.referencing.operation.transform.AbstractMathTransform;
+import org.opengis.referencing.operation.MathTransform;
+
+/**
+ * Two dimensional geographic transform applying the datum shift of a {@link MappedNTv2Grid},
+ * created by {@link GridShiftService#findTransform}. Points outside of the grid are left untouched.
+ *
+ * <p>Coordinates are in decimal degrees from Greenwich, as in the grid, the service only creates it
+ * for such CRSs.
+ */
+class GridShiftTransform extends AbstractMathTransform {
+
+    private final MappedNTv2Grid grid;
+
+    private final boolean inverse;
+
+    private final boolean sourceLatitudeFirst;
+
+    private final boolean targetLatitudeFirst;
+
+    private GridShiftTransform inverseTransform;
+
+    GridShiftTransform(
+            @NonNull MappedNTv2Grid grid,
+            boolean inverse,
+            boolean sourceLatitudeFirst,
+            boolean targetLatitudeFirst) {
+        this.grid = grid;
+        this.inverse = inverse;
+        this.sourceLatitudeFirst = sourceLatitudeFirst;
+        this.targetLatitudeFirst = targetLatitudeFirst;
+    }
+
+    public @Override int getSourceDimensions() {
+        return 2;
+    }
+
+    public @Override int getTargetDimensions() {
+        return 2;
+    }
+
+    public @Override void transform(
+            double[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts) {
+        System.arraycopy(srcPts, srcOff, dstPts, dstOff, 2 * numPts);
+        if (sourceLatitudeFirst) {
+            swap(dstPts, dstOff, numPts);
+        }
+        grid.shift(dstPts, dstOff, numPts, inverse);
+        if (targetLatitudeFirst) {
+            swap(dstPts, dstOff, numPts);
+        }
+    }
+
+    private static void swap(double[] coords, int offset, int count) {
+        for (int i = offset, end = offset + 2 * count; i < end; i += 2) {
+            double x = coords[i];
+            coords[i] = coords[i + 1];
+            coords[i + 1] = x;
+        }
+    }
+
+    public @Override synchronized MathTransform inverse() {
+        if (inverseTransform == null) {
+            inverseTransform =
+                    new GridShiftTransform(
+                            grid, !inverse, targetLatitudeFirst, sourceLatitudeFirst);
+            inverseTransform.inverseTransform = this;
+        }
+        return inverseTransform;
+    }
+
+    public @Override boolean equals(Object o) {
+        if (!(o instanceof GridShiftTransform)) {
+            return false;
+        }
+        GridShiftTransform other = (GridShiftTransform) o;
+        return grid == other.grid
+                && inverse == other.inverse
+                && sourceLatitudeFirst == other.sourceLatitudeFirst
+                && targetLatitudeFirst == other.targetLatitudeFirst;
+    }
+
+    public @Override int hashCode() {
+        return grid.hashCode() * 31 + (inverse ? 1 : 0);
+    }
+
+    public @Override String toString() {
+        return String.format("GridShiftTransform[%s, inverse: %s]", grid.getPath(), inverse);
+    }
+}
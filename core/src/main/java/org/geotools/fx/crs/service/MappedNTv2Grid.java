@@ -0,0 +1,284 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import lombok.NonNull;
+
+/**
+ * An NTv2 datum shift grid file, memory mapped and read in place.
+ *
+ * <p>The file is mapped read only and the shifts are read straight from the mapped pages when
+ * interpolating, no node is ever copied to the heap, so opening even large national grids is
+ * immediate and their memory is shared with the OS page cache. Call {@link #load()} ahead of time
+ * to fault the pages in, so the first transform doesn't pay for the disk reads.
+ *
+ * <p>Only absolute reads are performed on the mapped buffer, so instances are thread safe.
+ */
+public class MappedNTv2Grid {
+
+    /** Size of each header record and grid node, in bytes */
+    private static final int RECORD = 16;
+
+    private static final int OVERVIEW_RECORDS = 11;
+
+    private static final int SUBGRID_RECORDS = 11;
+
+    private static final double SECONDS_PER_DEGREE = 3600;
+
+    /** Convergence threshold of the inverse shift, in degrees */
+    private static final double INVERSE_TOLERANCE = 1e-12;
+
+    private static final int MAX_INVERSE_ITERATIONS = 10;
+
+    private final Path path;
+
+    private final MappedByteBuffer buffer;
+
+    private final SubGrid[] subGrids;
+
+    MappedNTv2Grid(@NonNull Path path, @NonNull MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        // NUM_OREC is always 11, which tells the byte order apart
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < OVERVIEW_RECORDS * RECORD || buffer.getInt(8) != OVERVIEW_RECORDS) {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.capacity() < OVERVIEW_RECORDS * RECORD
+                    || buffer.getInt(8) != OVERVIEW_RECORDS
+                    || !"NUM_OREC".equals(key(0))) {
+                throw new IOException("Not an NTv2 grid file: " + path);
+            }
+        }
+        final int count = buffer.getInt(2 * RECORD + 8);
+        subGrids = new SubGrid[count];
+        int offset = OVERVIEW_RECORDS * RECORD;
+        for (int i = 0; i < count; i++) {
+            subGrids[i] = new SubGrid(offset);
+            offset = subGrids[i].nodesOffset + subGrids[i].rows * subGrids[i].columns * RECORD;
+        }
+    }
+
+    /** Maps the NTv2 grid file at {@code path} */
+    public static MappedNTv2Grid open(@NonNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedNTv2Grid(path, channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getSubGridCount() {
+        return subGrids.length;
+    }
+
+    /** Faults in the pages of the mapped file, so later reads don't hit the disk */
+    public void load() {
+        buffer.load();
+    }
+
+    /** Whether the mapped file is likely resident in physical memory */
+    public boolean isLoaded() {
+        return buffer.isLoaded();
+    }
+
+    /** Whether the grid covers the given longitude and latitude, in decimal degrees */
+    public boolean contains(double longitude, double latitude) {
+        return find(-longitude * SECONDS_PER_DEGREE, latitude * SECONDS_PER_DEGREE) != null;
+    }
+
+    /**
+     * Shifts {@code count} longitude, latitude pairs in decimal degrees, in place.
+     *
+     * @param inverse whether to apply the shift from the target datum back to the source one
+     * @return the number of points shifted, points outside of the grid are left untouched
+     */
+    public int shift(@NonNull double[] coords, int offset, int count, boolean inverse) {
+        final double[] delta = new double[2];
+        int shifted = 0;
+        for (int i = offset, end = offset + 2 * count; i < end; i += 2) {
+            boolean inside =
+                    inverse
+                            ? inverseShift(coords, i, delta)
+                            : interpolate(coords[i], coords[i + 1], delta);
+            if (inside) {
+                if (!inverse) {
+                    coords[i] += delta[0];
+                    coords[i + 1] += delta[1];
+                }
+                shifted++;
+            }
+        }
+        return shifted;
+    }
+
+    /** Iterates the forward shift until it lands on the given coordinates */
+    private boolean inverseShift(double[] coords, int i, double[] delta) {
+        final double longitude = coords[i];
+        final double latitude = coords[i + 1];
+        double x = longitude;
+        double y = latitude;
+        for (int iteration = 0; iteration < MAX_INVERSE_ITERATIONS; iteration++) {
+            if (!interpolate(x, y, delta)) {
+                return false;
+            }
+            double nx = longitude - delta[0];
+            double ny = latitude - delta[1];
+            boolean converged =
+                    Math.abs(nx - x) < INVERSE_TOLERANCE && Math.abs(ny - y) < INVERSE_TOLERANCE;
+            x = nx;
+            y = ny;
+            if (converged) {
+                break;
+            }
+        }
+        coords[i] = x;
+        coords[i + 1] = y;
+        return true;
+    }
+
+    /**
+     * Bilinearly interpolates the shift at the given location into {@code delta} as longitude and
+     * latitude differences in decimal degrees
+     */
+    private boolean interpolate(double longitude, double latitude, double[] delta) {
+        // NTv2 works in arc seconds with positive west longitudes
+        final double west = -longitude * SECONDS_PER_DEGREE;
+        final double north = latitude * SECONDS_PER_DEGREE;
+        final SubGrid grid = find(west, north);
+        if (grid == null) {
+            return false;
+        }
+        final double x = (west - grid.east) / grid.longitudeInterval;
+        final double y = (north - grid.south) / grid.latitudeInterval;
+        final int column = Math.max(0, Math.min((int) x, grid.columns - 2));
+        final int row = Math.max(0, Math.min((int) y, grid.rows - 2));
+        final double fx = x - column;
+        final double fy = y - row;
+
+        final int lowerLeft = grid.node(row, column);
+        final int upperLeft = grid.node(row + 1, column);
+        double latitudeShift =
+                bilinear(
+                        buffer.getFloat(lowerLeft),
+                        buffer.getFloat(lowerLeft + RECORD),
+                        buffer.getFloat(upperLeft),
+                        buffer.getFloat(upperLeft + RECORD),
+                        fx,
+                        fy);
+        double longitudeShift =
+                bilinear(
+                        buffer.getFloat(lowerLeft + 4),
+                        buffer.getFloat(lowerLeft + RECORD + 4),
+                        buffer.getFloat(upperLeft + 4),
+                        buffer.getFloat(upperLeft + RECORD + 4),
+                        fx,
+                        fy);
+        delta[0] = -longitudeShift / SECONDS_PER_DEGREE;
+        delta[1] = latitudeShift / SECONDS_PER_DEGREE;
+        return true;
+    }
+
+    private static double bilinear(
+            double lowerLeft,
+            double lowerRight,
+            double upperLeft,
+            double upperRight,
+            double fx,
+            double fy) {
+        double lower = lowerLeft + (lowerRight - lowerLeft) * fx;
+        double upper = upperLeft + (upperRight - upperLeft) * fx;
+        return lower + (upper - lower) * fy;
+    }
+
+    /** @return the densest sub grid containing the location, in arc seconds positive west */
+    private SubGrid find(double west, double north) {
+        SubGrid found = null;
+        for (SubGrid grid : subGrids) {
+            if (grid.contains(west, north)
+                    && (found == null || grid.latitudeInterval < found.latitudeInterval)) {
+                found = grid;
+            }
+        }
+        return found;
+    }
+
+    private String key(int offset) {
+        byte[] key = new byte[8];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = buffer.get(offset + i);
+        }
+        return new String(key, StandardCharsets.US_ASCII).trim();
+    }
+
+    private double doubleValue(int offset) {
+        return buffer.getDouble(offset + 8);
+    }
+
+    /** Header of a sub grid, the nodes are read from the mapped buffer as needed */
+    private class SubGrid {
+        final double south;
+        final double north;
+        final double east;
+        final double west;
+        final double latitudeInterval;
+        final double longitudeInterval;
+        final int rows;
+        final int columns;
+        final int nodesOffset;
+
+        SubGrid(int offset) throws IOException {
+            if (!"SUB_NAME".equals(key(offset))) {
+                throw new IOException("Malformed NTv2 sub grid header in " + path);
+            }
+            south = doubleValue(offset + 4 * RECORD);
+            north = doubleValue(offset + 5 * RECORD);
+            east = doubleValue(offset + 6 * RECORD);
+            west = doubleValue(offset + 7 * RECORD);
+            latitudeInterval = doubleValue(offset + 8 * RECORD);
+            longitudeInterval = doubleValue(offset + 9 * RECORD);
+            int count = buffer.getInt(offset + 10 * RECORD + 8);
+            rows = (int) Math.round((north - south) / latitudeInterval) + 1;
+            columns = (int) Math.round((west - east) / longitudeInterval) + 1;
+            nodesOffset = offset + SUBGRID_RECORDS * RECORD;
+            if (count != rows * columns
+                    || rows < 2
+                    || columns < 2
+                    || (long) nodesOffset + (long) count * RECORD > buffer.capacity()) {
+                throw new IOException("Malformed NTv2 sub grid in " + path);
+            }
+        }
+
+        boolean contains(double x, double y) {
+            return y >= south && y <= north && x >= east && x <= west;
+        }
+
+        /** Offset of a node, rows go south to north and columns east to west */
+        int node(int row, int column) {
+            return nodesOffset + (row * columns + column) * RECORD;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import java.util.Collections;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import org.geotools.fx.cache.CacheManager;
+import org.geotools.fx.cache.ManagedCache;
+import org.geotools.geometry.GeneralEnvelope;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.operation.AbstractCoordinateOperation;
+import org.geotools.referencing.operation.transform.IdentityTransform;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.IdentifiedObject;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * Reprojects envelopes and coordinates between coordinate reference systems, caching the {@link
+ * MathTransform} of each source and target CRS pair.
+ *
+ * <p>Looking up a transform with {@link CRS#findMathTransform} and checking whether two CRSs are
+ * {@link CRS#equalsIgnoreMetadata equal} are both expensive, and rendering and bounds computations
+ * do it over and over for the same few CRSs. This service does it once per pair of CRS instances,
+ * resolving pairs of equal CRSs to an identity transform, so that callers can skip the work
+ * altogether through {@link #isIdentity}.
+ *
+ * <p>Pairs are keyed by CRS identity, which is what callers reusing the map and layer CRS objects
+ * get. The transforms are held by a {@link ManagedCache}, costed by the time it took to find them,
+ * so the cache manager bounds the memory held by callers that create CRS instances on the fly while
+ * keeping the expensive transforms, e.g. the ones {@link CoordinateSystemWarmupService} prepares,
+ * over the cheap ones. The {@link #getDefault() default} service's cache is accounted against the
+ * {@link CacheManager#getDefault() default cache manager}, other instances hold theirs in a cache
+ * of their own, bounded by {@link #PRIVATE_BUDGET}, that's collected along with them.
+ *
+ * <p>Datum shifts between geographic CRSs use the grids registered with the {@link
+ * GridShiftService}, if any.
+ *
+ * <p>Instances are thread safe.
+ */
+public class ReprojectionService {
+
+    /** Approximate heap size of a cached transform and its key */
+    private static final long TRANSFORM_SIZE = 4096;
+
+    /** Approximate heap size of a cached identity transform and its key */
+    private static final long IDENTITY_SIZE = 128;
+
+    /** Heap budget of the transforms cached by services other than the default one, in bytes */
+    static final long PRIVATE_BUDGET = 4 * 1024 * 1024;
+
+    private static final Map<String, ?> OPERATION_PROPERTIES =
+            Collections.singletonMap(IdentifiedObject.NAME_KEY, "Reprojection");
+
+    private static final ReprojectionService DEFAULT =
+            new ReprojectionService(GridShiftService.getDefault(), CacheManager.getDefault());
+
+    /** The cached operations, wrapping the transforms with their source and target CRS */
+    private final ManagedCache<CRSPair, CoordinateOperation> transforms;
+
+    private final GridShiftService gridShifts;
+
+    public ReprojectionService() {
+        this(GridShiftService.getDefault());
+    }
+
+    /** @param gridShifts the grid shifts to use in place of the ones GeoTools would pick */
+    public ReprojectionService(@NonNull GridShiftService gridShifts) {
+        this(gridShifts, new CacheManager(PRIVATE_BUDGET));
+    }
+
+    private ReprojectionService(GridShiftService gridShifts, CacheManager cacheManager) {
+        this.gridShifts = gridShifts;
+        this.transforms =
+                cacheManager.register(
+                        "reprojection-transforms",
+                        o -> o.getMathTransform().isIdentity() ? IDENTITY_SIZE : TRANSFORM_SIZE);
+    }
+
+    /** The process wide service */
+    public static ReprojectionService getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return the cached, lenient, transform from {@code source} to {@code target}, an identity
+     *     transform if both are equal ignoring metadata
+     */
+    public MathTransform getTransform(
+            @NonNull CoordinateReferenceSystem source, @NonNull CoordinateReferenceSystem target)
+            throws FactoryException {
+        return getOperation(source, target).getMathTransform();
+    }
+
+    private CoordinateOperation getOperation(
+            CoordinateReferenceSystem source, CoordinateReferenceSystem target)
+            throws FactoryException {
+        final CRSPair key = new CRSPair(source, target);
+        CoordinateOperation operation = transforms.get(key);
+        if (operation == null) {
+            final long start = System.nanoTime();
+            MathTransform transform;
+            if (source == target || CRS.equalsIgnoreMetadata(source, target)) {
+                transform = IdentityTransform.create(source.getCoordinateSystem().getDimension());
+            } else {
+                transform = gridShifts.findTransform(source, target);
+                if (transform == null) {
+                    transform = CRS.findMathTransform(source, target, true);
+                }
+            }
+            operation =
+                    new AbstractCoordinateOperation(
+                            OPERATION_PROPERTIES, source, target, transform);
+            transforms.put(key, operation, System.nanoTime() - start);
+        }
+        return operation;
+    }
+
+    /**
+     * Whether coordinates in {@code source} need no transformation to be expressed in {@code
+     * target}. A {@code null} CRS is considered equal to any other.
+     */
+    public boolean isIdentity(
+            @Nullable CoordinateReferenceSystem source, @Nullable CoordinateReferenceSystem target)
+            throws FactoryException {
+        return source == null
+                || target == null
+                || source == target
+                || getTransform(source, target).isIdentity();
+    }
+
+    /**
+     * Transforms {@code envelope} to {@code target}, returning {@code envelope} itself if no
+     * transformation is needed, so callers shall copy the result before modifying it.
+     *
+     * <p>The envelope is transformed as {@link ReferencedEnvelope#transform} does, accounting for
+     * the poles, antimeridian, and extrema of the transform within the envelope, but with the
+     * cached transform.
+     */
+    public ReferencedEnvelope transform(
+            @NonNull ReferencedEnvelope envelope, @NonNull CoordinateReferenceSystem target)
+            throws FactoryException, TransformException {
+        CoordinateReferenceSystem source = envelope.getCoordinateReferenceSystem();
+        if (isIdentity(source, target)) {
+            return envelope;
+        }
+        CoordinateOperation operation = getOperation(source, target);
+        MathTransform transform = operation.getMathTransform();
+        if (transform.getSourceDimensions() != 2 || transform.getTargetDimensions() != 2) {
+            return envelope.transform(target, true);
+        }
+        GeneralEnvelope transformed = CRS.transform(operation, envelope);
+        return new ReferencedEnvelope(transformed);
+    }
+
+    /**
+     * Transforms {@code numPoints} packed coordinates of {@code source} dimension from {@code src}
+     * into {@code dst}, as {@link MathTransform#transform(double[], int, double[], int, int)} does.
+     * Source and destination arrays may overlap. Identity transforms just copy the coordinates.
+     */
+    public void transform(
+            @NonNull CoordinateReferenceSystem source,
+            @NonNull CoordinateReferenceSystem target,
+            @NonNull double[] src,
+            int srcOffset,
+            @NonNull double[] dst,
+            int dstOffset,
+            int numPoints)
+            throws FactoryException, TransformException {
+        MathTransform transform = getTransform(source, target);
+        if (transform.isIdentity()) {
+            int dimension = transform.getSourceDimensions();
+            if (src != dst || srcOffset != dstOffset) {
+                System.arraycopy(src, srcOffset, dst, dstOffset, numPoints * dimension);
+            }
+            return;
+        }
+        transform.transform(src, srcOffset, dst, dstOffset, numPoints);
+    }
+
+    /** Transforms packed coordinates in place */
+    public void transform(
+            @NonNull CoordinateReferenceSystem source,
+            @NonNull CoordinateReferenceSystem target,
+            @NonNull double[] coordinates)
+            throws FactoryException, TransformException {
+        int dimension = source.getCoordinateSystem().getDimension();
+        transform(source, target, coordinates, 0, coordinates, 0, coordinates.length / dimension);
+    }
+
+    /**
+     * @see #transform(CoordinateReferenceSystem, CoordinateReferenceSystem, double[], int,
+     *     double[], int, int)
+     */
+    public void transform(
+            @NonNull CoordinateReferenceSystem source,
+            @NonNull CoordinateReferenceSystem target,
+            @NonNull float[] src,
+            int srcOffset,
+            @NonNull float[] dst,
+            int dstOffset,
+            int numPoints)
+            throws FactoryException, TransformException {
+        MathTransform transform = getTransform(source, target);
+        if (transform.isIdentity()) {
+            int dimension = transform.getSourceDimensions();
+            if (src != dst || srcOffset != dstOffset) {
+                System.arraycopy(src, srcOffset, dst, dstOffset, numPoints * dimension);
+            }
+            return;
+        }
+        transform.transform(src, srcOffset, dst, dstOffset, numPoints);
+    }
+
+    /** Discards all the cached transforms */
+    public void clear() {
+        transforms.clear();
+    }
+
+    /** Number of cached transforms */
+    public int size() {
+        return transforms.size();
+    }
+
+    /** Source and target CRS, compared by identity */
+    private static final class CRSPair {
+        final CoordinateReferenceSystem source;
+
+        final CoordinateReferenceSystem target;
+
+        CRSPair(CoordinateReferenceSystem source, CoordinateReferenceSystem target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        public @Override boolean equals(Object o) {
+            return o instanceof CRSPair
+                    && ((CRSPair) o).source == source
+                    && ((CRSPair) o).target == target;
+        }
+
+        public @Override int hashCode() {
+            return 31 * System.identityHashCode(source) + System.identityHashCode(target);
+        }
+    }
+}
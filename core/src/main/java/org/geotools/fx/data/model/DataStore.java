@@ -16,14 +16,47 @@
  */
 package org.geotools.fx.data.model;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import lombok.NonNull;
 import org.geotools.data.DataAccess;
 import org.opengis.feature.Feature;
 import org.opengis.feature.type.FeatureType;
 
-@RequiredArgsConstructor
-public class DataStore {
+/**
+ * Handle on a GeoTools {@link DataAccess}. {@link #close() Closing} the handle releases the data
+ * access, which is either disposed or, for handles obtained from a {@link
+ * org.geotools.fx.data.service.DataStoreRegistry DataStoreRegistry}, returned to the registry to be
+ * shared with other handles.
+ */
+public class DataStore implements AutoCloseable {
 
     private @Getter final DataAccess<FeatureType, Feature> dataAccess;
+
+    private final Runnable release;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /** Creates a handle owning {@code dataAccess}, which is disposed when the handle is closed */
+    public DataStore(@NonNull DataAccess<FeatureType, Feature> dataAccess) {
+        this(dataAccess, dataAccess::dispose);
+    }
+
+    /** Creates a handle on a shared {@code dataAccess}, running {@code release} when closed */
+    public DataStore(
+            @NonNull DataAccess<FeatureType, Feature> dataAccess, @NonNull Runnable release) {
+        this.dataAccess = dataAccess;
+        this.release = release;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /** Releases the data access, only the first call has any effect */
+    public @Override void close() {
+        if (closed.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
 }
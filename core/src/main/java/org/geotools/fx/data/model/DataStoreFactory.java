@@ -16,16 +16,21 @@
  */
 package org.geotools.fx.data.model;
 
+import java.util.List;
+import java.util.function.Supplier;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyListProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectPropertyBase;
 import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.adapter.ReadOnlyJavaBeanBooleanPropertyBuilder;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
@@ -33,7 +38,17 @@ import lombok.experimental.Accessors;
 import org.geotools.data.DataAccessFactory;
 import org.geotools.data.DataAccessFactory.Param;
 
-/** JavaFX Bean adapter for {@link DataAccessFactory} */
+/**
+ * JavaFX Bean adapter for {@link DataAccessFactory}
+ *
+ * <p>The {@link #parameterDescriptorsProperty() parameter descriptors} are only built when first
+ * requested, and the factory is only asked whether it's {@link #availableProperty() available} if
+ * it wasn't known at construction, so listing many factories is cheap.
+ *
+ * <p>Factories described by a {@link org.geotools.fx.data.service.DataStoreFactoryManifest
+ * manifest} don't even instantiate the {@link DataAccessFactory} until it's requested, or its
+ * availability is.
+ */
 @ToString(onlyExplicitlyIncluded = true)
 @Accessors(fluent = true)
 public class DataStoreFactory {
@@ -41,8 +56,8 @@ public class DataStoreFactory {
     private final @Getter ReadOnlyObjectProperty<DataAccessFactory> factoryProperty;
     private final @Getter ReadOnlyStringProperty displayNameProperty;
     private final @Getter ReadOnlyStringProperty descriptionProperty;
-    private final @Getter ReadOnlyBooleanProperty availableProperty;
-    private final @Getter ReadOnlyListProperty<ParameterDescriptor> parameterDescriptorsProperty;
+    private ReadOnlyBooleanProperty availableProperty;
+    private ReadOnlyListProperty<ParameterDescriptor> parameterDescriptorsProperty;
 
     public DataStoreFactory(@NonNull DataAccessFactory factory) {
         factoryProperty = new SimpleObjectProperty<>(this, "factory", factory);
@@ -50,25 +65,60 @@ public class DataStoreFactory {
                 new SimpleStringProperty(this, "displayName", factory.getDisplayName());
         descriptionProperty =
                 new SimpleStringProperty(this, "description", factory.getDescription());
+    }
 
-        Param[] parameters = factory.getParametersInfo();
-        ObservableList<ParameterDescriptor> params = FXCollections.observableArrayList();
-        for (Param p : parameters) {
-            params.add(new ParameterDescriptor(p));
-        }
+    /**
+     * Constructor for factories described ahead of time, {@code factory} is called once, the first
+     * time the factory is requested
+     */
+    public DataStoreFactory(
+            @NonNull String displayName,
+            @Nullable String description,
+            @NonNull List<ParameterDescriptor> parameters,
+            @NonNull Supplier<DataAccessFactory> factory) {
+        factoryProperty = new LazyFactoryProperty(this, factory);
+        displayNameProperty = new SimpleStringProperty(this, "displayName", displayName);
+        descriptionProperty = new SimpleStringProperty(this, "description", description);
         parameterDescriptorsProperty =
-                new SimpleListProperty<>(this, "parameterDescriptors", params);
-
-        // derived, lazy
-        try {
-            availableProperty =
-                    ReadOnlyJavaBeanBooleanPropertyBuilder.create()
-                            .bean(factory)
-                            .name("available")
-                            .build();
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
+                new SimpleListProperty<>(
+                        this,
+                        "parameterDescriptors",
+                        FXCollections.observableArrayList(parameters));
+    }
+
+    /** Constructor for factories whose availability has already been probed */
+    public DataStoreFactory(@NonNull DataAccessFactory factory, boolean available) {
+        this(factory);
+        availableProperty = new SimpleBooleanProperty(this, "available", available);
+    }
+
+    public ReadOnlyBooleanProperty availableProperty() {
+        if (availableProperty == null) {
+            // derived, asks the factory each time
+            try {
+                availableProperty =
+                        ReadOnlyJavaBeanBooleanPropertyBuilder.create()
+                                .bean(getFactory())
+                                .name("available")
+                                .build();
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
         }
+        return availableProperty;
+    }
+
+    public ReadOnlyListProperty<ParameterDescriptor> parameterDescriptorsProperty() {
+        if (parameterDescriptorsProperty == null) {
+            Param[] parameters = getFactory().getParametersInfo();
+            ObservableList<ParameterDescriptor> params = FXCollections.observableArrayList();
+            for (Param p : parameters) {
+                params.add(new ParameterDescriptor(p));
+            }
+            parameterDescriptorsProperty =
+                    new SimpleListProperty<>(this, "parameterDescriptors", params);
+        }
+        return parameterDescriptorsProperty;
     }
 
     public DataAccessFactory getFactory() {
@@ -87,10 +137,41 @@ public class DataStoreFactory {
 
     @ToString.Include(name = "available")
     public boolean isAvailable() {
-        return availableProperty.get();
+        return availableProperty().get();
     }
 
     public ObservableList<ParameterDescriptor> getParameterDescriptors() {
-        return parameterDescriptorsProperty;
+        return parameterDescriptorsProperty();
+    }
+
+    /** Creates the factory the first time its value is requested */
+    private static class LazyFactoryProperty extends ReadOnlyObjectPropertyBase<DataAccessFactory> {
+
+        private final Object bean;
+
+        private Supplier<DataAccessFactory> supplier;
+
+        private DataAccessFactory factory;
+
+        LazyFactoryProperty(Object bean, Supplier<DataAccessFactory> supplier) {
+            this.bean = bean;
+            this.supplier = supplier;
+        }
+
+        public @Override synchronized DataAccessFactory get() {
+            if (supplier != null) {
+                factory = supplier.get();
+                supplier = null;
+            }
+            return factory;
+        }
+
+        public @Override Object getBean() {
+            return bean;
+        }
+
+        public @Override String getName() {
+            return "factory";
+        }
     }
 }
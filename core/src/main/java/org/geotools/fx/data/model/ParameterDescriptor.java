@@ -22,6 +22,7 @@ import javafx.beans.property.ReadOnlyStringProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
@@ -82,28 +83,76 @@ public class ParameterDescriptor {
     private final @Getter ReadOnlyObjectProperty<Object> defaultValueProperty;
 
     public ParameterDescriptor(@NonNull Param parameter) {
+        this(
+                parameter,
+                parameter.getName(),
+                string(parameter.getTitle()),
+                string(parameter.getDescription()),
+                parameter.getType(),
+                Level.valueOf(parameter),
+                parameter.isPassword(),
+                parameter.isRequired(),
+                parameter.isDeprecated(),
+                parameter.getDefaultValue());
+    }
+
+    /**
+     * Constructor for parameters described without the factory's {@link Param}, e.g. by a {@link
+     * org.geotools.fx.data.service.DataStoreFactoryManifest manifest}. {@link #getParam()} is
+     * {@code null} for such descriptors.
+     */
+    public ParameterDescriptor(
+            @NonNull String name,
+            @Nullable String title,
+            @Nullable String description,
+            @NonNull Class<?> type,
+            @NonNull Level level,
+            boolean password,
+            boolean required,
+            boolean deprecated,
+            @Nullable Object defaultValue) {
+        this(
+                null,
+                name,
+                title,
+                description,
+                type,
+                level,
+                password,
+                required,
+                deprecated,
+                defaultValue);
+    }
+
+    private ParameterDescriptor(
+            Param parameter,
+            String name,
+            String title,
+            String description,
+            Class<?> type,
+            Level level,
+            boolean password,
+            boolean required,
+            boolean deprecated,
+            Object defaultValue) {
         this.paramProperty = new SimpleObjectProperty<>(this, "param", parameter);
-        InternationalString title = parameter.getTitle();
-        InternationalString description = parameter.getDescription();
-
-        this.nameProperty = new SimpleStringProperty(this, "name", parameter.getName());
-        this.titleProperty = new SimpleStringProperty(this, "title", title.toString());
-        this.descriptionProperty =
-                new SimpleStringProperty(
-                        this,
-                        "description",
-                        description == null ? null : parameter.getDescription().toString());
-        this.levelProperty = new SimpleObjectProperty<>(this, "level", Level.valueOf(parameter));
-        this.defaultValueProperty =
-                new SimpleObjectProperty<>(this, "defaultValue", parameter.getDefaultValue());
-        this.passwordProperty = new SimpleBooleanProperty(this, "password", parameter.isPassword());
-        this.requiredProperty = new SimpleBooleanProperty(this, "required", parameter.isRequired());
-        this.deprecatedProperty =
-                new SimpleBooleanProperty(this, "deprecated", parameter.isDeprecated());
-        this.typeProperty = new SimpleObjectProperty<Class<?>>(this, "type", parameter.getType());
+        this.nameProperty = new SimpleStringProperty(this, "name", name);
+        this.titleProperty = new SimpleStringProperty(this, "title", title);
+        this.descriptionProperty = new SimpleStringProperty(this, "description", description);
+        this.levelProperty = new SimpleObjectProperty<>(this, "level", level);
+        this.defaultValueProperty = new SimpleObjectProperty<>(this, "defaultValue", defaultValue);
+        this.passwordProperty = new SimpleBooleanProperty(this, "password", password);
+        this.requiredProperty = new SimpleBooleanProperty(this, "required", required);
+        this.deprecatedProperty = new SimpleBooleanProperty(this, "deprecated", deprecated);
+        this.typeProperty = new SimpleObjectProperty<Class<?>>(this, "type", type);
+    }
+
+    private static String string(InternationalString text) {
+        return text == null ? null : text.toString();
     }
 
-    public Param getParam() {
+    /** @return the factory parameter, {@code null} if described by a manifest */
+    public @Nullable Param getParam() {
         return paramProperty.get();
     }
 
@@ -0,0 +1,259 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.data.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.NonNull;
+import org.geotools.data.DataAccessFactory;
+import org.geotools.data.DataAccessFinder;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Process wide discovery of the {@link DataAccessFactory#isAvailable() available} data access
+ * factories.
+ *
+ * <p>{@link DataAccessFinder#getAvailableDataStores()} asks each factory whether it's available one
+ * after the other, and doing so may load native libraries or JDBC drivers. Instead, all the
+ * factories are probed in parallel, and the ones found available are handed out in service provider
+ * order, each as soon as its own and the preceding probes complete. Probes that take longer than
+ * the {@link #getProbeTimeout() probe timeout} are skipped by the iterations in progress, and their
+ * result is recorded for the later ones once they complete.
+ *
+ * <p>The result is cached for the life of the process, later calls to {@link #available()} iterate
+ * over the same factories without probing them again, until the cache is {@link #clearCache()
+ * cleared}, e.g. after installing a plugin.
+ */
+public class DataStoreFactoryDiscovery {
+
+    private static final Logger LOGGER = Logging.getLogger(DataStoreFactoryDiscovery.class);
+
+    public static final Duration DEFAULT_PROBE_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final DataStoreFactoryDiscovery DEFAULT =
+            new DataStoreFactoryDiscovery(
+                    DEFAULT_PROBE_TIMEOUT, DataAccessFinder::getAllDataStores);
+
+    private static final AtomicInteger PROBE_THREADS = new AtomicInteger();
+
+    private static final ExecutorService PROBES =
+            Executors.newCachedThreadPool(
+                    r -> {
+                        Thread t = new Thread(r);
+                        t.setName("datastore-factory-probe-" + PROBE_THREADS.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+    private static final ScheduledExecutorService TIMEOUTS =
+            Executors.newSingleThreadScheduledExecutor(
+                    r -> {
+                        Thread t = new Thread(r, "datastore-factory-probe-timeout");
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+    private final Duration probeTimeout;
+
+    private final Supplier<Iterator<DataAccessFactory>> factories;
+
+    /** The discovery in progress or done, {@code null} if not started, guarded by {@code this} */
+    private Discovery discovery;
+
+    DataStoreFactoryDiscovery(
+            @NonNull Duration probeTimeout,
+            @NonNull Supplier<Iterator<DataAccessFactory>> factories) {
+        this.probeTimeout = probeTimeout;
+        this.factories = factories;
+    }
+
+    /** The process wide discovery, used by {@link DataStoreFactoryLoader} */
+    public static DataStoreFactoryDiscovery getDefault() {
+        return DEFAULT;
+    }
+
+    public Duration getProbeTimeout() {
+        return probeTimeout;
+    }
+
+    /**
+     * Iterates over the available factories, starting the discovery if it's neither done nor in
+     * progress. While in progress, the iterator blocks until the next factory is found or all the
+     * probes complete.
+     */
+    public synchronized Iterator<DataAccessFactory> available() {
+        if (discovery == null) {
+            discovery = new Discovery();
+            discovery.start();
+        }
+        return discovery.iterator();
+    }
+
+    /** Whether all the factories have been probed */
+    public synchronized boolean isDone() {
+        return discovery != null && discovery.isDone();
+    }
+
+    /** Discards the cached result, the next call to {@link #available()} probes all over again */
+    public synchronized void clearCache() {
+        discovery = null;
+    }
+
+    private class Discovery {
+
+        private static final byte PENDING = 0;
+
+        private static final byte AVAILABLE = 1;
+
+        private static final byte UNAVAILABLE = 2;
+
+        /** All the factories, in service provider order, guarded by {@code this} */
+        private List<DataAccessFactory> all = List.of();
+
+        /** The probe state of each factory in {@link #all}, guarded by {@code this} */
+        private byte[] states = new byte[0];
+
+        /** Guarded by {@code this} */
+        private int pending;
+
+        /** Guarded by {@code this} */
+        private boolean done;
+
+        void start() {
+            List<DataAccessFactory> all = new ArrayList<>();
+            factories.get().forEachRemaining(all::add);
+            synchronized (this) {
+                this.all = all;
+                states = new byte[all.size()];
+                pending = all.size();
+                done = pending == 0;
+            }
+            for (int i = 0; i < all.size(); i++) {
+                final int index = i;
+                PROBES.execute(() -> probe(index, all.get(index)));
+            }
+            TIMEOUTS.schedule(this::timeout, probeTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        private void probe(int index, DataAccessFactory factory) {
+            boolean available;
+            try {
+                available = factory.isAvailable();
+            } catch (Throwable e) {
+                LOGGER.log(Level.FINE, "Error probing " + factory.getClass().getName(), e);
+                available = false;
+            }
+            synchronized (this) {
+                states[index] = available ? AVAILABLE : UNAVAILABLE;
+                if (done && available) {
+                    LOGGER.info(
+                            "Data store factory probed after the timeout, available to later"
+                                    + " iterations: "
+                                    + factory.getClass().getName());
+                } else if (done) {
+                    LOGGER.fine(
+                            "Data store factory probed after the timeout, unavailable: "
+                                    + factory.getClass().getName());
+                } else if (--pending == 0) {
+                    done = true;
+                }
+                notifyAll();
+            }
+        }
+
+        private synchronized void timeout() {
+            if (!done) {
+                LOGGER.warning(
+                        String.format(
+                                "%d data store factories didn't report their availability in %s,"
+                                        + " considered unavailable",
+                                pending, probeTimeout));
+                done = true;
+                notifyAll();
+            }
+        }
+
+        synchronized boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Blocks until the availability of the factories from {@code from} on is known, up to the
+         * first available one, or the discovery is done
+         *
+         * @return the index of the first available factory from {@code from}, {@code -1} if none
+         */
+        private synchronized int nextAvailable(int from) {
+            for (int i = from; i < all.size(); i++) {
+                while (states[i] == PENDING && !done) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return -1;
+                    }
+                }
+                if (states[i] == AVAILABLE) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private synchronized DataAccessFactory get(int index) {
+            return all.get(index);
+        }
+
+        Iterator<DataAccessFactory> iterator() {
+            return new Iterator<DataAccessFactory>() {
+                /** Index to look for the next available factory from */
+                private int from;
+
+                /** Index of the next available factory, {@code -2} if not looked for yet */
+                private int next = -2;
+
+                public @Override boolean hasNext() {
+                    if (next == -2) {
+                        next = nextAvailable(from);
+                    }
+                    return next >= 0;
+                }
+
+                public @Override DataAccessFactory next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    DataAccessFactory factory = get(next);
+                    from = next + 1;
+                    next = -2;
+                    return factory;
+                }
+            };
+        }
+    }
+}
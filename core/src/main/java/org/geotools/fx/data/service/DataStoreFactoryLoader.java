@@ -17,11 +17,9 @@
 package org.geotools.fx.data.service;
 
 import java.util.Iterator;
-import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.collections.FXCollections;
@@ -33,6 +31,7 @@ import lombok.experimental.Accessors;
 import org.geotools.data.DataAccessFactory;
 import org.geotools.data.DataAccessFinder;
 import org.geotools.data.DataStoreFactorySpi;
+import org.geotools.fx.concurrent.ProgressReporter;
 import org.geotools.fx.data.model.DataStoreFactory;
 import org.opengis.feature.simple.SimpleFeatureType;
 
@@ -46,6 +45,15 @@ import org.opengis.feature.simple.SimpleFeatureType;
  *
  * <p>Whether to report unavailable, complex, and/or simple feature data access factories can be
  * controlled through the provided properties.
+ *
+ * <p>The available factories are obtained from the {@link DataStoreFactoryDiscovery}, which probes
+ * them in parallel once per process. The resulting list is set as the service {@link #getValue()
+ * value} as soon as the task starts, and factories are added to it, on the JavaFX application
+ * thread, as they're found.
+ *
+ * <p>With {@link #useManifestProperty() useManifest} set, factories described in a {@link
+ * DataStoreFactoryManifest build time manifest} are listed from it instead, without loading their
+ * classes nor checking their availability.
  */
 @Accessors(fluent = true)
 public class DataStoreFactoryLoader extends Service<ObservableList<DataStoreFactory>> {
@@ -59,6 +67,18 @@ public class DataStoreFactoryLoader extends Service<ObservableList<DataStoreFact
     private @Getter final BooleanProperty includeUnavailableProperty =
             new SimpleBooleanProperty(this, "includeUnavailable", false);
 
+    /**
+     * Whether to list the factories from the {@link DataStoreFactoryManifest} if there's one on the
+     * classpath, instead of discovering them at runtime. The {@link #includeUnavailableProperty()
+     * includeUnavailable} setting doesn't apply to factories listed from the manifest, whose
+     * availability is only checked when requested.
+     */
+    private @Getter final BooleanProperty useManifestProperty =
+            new SimpleBooleanProperty(this, "useManifest", false);
+
+    /** Throughput of the running task, in factories per second */
+    private @Getter final ProgressReporter progressReporter = new ProgressReporter();
+
     protected @Override Task<ObservableList<DataStoreFactory>> createTask() {
 
         return new Task<ObservableList<DataStoreFactory>>() {
@@ -66,8 +86,24 @@ public class DataStoreFactoryLoader extends Service<ObservableList<DataStoreFact
             final boolean simple = includeSimpleFeaturesProperty.get();
             final boolean complex = includeComplexFeaturesProperty.get();
             final boolean includeUnavailable = includeUnavailableProperty.get();
+            final boolean useManifest = useManifestProperty.get();
 
             protected @Override ObservableList<DataStoreFactory> call() throws Exception {
+                progressReporter.start(-1, this::updateProgress);
+                final ObservableList<DataStoreFactory> list = FXCollections.observableArrayList();
+                updateValue(list);
+                if (useManifest) {
+                    DataStoreFactoryManifest manifest = DataStoreFactoryManifest.load();
+                    if (!manifest.isEmpty()) {
+                        List<DataStoreFactory> described =
+                                manifest.createFactories(simple, complex);
+                        Platform.runLater(() -> list.addAll(described));
+                        progressReporter.worked(described.size());
+                        progressReporter.setTotalWork(described.size());
+                        progressReporter.done();
+                        return list;
+                    }
+                }
                 Iterator<DataAccessFactory> factories;
                 if (includeUnavailable) {
                     factories = getAllDataStores();
@@ -79,16 +115,19 @@ public class DataStoreFactoryLoader extends Service<ObservableList<DataStoreFact
                                 (simple && factory instanceof DataStoreFactorySpi)
                                         || (complex && !(factory instanceof DataStoreFactorySpi));
 
-                ObservableList<DataStoreFactory> list =
-                        StreamSupport.stream(
-                                        Spliterators.spliteratorUnknownSize(
-                                                factories, Spliterator.DISTINCT),
-                                        false)
-                                .filter(filter)
-                                .map(DataStoreFactory::new)
-                                .collect(
-                                        Collectors.toCollection(
-                                                FXCollections::observableArrayList));
+                while (factories.hasNext() && !isCancelled()) {
+                    DataAccessFactory factory = factories.next();
+                    progressReporter.worked();
+                    if (filter.test(factory)) {
+                        DataStoreFactory found =
+                                includeUnavailable
+                                        ? new DataStoreFactory(factory)
+                                        : new DataStoreFactory(factory, true);
+                        Platform.runLater(() -> list.add(found));
+                    }
+                }
+                progressReporter.setTotalWork(progressReporter.getWorkDone());
+                progressReporter.done();
                 return list;
             }
         };
@@ -98,8 +137,14 @@ public class DataStoreFactoryLoader extends Service<ObservableList<DataStoreFact
         return DataAccessFinder.getAllDataStores();
     }
 
+    /** The available factories, as found by {@link DataStoreFactoryDiscovery#getDefault()} */
     protected Iterator<DataAccessFactory> getAvailableDataStores() {
-        return DataAccessFinder.getAvailableDataStores();
+        return DataStoreFactoryDiscovery.getDefault().available();
+    }
+
+    /** Discards the process wide list of available factories, so the next load probes them again */
+    public static void clearCache() {
+        DataStoreFactoryDiscovery.getDefault().clearCache();
     }
 
     /**
@@ -142,4 +187,12 @@ public class DataStoreFactoryLoader extends Service<ObservableList<DataStoreFact
     public void setIncludeUnavailable(boolean include) {
         includeUnavailableProperty.set(include);
     }
+
+    public boolean isUseManifest() {
+        return useManifestProperty.get();
+    }
+
+    public void setUseManifest(boolean useManifest) {
+        useManifestProperty.set(useManifest);
+    }
 }
@@ -0,0 +1,258 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.data.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.NonNull;
+import org.geotools.data.DataAccessFactory;
+import org.geotools.data.DataAccessFactory.Param;
+import org.geotools.data.DataAccessFinder;
+import org.geotools.data.DataStoreFactorySpi;
+import org.geotools.fx.data.model.DataStoreFactory;
+import org.geotools.fx.data.model.ParameterDescriptor;
+import org.geotools.util.Converters;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Build time description of the {@link DataAccessFactory} SPI implementations on the classpath, so
+ * that {@link DataStoreFactoryLoader} can list them without loading nor instantiating every factory
+ * class. A factory is only instantiated once it's requested, typically when picked by the user.
+ *
+ * <p>The manifest is a properties file at {@value #LOCATION} holding, for each factory, its class
+ * name, display name, description, whether it's a simple features factory, and the metadata of its
+ * connection parameters. It's written by {@link #main(String[])}, which the {@code
+ * factory-manifest} profile of the {@code gt-fx-data} module runs at build time. All the manifests
+ * on the classpath are merged, factories whose class is no longer on the classpath are skipped.
+ *
+ * <p>Availability is not known at build time, so it's only checked when the factory is requested.
+ */
+public class DataStoreFactoryManifest {
+
+    private static final Logger LOGGER = Logging.getLogger(DataStoreFactoryManifest.class);
+
+    /** Classpath location of the manifest */
+    public static final String LOCATION = "META-INF/gt-fx/datastore-factories.properties";
+
+    private final ClassLoader classLoader;
+
+    private final List<Properties> manifests;
+
+    private DataStoreFactoryManifest(ClassLoader classLoader, List<Properties> manifests) {
+        this.classLoader = classLoader;
+        this.manifests = manifests;
+    }
+
+    /** Reads the manifests visible to the class loader of this class */
+    public static DataStoreFactoryManifest load() {
+        return load(DataStoreFactoryManifest.class.getClassLoader());
+    }
+
+    /**
+     * Reads the manifests visible to {@code classLoader}, unreadable ones are logged and skipped
+     */
+    public static DataStoreFactoryManifest load(@NonNull ClassLoader classLoader) {
+        List<Properties> manifests = new ArrayList<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(LOCATION);
+            for (URL url : Collections.list(resources)) {
+                Properties manifest = new Properties();
+                try (InputStream in = url.openStream()) {
+                    manifest.load(in);
+                    manifests.add(manifest);
+                } catch (IOException e) {
+                    LOGGER.log(
+                            Level.WARNING, "Error reading data store factory manifest " + url, e);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error looking up data store factory manifests", e);
+        }
+        return new DataStoreFactoryManifest(classLoader, manifests);
+    }
+
+    /** Whether no manifest was found */
+    public boolean isEmpty() {
+        return manifests.isEmpty();
+    }
+
+    /**
+     * Creates the models of the described factories whose class is on the classpath, without
+     * loading it
+     *
+     * @param simple whether to include simple features factories
+     * @param complex whether to include complex features factories
+     */
+    public List<DataStoreFactory> createFactories(boolean simple, boolean complex) {
+        List<DataStoreFactory> factories = new ArrayList<>();
+        for (Properties manifest : manifests) {
+            int count = Integer.parseInt(manifest.getProperty("factory.count", "0"));
+            for (int i = 0; i < count; i++) {
+                String prefix = "factory." + i + ".";
+                String className = manifest.getProperty(prefix + "class");
+                boolean isSimple = Boolean.parseBoolean(manifest.getProperty(prefix + "simple"));
+                if (className == null
+                        || (isSimple ? !simple : !complex)
+                        || classLoader.getResource(className.replace('.', '/') + ".class")
+                                == null) {
+                    continue;
+                }
+                factories.add(
+                        new DataStoreFactory(
+                                manifest.getProperty(prefix + "displayName", className),
+                                manifest.getProperty(prefix + "description"),
+                                parameters(manifest, prefix),
+                                () -> instantiate(className)));
+            }
+        }
+        return factories;
+    }
+
+    private List<ParameterDescriptor> parameters(Properties manifest, String factoryPrefix) {
+        int count = Integer.parseInt(manifest.getProperty(factoryPrefix + "param.count", "0"));
+        List<ParameterDescriptor> parameters = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String prefix = factoryPrefix + "param." + i + ".";
+            Class<?> type = type(manifest.getProperty(prefix + "type"));
+            String defaultValue = manifest.getProperty(prefix + "default");
+            parameters.add(
+                    new ParameterDescriptor(
+                            manifest.getProperty(prefix + "name"),
+                            manifest.getProperty(prefix + "title"),
+                            manifest.getProperty(prefix + "description"),
+                            type,
+                            ParameterDescriptor.Level.valueOf(
+                                    manifest.getProperty(prefix + "level", "USER")),
+                            Boolean.parseBoolean(manifest.getProperty(prefix + "password")),
+                            Boolean.parseBoolean(manifest.getProperty(prefix + "required")),
+                            Boolean.parseBoolean(manifest.getProperty(prefix + "deprecated")),
+                            defaultValue == null ? null : Converters.convert(defaultValue, type)));
+        }
+        return parameters;
+    }
+
+    /** Resolves a parameter type without initializing it, {@code String} if not found */
+    private Class<?> type(String className) {
+        if (className == null) {
+            return String.class;
+        }
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOGGER.log(Level.FINE, "Parameter type not found: " + className, e);
+            return String.class;
+        }
+    }
+
+    private DataAccessFactory instantiate(String className) {
+        try {
+            return (DataAccessFactory)
+                    Class.forName(className, true, classLoader)
+                            .getDeclaredConstructor()
+                            .newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            throw new IllegalStateException("Unable to create data store factory " + className, e);
+        }
+    }
+
+    /** Writes the manifest describing {@code factories} */
+    public static void write(
+            @NonNull Iterator<DataAccessFactory> factories, @NonNull OutputStream out)
+            throws IOException {
+        Properties manifest = new Properties();
+        int count = 0;
+        while (factories.hasNext()) {
+            DataAccessFactory factory = factories.next();
+            String prefix = "factory." + count + ".";
+            try {
+                describe(factory, prefix, manifest);
+                count++;
+            } catch (RuntimeException e) {
+                // remove the partial description
+                manifest.keySet().removeIf(k -> ((String) k).startsWith(prefix));
+                LOGGER.log(Level.WARNING, "Skipping " + factory.getClass().getName(), e);
+            }
+        }
+        manifest.setProperty("factory.count", String.valueOf(count));
+        manifest.store(out, "GeoTools FX data store factory manifest");
+    }
+
+    private static void describe(DataAccessFactory factory, String prefix, Properties manifest) {
+        set(manifest, prefix + "class", factory.getClass().getName());
+        set(manifest, prefix + "displayName", factory.getDisplayName());
+        set(manifest, prefix + "description", factory.getDescription());
+        set(manifest, prefix + "simple", factory instanceof DataStoreFactorySpi);
+        Param[] params = factory.getParametersInfo();
+        set(manifest, prefix + "param.count", params.length);
+        for (int i = 0; i < params.length; i++) {
+            ParameterDescriptor descriptor = new ParameterDescriptor(params[i]);
+            String paramPrefix = prefix + "param." + i + ".";
+            set(manifest, paramPrefix + "name", descriptor.getName());
+            set(manifest, paramPrefix + "title", descriptor.getTitle());
+            set(manifest, paramPrefix + "description", descriptor.getDescription());
+            set(manifest, paramPrefix + "type", descriptor.getType().getName());
+            set(manifest, paramPrefix + "level", descriptor.getLevel().name());
+            set(manifest, paramPrefix + "password", descriptor.isPassword());
+            set(manifest, paramPrefix + "required", descriptor.isRequired());
+            set(manifest, paramPrefix + "deprecated", descriptor.isDeprecated());
+            Object defaultValue = descriptor.getDefaultValue();
+            if (defaultValue != null) {
+                set(
+                        manifest,
+                        paramPrefix + "default",
+                        Converters.convert(defaultValue, String.class));
+            }
+        }
+    }
+
+    private static void set(Properties manifest, String key, Object value) {
+        if (value != null) {
+            manifest.setProperty(key, value.toString());
+        }
+    }
+
+    /**
+     * Writes the manifest of all the data access factories on the classpath to the file given as
+     * the only argument, meant to be run at build time
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: DataStoreFactoryManifest <output file>");
+            System.exit(1);
+        }
+        Path file = Paths.get(args[0]);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(DataAccessFinder.getAllDataStores(), out);
+        }
+    }
+}
@@ -23,37 +23,75 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javafx.beans.property.ListProperty;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleListProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.concurrent.Task;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.experimental.Accessors;
 import org.geotools.data.DataAccess;
 import org.geotools.data.DataAccessFinder;
+import org.geotools.fx.concurrent.ProgressReporter;
 import org.geotools.fx.data.model.DataStore;
 import org.geotools.fx.data.model.Parameter;
 import org.geotools.util.Converters;
 import org.opengis.feature.Feature;
 import org.opengis.feature.type.FeatureType;
 
-/** */
+/**
+ * Opens the {@link DataStore} for the given connection {@link #parametersProperty() parameters}.
+ *
+ * <p>Data stores are obtained from the {@link #registryProperty() registry}, so loading again from
+ * the same source shares the already open connection. The caller owns the resulting handle and
+ * shall {@link DataStore#close() close} it once done. With no registry, a new data store is opened
+ * each time.
+ */
 @Accessors(fluent = true)
 public class DataStoreLoader extends javafx.concurrent.Service<DataStore> {
 
     private final @Getter ListProperty<Parameter> parametersProperty =
             new SimpleListProperty<>(this, "parameters");
 
+    private final @Getter ObjectProperty<DataStoreRegistry> registryProperty =
+            new SimpleObjectProperty<>(this, "registry", DataStoreRegistry.getDefault());
+
+    /** Progress of the running task, indeterminate until the data store is open */
+    private final @Getter ProgressReporter progressReporter = new ProgressReporter();
+
+    public @Nullable DataStoreRegistry getRegistry() {
+        return registryProperty.get();
+    }
+
+    public void setRegistry(@Nullable DataStoreRegistry registry) {
+        registryProperty.set(registry);
+    }
+
     @Override
     protected Task<DataStore> createTask() {
         final List<Parameter> parameters = new ArrayList<>(parametersProperty.get());
+        final DataStoreRegistry registry = getRegistry();
         return new Task<DataStore>() {
             protected @Override DataStore call() throws Exception {
-                return loadDataStore(parameters);
+                progressReporter.start(-1, this::updateProgress);
+                DataStore dataStore = loadDataStore(parameters, registry);
+                progressReporter.setTotalWork(1);
+                progressReporter.worked();
+                progressReporter.done();
+                if (isCancelled()) {
+                    // nobody will get the handle
+                    dataStore.close();
+                    return null;
+                }
+                return dataStore;
             }
         };
     }
 
-    private DataStore loadDataStore(@NonNull Iterable<Parameter> parameters) throws IOException {
+    private DataStore loadDataStore(
+            @NonNull Iterable<Parameter> parameters, @Nullable DataStoreRegistry registry)
+            throws IOException {
 
         Map<String, Serializable> params = new HashMap<>();
         for (Parameter p : parameters) {
@@ -67,7 +105,13 @@ public class DataStoreLoader extends javafx.concurrent.Service<DataStore> {
             }
             params.put(name, sval);
         }
+        if (registry != null) {
+            return registry.acquire(params);
+        }
         DataAccess<FeatureType, Feature> dataAccess = DataAccessFinder.getDataStore(params);
-        return new org.geotools.fx.data.model.DataStore(dataAccess);
+        if (dataAccess == null) {
+            throw new IOException("No data store found for the provided parameters");
+        }
+        return new DataStore(dataAccess);
     }
 }
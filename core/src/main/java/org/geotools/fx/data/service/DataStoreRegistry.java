@@ -0,0 +1,349 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.data.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.NonNull;
+import org.geotools.data.DataAccess;
+import org.geotools.data.DataAccessFinder;
+import org.geotools.fx.data.model.DataStore;
+import org.geotools.util.logging.Logging;
+import org.opengis.feature.Feature;
+import org.opengis.feature.type.FeatureType;
+
+/**
+ * Shares open GeoTools {@link DataAccess} instances among the {@link DataStore} handles asking for
+ * the same connection parameters, so that adding several layers from the same database or file
+ * doesn't connect to it again each time.
+ *
+ * <p>Data accesses are keyed by their normalized connection parameters: {@code null} values are
+ * ignored, strings trimmed, and files, paths and file URLs resolved to the same absolute URI. Each
+ * {@link #acquire acquired} handle holds a reference to the shared data access until {@link
+ * DataStore#close() closed}. Data accesses no longer referenced are disposed once they've been idle
+ * for the {@link #getIdleTimeout() idle timeout}.
+ *
+ * <p>Instances are thread safe.
+ */
+public class DataStoreRegistry {
+
+    private static final Logger LOGGER = Logging.getLogger(DataStoreRegistry.class);
+
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final DataStoreRegistry DEFAULT = new DataStoreRegistry(DEFAULT_IDLE_TIMEOUT);
+
+    /** Runs the idle evictions of all the registries */
+    private static final ScheduledExecutorService EVICTOR =
+            Executors.newSingleThreadScheduledExecutor(
+                    r -> {
+                        Thread t = new Thread(r, "datastore-registry-evictor");
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+    private final Duration idleTimeout;
+
+    /** Guarded by {@code this} */
+    private final Map<Key, Entry> entries = new HashMap<>();
+
+    public DataStoreRegistry(@NonNull Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /** The process wide registry, used by {@link DataStoreLoader} */
+    public static DataStoreRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Returns a handle on the data access for the given connection parameters, opening it if it's
+     * not already open. The caller owns the handle and shall {@link DataStore#close() close} it
+     * once done with it.
+     *
+     * @throws IOException if no data access can be opened with the given parameters
+     */
+    public DataStore acquire(@NonNull Map<String, ? extends Serializable> params)
+            throws IOException {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.computeIfAbsent(new Key(params), Entry::new);
+            entry.references++;
+        }
+        final DataAccess<FeatureType, Feature> dataAccess;
+        try {
+            dataAccess = entry.open(params);
+        } catch (IOException | RuntimeException e) {
+            release(entry);
+            throw e;
+        }
+        return new DataStore(dataAccess, () -> release(entry));
+    }
+
+    /** Number of open data accesses, whether in use or idle */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Whether a data access for the given connection parameters is open */
+    public synchronized boolean isOpen(@NonNull Map<String, ? extends Serializable> params) {
+        return entries.containsKey(new Key(params));
+    }
+
+    /** Disposes the data accesses no handle references, regardless of how long they've been idle */
+    public void disposeIdle() {
+        evict(Duration.ZERO);
+    }
+
+    /**
+     * Disposes all the data accesses, including the ones still referenced, whose handles are left
+     * unusable. Meant for application shutdown.
+     */
+    public void dispose() {
+        List<Entry> disposed;
+        synchronized (this) {
+            disposed = new ArrayList<>(entries.values());
+            entries.clear();
+        }
+        disposed.forEach(Entry::dispose);
+    }
+
+    private void release(Entry entry) {
+        synchronized (this) {
+            if (--entry.references > 0) {
+                return;
+            }
+            entry.idleSince = System.nanoTime();
+            if (entry.dataAccess == null) {
+                // failed to open, nothing to keep
+                entries.remove(entry.key, entry);
+                return;
+            }
+        }
+        EVICTOR.schedule(() -> evict(idleTimeout), idleTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void evict(Duration minIdle) {
+        final long now = System.nanoTime();
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            entries.values()
+                    .removeIf(
+                            e -> {
+                                boolean idle =
+                                        e.references == 0 && now - e.idleSince >= minIdle.toNanos();
+                                if (idle) {
+                                    evicted.add(e);
+                                }
+                                return idle;
+                            });
+        }
+        evicted.forEach(Entry::dispose);
+    }
+
+    private static class Entry {
+        final Key key;
+
+        /** Guarded by the registry */
+        int references;
+
+        /** Guarded by the registry */
+        long idleSince;
+
+        /** Written once, while holding the entry's lock */
+        volatile DataAccess<FeatureType, Feature> dataAccess;
+
+        Entry(Key key) {
+            this.key = key;
+        }
+
+        /** Opens the data access once, concurrent callers for the same key wait for it */
+        synchronized DataAccess<FeatureType, Feature> open(
+                Map<String, ? extends Serializable> params) throws IOException {
+            if (dataAccess == null) {
+                DataAccess<FeatureType, Feature> opened = DataAccessFinder.getDataStore(params);
+                if (opened == null) {
+                    throw new IOException("No data store found for the provided parameters");
+                }
+                dataAccess = opened;
+            }
+            return dataAccess;
+        }
+
+        void dispose() {
+            DataAccess<FeatureType, Feature> access = dataAccess;
+            if (access != null) {
+                try {
+                    access.dispose();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Error disposing data store", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Normalized connection parameters. Files, and the string values of the {@link #LOCATION_PARAMS
+     * location parameters}, are normalized so that different spellings of the same location share
+     * the data access, other values are compared as given. Secrets, that is {@code char[]} values
+     * and the values of {@link #SECRET_PARAMS secret parameters}, are only kept as a salted digest.
+     */
+    private static class Key {
+        /** Parameters naming a file, directory, or URL, whose surrounding whitespace is ignored */
+        static final Set<String> LOCATION_PARAMS = Set.of("url", "file", "directory", "database");
+
+        static final Set<String> SECRET_PARAMS = Set.of("passwd", "password");
+
+        /** Salt of the secret digests, so they can't be looked up in a precomputed table */
+        static final byte[] SALT = new byte[16];
+
+        static {
+            new SecureRandom().nextBytes(SALT);
+        }
+
+        final SortedMap<String, Object> params = new TreeMap<>();
+
+        Key(Map<String, ? extends Serializable> params) {
+            params.forEach(
+                    (name, value) -> {
+                        Object normalized = normalize(name, value);
+                        if (normalized != null) {
+                            this.params.put(name, normalized);
+                        }
+                    });
+        }
+
+        private static Object normalize(String name, Object value) {
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            if (value instanceof char[]) {
+                return digest(StandardCharsets.UTF_8.encode(CharBuffer.wrap((char[]) value)));
+            }
+            if (value instanceof String) {
+                if (SECRET_PARAMS.contains(lowerCaseName)) {
+                    return digest(StandardCharsets.UTF_8.encode((String) value));
+                }
+                if (LOCATION_PARAMS.contains(lowerCaseName)) {
+                    return ((String) value).trim();
+                }
+                return value;
+            }
+            if (value instanceof File) {
+                return toUri(((File) value).toPath());
+            }
+            if (value instanceof URL) {
+                URL url = (URL) value;
+                if ("file".equals(url.getProtocol())) {
+                    try {
+                        return toUri(Paths.get(url.toURI()));
+                    } catch (URISyntaxException | IllegalArgumentException e) {
+                        return url.toExternalForm();
+                    }
+                }
+                return url.toExternalForm();
+            }
+            if (value instanceof URI) {
+                URI uri = (URI) value;
+                if ("file".equals(uri.getScheme())) {
+                    try {
+                        return toUri(Paths.get(uri));
+                    } catch (IllegalArgumentException e) {
+                        return uri.toString();
+                    }
+                }
+                return uri.toString();
+            }
+            return value;
+        }
+
+        /** Digests the encoded secret, clearing it afterwards */
+        private static Digest digest(ByteBuffer secret) {
+            try {
+                MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+                sha256.update(SALT);
+                sha256.update(secret.duplicate());
+                return new Digest(sha256.digest());
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform is required to support SHA-256
+                throw new IllegalStateException(e);
+            } finally {
+                if (secret.hasArray()) {
+                    Arrays.fill(secret.array(), (byte) 0);
+                }
+            }
+        }
+
+        private static String toUri(Path path) {
+            return path.toAbsolutePath().normalize().toUri().toString();
+        }
+
+        public @Override boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).params.equals(params);
+        }
+
+        public @Override int hashCode() {
+            return params.hashCode();
+        }
+    }
+
+    /** Digest of a secret connection parameter */
+    private static final class Digest {
+        final byte[] bytes;
+
+        Digest(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        public @Override boolean equals(Object o) {
+            return o instanceof Digest && Arrays.equals(((Digest) o).bytes, bytes);
+        }
+
+        public @Override int hashCode() {
+            return Arrays.hashCode(bytes);
+        }
+    }
+}
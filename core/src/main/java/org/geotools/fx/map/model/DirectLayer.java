@@ -18,11 +18,31 @@ package org.geotools.fx.map.model;
 
 import java.util.function.BooleanSupplier;
 import javafx.scene.canvas.GraphicsContext;
+import org.geotools.fx.map.model.RenderPass.Phase;
 
 public abstract class DirectLayer extends MapLayer {
 
     public abstract void draw(GraphicsContext graphics, Viewport viewport, BooleanSupplier aborted);
 
+    /**
+     * Calls {@link #draw} recording the time it takes, and whether it was aborted or failed, in the
+     * layer's {@link #getRenderMetrics() render metrics}.
+     */
+    public final void render(GraphicsContext graphics, Viewport viewport, BooleanSupplier aborted) {
+        RenderPass pass = getRenderMetrics().begin();
+        try {
+            pass.time(Phase.DRAW, () -> draw(graphics, viewport, aborted));
+        } catch (RuntimeException | Error e) {
+            pass.fail();
+            throw e;
+        }
+        if (aborted.getAsBoolean()) {
+            pass.cancel();
+        } else {
+            pass.end();
+        }
+    }
+
     //    public abstract void draw(
     //            Graphics2D graphics, org.geotools.map.MapViewport viewport, BooleanSupplier
     // aborted);
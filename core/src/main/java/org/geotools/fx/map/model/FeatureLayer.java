@@ -16,17 +16,30 @@
  */
 package org.geotools.fx.map.model;
 
+import java.awt.geom.AffineTransform;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
+import javafx.beans.Observable;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.Property;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.experimental.Accessors;
 import org.geotools.data.FeatureSource;
+import org.geotools.fx.crs.service.ApproximateTransform;
+import org.geotools.fx.crs.service.ReprojectionService;
 import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.operation.transform.AffineTransform2D;
+import org.geotools.referencing.operation.transform.ConcatenatedTransform;
 import org.geotools.styling.Style;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
 
 @Accessors(fluent = true)
 public class FeatureLayer extends StyleLayer {
@@ -34,6 +47,17 @@ public class FeatureLayer extends StyleLayer {
     private final @Getter Property<FeatureSource<?, ?>> featureSourceProperty =
             new SimpleObjectProperty<>("this", "featureSource");
 
+    /**
+     * Maximum error, in pixels, of the {@link #renderTransform(Viewport) render transform} when the
+     * layer's data is reprojected on the fly. Zero or less to transform exactly.
+     */
+    private final @Getter DoubleProperty renderToleranceProperty =
+            new SimpleDoubleProperty(
+                    this, "renderTolerance", ApproximateTransform.DEFAULT_TOLERANCE);
+
+    /** The last approximated render transform, reused while the viewport doesn't change */
+    private volatile RenderTransform lastRenderTransform;
+
     public @Nullable FeatureSource<?, ?> getFeatureSource() {
         return featureSourceProperty.getValue();
     }
@@ -60,8 +84,117 @@ public class FeatureLayer extends StyleLayer {
         this.featureSourceProperty.setValue(featureSource);
     }
 
+    public double getRenderTolerance() {
+        return renderToleranceProperty.get();
+    }
+
+    public void setRenderTolerance(double tolerance) {
+        renderToleranceProperty.set(tolerance);
+    }
+
+    /**
+     * The transform from the CRS of the layer's data to the display coordinates of {@code
+     * viewport}, to draw the layer's geometries with.
+     *
+     * <p>If the data is in a different CRS than the viewport, reprojecting every vertex exactly is
+     * much slower than drawing in the same CRS, so the reprojection is {@link ApproximateTransform
+     * approximated} over the viewport area, within the {@link #renderToleranceProperty() render
+     * tolerance}. The approximation is kept and returned again as long as the viewport bounds, CRS,
+     * and display transform don't change.
+     *
+     * <p>Meant for renderers drawing the layer's geometries themselves, the way {@link
+     * DirectLayer}s draw on a {@code GraphicsContext}. Renderers delegating to GeoTools' {@code
+     * StreamingRenderer} don't use it, since it reprojects on its own.
+     */
+    public MathTransform renderTransform(@NonNull Viewport viewport)
+            throws FactoryException, TransformException {
+        AffineTransform awtWorldToScreen = viewport.worldToScreen();
+        if (awtWorldToScreen == null) {
+            awtWorldToScreen = new AffineTransform();
+        }
+        MathTransform worldToScreen = new AffineTransform2D(awtWorldToScreen);
+
+        FeatureSource<?, ?> fs = getFeatureSource();
+        CoordinateReferenceSystem source =
+                fs == null ? null : fs.getSchema().getCoordinateReferenceSystem();
+        CoordinateReferenceSystem target = viewport.getCoordinateReferenceSystem();
+        ReprojectionService reprojection = ReprojectionService.getDefault();
+        if (reprojection.isIdentity(source, target)) {
+            return worldToScreen;
+        }
+        MathTransform exact =
+                ConcatenatedTransform.create(
+                        reprojection.getTransform(source, target), worldToScreen);
+        final double tolerance = getRenderTolerance();
+        if (tolerance <= 0
+                || viewport.isEmpty()
+                || exact.getSourceDimensions() != 2
+                || exact.getTargetDimensions() != 2) {
+            return exact;
+        }
+        ReferencedEnvelope area = viewport.getBounds();
+        if (area.getCoordinateReferenceSystem() == null) {
+            area = new ReferencedEnvelope(area, target);
+        }
+        RenderTransform last = lastRenderTransform;
+        if (last != null && last.matches(source, area, awtWorldToScreen, tolerance)) {
+            return last.transform;
+        }
+        MathTransform approximate =
+                ApproximateTransform.create(exact, reprojection.transform(area, source), tolerance);
+        lastRenderTransform =
+                new RenderTransform(source, area, awtWorldToScreen, tolerance, approximate);
+        return approximate;
+    }
+
+    /** An approximated render transform and the viewport state it was computed for */
+    private static final class RenderTransform {
+        final CoordinateReferenceSystem source;
+
+        final ReferencedEnvelope area;
+
+        final AffineTransform worldToScreen;
+
+        final double tolerance;
+
+        final MathTransform transform;
+
+        RenderTransform(
+                CoordinateReferenceSystem source,
+                ReferencedEnvelope area,
+                AffineTransform worldToScreen,
+                double tolerance,
+                MathTransform transform) {
+            this.source = source;
+            this.area = new ReferencedEnvelope(area);
+            this.worldToScreen = new AffineTransform(worldToScreen);
+            this.tolerance = tolerance;
+            this.transform = transform;
+        }
+
+        boolean matches(
+                CoordinateReferenceSystem source,
+                ReferencedEnvelope area,
+                AffineTransform worldToScreen,
+                double tolerance) {
+            return this.source == source
+                    && this.area.getCoordinateReferenceSystem()
+                            == area.getCoordinateReferenceSystem()
+                    && this.area.equals(area)
+                    && this.worldToScreen.equals(worldToScreen)
+                    && this.tolerance == tolerance;
+        }
+    }
+
     public @Override ReferencedEnvelope getBounds() throws IOException {
         FeatureSource<?, ?> source = featureSourceProperty.getValue();
         return source == null ? null : source.getBounds();
     }
+
+    @Override
+    List<Observable> contentObservables() {
+        List<Observable> observables = super.contentObservables();
+        observables.add(featureSourceProperty);
+        return observables;
+    }
 }
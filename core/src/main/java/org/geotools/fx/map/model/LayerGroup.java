@@ -19,7 +19,10 @@ package org.geotools.fx.map.model;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -33,11 +36,18 @@ import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.experimental.Accessors;
+import org.geotools.fx.crs.service.ReprojectionService;
 import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.util.logging.Logging;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.TransformException;
 
 @Accessors(fluent = true)
 public class LayerGroup extends MapLayer {
 
+    private static final Logger LOGGER = Logging.getLogger(LayerGroup.class);
+
     private final @Getter ListProperty<MapLayer> layersProperty =
             new SimpleListProperty<>(this, "layers", FXCollections.observableArrayList());
 
@@ -80,23 +90,40 @@ public class LayerGroup extends MapLayer {
                         .map((l) -> l.bounds().orElse(null)) //
                         .filter((b) -> b != null) //
                         .collect(Collectors.toList());
-        // TODO: reproject
         if (allBounds.isEmpty()) {
             return null;
         }
-        ReferencedEnvelope env = allBounds.get(0);
+        // copy, the child layer bounds are not to be modified
+        ReferencedEnvelope env = new ReferencedEnvelope(allBounds.get(0));
         for (int i = 1; i < allBounds.size(); i++) {
             ReferencedEnvelope b = allBounds.get(i);
             if (env.isEmpty() || env.isNull()) {
-                env = b;
-            } else {
-                env.expandToInclude(b.getMinX(), b.getMinY());
-                env.expandToInclude(b.getMaxX(), b.getMaxY());
+                env = new ReferencedEnvelope(b);
+                continue;
+            }
+            CoordinateReferenceSystem crs = env.getCoordinateReferenceSystem();
+            if (crs != null && !b.isEmpty()) {
+                try {
+                    b = ReprojectionService.getDefault().transform(b, crs);
+                } catch (FactoryException | TransformException e) {
+                    LOGGER.log(Level.FINE, "Unable to transform bounds of group " + this, e);
+                    continue;
+                }
             }
+            env.expandToInclude(b.getMinX(), b.getMinY());
+            env.expandToInclude(b.getMaxX(), b.getMaxY());
         }
         return env;
     }
 
+    /** Child layers are not included, callers shall traverse {@link #getLayers()} as needed */
+    @Override
+    List<Observable> contentObservables() {
+        List<Observable> observables = super.contentObservables();
+        observables.add(layersProperty);
+        return observables;
+    }
+
     private void layersChanged(ListChangeListener.Change<? extends MapLayer> change) {
         while (change.next()) {
             if (change.wasAdded()) {
@@ -0,0 +1,68 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.map.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/** JFR event committed at the end of each {@link RenderPass} */
+@Name("org.geotools.fx.LayerRender")
+@Label("Layer Render")
+@Category({"GeoTools FX", "Rendering"})
+@Description("A render pass of a single map layer")
+class LayerRenderEvent extends Event {
+
+    @Label("Layer")
+    String layer;
+
+    @Label("Features Read")
+    long featuresRead;
+
+    @Label("Features Drawn")
+    long featuresDrawn;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("I/O Time")
+    @Timespan
+    long ioTime;
+
+    @Label("Style Time")
+    @Timespan
+    long styleTime;
+
+    @Label("Transform Time")
+    @Timespan
+    long transformTime;
+
+    @Label("Draw Time")
+    @Timespan
+    long drawTime;
+
+    @Label("Cancelled")
+    boolean cancelled;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -17,7 +17,10 @@
 package org.geotools.fx.map.model;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -49,6 +52,8 @@ public abstract class MapLayer {
      */
     private final @Getter DoubleProperty opacityProperty;
 
+    private final RenderMetrics renderMetrics = new RenderMetrics(this);
+
     public MapLayer() {
         titleProperty = new SimpleStringProperty(this, "title");
         visibleProperty = new SimpleBooleanProperty(this, "visible", true);
@@ -93,6 +98,11 @@ public abstract class MapLayer {
         selectedProperty.set(selected);
     }
 
+    /** Rendering statistics of this layer, as reported by the renderers drawing it */
+    public RenderMetrics getRenderMetrics() {
+        return renderMetrics;
+    }
+
     public double getOpacity() {
         return opacityProperty.get();
     }
@@ -129,6 +139,18 @@ public abstract class MapLayer {
 
     public abstract ReferencedEnvelope getBounds() throws IOException;
 
+    /**
+     * The observables whose changes affect what this layer looks like once rendered, used by
+     * components caching rendered surfaces (e.g. {@link OverviewMap}) to know when to discard them.
+     * Subclasses shall add their own content defining properties to the list.
+     */
+    List<Observable> contentObservables() {
+        List<Observable> observables = new ArrayList<>();
+        observables.add(visibleProperty);
+        observables.add(opacityProperty);
+        return observables;
+    }
+
     public @Override String toString() {
         return String.format("%s(%s)", getClass().getSimpleName(), getTitle());
     }
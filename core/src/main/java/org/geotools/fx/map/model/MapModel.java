@@ -17,9 +17,13 @@
 package org.geotools.fx.map.model;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javafx.application.Platform;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
@@ -31,8 +35,8 @@ import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.experimental.Accessors;
+import org.geotools.fx.crs.service.ReprojectionService;
 import org.geotools.geometry.jts.ReferencedEnvelope;
-import org.geotools.referencing.CRS;
 import org.geotools.referencing.crs.DefaultEngineeringCRS;
 import org.geotools.util.logging.Logging;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -81,6 +85,56 @@ public class MapModel {
         return viewportProperty.get();
     }
 
+    /**
+     * Switches the map to {@code crs} without blocking the JavaFX application thread, from which it
+     * must be called.
+     *
+     * <p>The transforms from the layers' CRSs to {@code crs} are resolved in the background first,
+     * so the first render in the new CRS doesn't pay for them, then the switch is delegated to
+     * {@link Viewport#switchCoordinateReferenceSystem}. The map keeps showing the current frame
+     * until the viewport is switched.
+     *
+     * @return a future completed on the JavaFX application thread with the new viewport bounds
+     */
+    public CompletableFuture<ReferencedEnvelope> switchCoordinateReferenceSystem(
+            @NonNull CoordinateReferenceSystem crs) {
+        final List<MapLayer> layers = leafLayers();
+        return CompletableFuture.runAsync(() -> layers.forEach(l -> prepareTransform(l, crs)))
+                .thenComposeAsync(
+                        v -> getViewport().switchCoordinateReferenceSystem(crs),
+                        Platform::runLater);
+    }
+
+    /** The base layer and the map layers, with {@link LayerGroup}s replaced by their children */
+    public List<MapLayer> leafLayers() {
+        final List<MapLayer> layers = new ArrayList<>();
+        baseLayer().ifPresent(l -> collect(l, layers));
+        getLayers().forEach(l -> collect(l, layers));
+        return layers;
+    }
+
+    private void collect(MapLayer layer, List<MapLayer> target) {
+        if (layer instanceof LayerGroup) {
+            ((LayerGroup) layer).getLayers().forEach(l -> collect(l, target));
+        } else if (layer != null) {
+            target.add(layer);
+        }
+    }
+
+    private void prepareTransform(MapLayer layer, CoordinateReferenceSystem crs) {
+        try {
+            CoordinateReferenceSystem layerCrs =
+                    layer.bounds()
+                            .map(ReferencedEnvelope::getCoordinateReferenceSystem)
+                            .orElse(null);
+            if (layerCrs != null) {
+                ReprojectionService.getDefault().getTransform(layerCrs, crs);
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Unable to prepare transform for " + layer, e);
+        }
+    }
+
     private ReferencedEnvelope forcedMaxBounds;
 
     public void setMaxBounds(@Nullable ReferencedEnvelope maxBounds) {
@@ -120,18 +174,15 @@ public class MapModel {
                     continue;
                 }
                 ReferencedEnvelope normalized;
-                if (CRS.equalsIgnoreMetadata(mapCrs, layerBounds.getCoordinateReferenceSystem())) {
-                    normalized = layerBounds;
-                } else {
-                    try {
-                        normalized = layerBounds.transform(mapCrs, true);
-                    } catch (Exception e) {
-                        LOGGER.log(Level.FINE, "Unable to transform: {0}", e);
-                        continue;
-                    }
+                try {
+                    normalized = ReprojectionService.getDefault().transform(layerBounds, mapCrs);
+                } catch (Exception e) {
+                    LOGGER.log(Level.FINE, "Unable to transform: {0}", e);
+                    continue;
                 }
                 if (maxBounds == null) {
-                    maxBounds = normalized;
+                    // may be the layer's own bounds, don't expand them
+                    maxBounds = new ReferencedEnvelope(normalized);
                 } else {
                     maxBounds.expandToInclude(normalized);
                 }
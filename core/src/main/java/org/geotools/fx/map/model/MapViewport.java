@@ -315,7 +315,7 @@ public class MapViewport {
         return worldToScreen;
     }
 
-    private AffineTransform computeScreenToWorld(AffineTransform worldToScreen) {
+    static AffineTransform computeScreenToWorld(AffineTransform worldToScreen) {
         Objects.requireNonNull(worldToScreen);
         AffineTransform screenToWorld;
         try {
@@ -368,7 +368,7 @@ public class MapViewport {
     }
 
     /** Calculates the world bounds of the current screen area. */
-    private Bounds calculateActualBounds(final Bounds displayArea, final Bounds mapArea) {
+    static Bounds calculateActualBounds(final Bounds displayArea, final Bounds mapArea) {
         AffineTransform wts = computeWorldToScreen(displayArea, mapArea, true);
         final AffineTransform screenToWorld = computeScreenToWorld(wts);
 
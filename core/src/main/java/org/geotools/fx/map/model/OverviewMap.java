@@ -0,0 +1,310 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.map.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.geometry.Bounds;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import org.geotools.fx.cache.CacheManager;
+import org.geotools.fx.cache.ManagedCache;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.util.logging.Logging;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+/**
+ * Low resolution overview of the {@link MapModel#getMaxBounds() full extent} of a {@link MapModel}.
+ *
+ * <p>The full extent is rendered once into the {@link #imageProperty() image} property, sized after
+ * the overview's own {@link #getDisplay() display}, and rendered again only when the content of the
+ * map layers changes (layers added or removed, visibility, opacity, style, or data source changes).
+ * Panning or zooming the main map's {@link MapModel#getViewport() viewport} only updates the {@link
+ * #extentProperty() extent} rectangle, expressed in overview display coordinates, so following the
+ * main map costs a coordinate transform instead of a second full render.
+ *
+ * <p>The rendered overview is kept for the coordinate reference systems the main map was shown in,
+ * so switching back to one of them restores it instead of rendering it again. Content changes
+ * discard all of them. They're kept in a {@link ManagedCache} accounted against the {@link
+ * CacheManager#getDefault() default cache manager}'s budget, call {@link #dispose()} to release it
+ * once the overview is no longer used.
+ *
+ * <p>Only {@link DirectLayer}s are drawn, since they're the layers that know how to draw themselves
+ * on a {@link GraphicsContext}. They're drawn through {@link DirectLayer#render}, so the overview
+ * renders show up in the layers' {@link MapLayer#getRenderMetrics() render metrics}.
+ *
+ * <p>This class is not thread safe, it's meant to be used from the JavaFX application thread.
+ */
+@Accessors(fluent = true)
+public class OverviewMap {
+
+    private static final Logger LOGGER = Logging.getLogger(OverviewMap.class);
+
+    private final @Getter MapModel mapModel;
+
+    /** The overview's own viewport, always fit to the map's full extent */
+    private final @Getter Viewport viewport = new Viewport();
+
+    private final @Getter ReadOnlyObjectProperty<Image> imageProperty =
+            new SimpleObjectProperty<>(this, "image");
+
+    /** The main map's viewport bounds, in overview display coordinates */
+    private final @Getter ReadOnlyObjectProperty<Bounds> extentProperty =
+            new SimpleObjectProperty<>(this, "extent");
+
+    /** Whether {@link #imageProperty() image} reflects the current content of the map */
+    private final @Getter ReadOnlyBooleanProperty validProperty =
+            new SimpleBooleanProperty(this, "valid", false);
+
+    /**
+     * Reads back the invalidated value, since properties whose value is never read (e.g. the style
+     * or feature source, that the overview doesn't use directly) would otherwise not notify again
+     */
+    private final InvalidationListener contentListener =
+            o -> {
+                if (o instanceof ObservableValue) {
+                    ((ObservableValue<?>) o).getValue();
+                }
+                contentChanged();
+            };
+
+    private final InvalidationListener rewatchListener = o -> rewatch();
+
+    private final List<Runnable> unwatch = new ArrayList<>();
+
+    private boolean renderScheduled;
+
+    private boolean disposed;
+
+    /** Rendered overviews of the recently used CRSs other than the current one */
+    private final ManagedCache<CoordinateReferenceSystem, Snapshot> snapshots =
+            CacheManager.getDefault().register("overview-snapshots", Snapshot::size);
+
+    private static class Snapshot {
+        final Image image;
+        final ReferencedEnvelope fitBounds;
+
+        Snapshot(Image image, ReferencedEnvelope fitBounds) {
+            this.image = image;
+            this.fitBounds = fitBounds;
+        }
+
+        /** Approximate heap size, 4 bytes per pixel */
+        long size() {
+            return 4L * (long) image.getWidth() * (long) image.getHeight() + 256;
+        }
+    }
+
+    public OverviewMap(@NonNull MapModel mapModel) {
+        this.mapModel = mapModel;
+        Display display = getDisplay();
+        display.setWidth(200);
+        display.setHeight(200);
+
+        final Viewport mainViewport = mapModel.getViewport();
+        viewport.setCoordinateReferenceSystem(mainViewport.getCoordinateReferenceSystem());
+        mainViewport
+                .coordinateReferenceSystemProperty()
+                .addListener((p, o, n) -> coordinateReferenceSystemChanged(o, n));
+        mainViewport.boundsProperty().addListener((p, o, n) -> updateExtent());
+        viewport.boundsProperty()
+                .addListener(
+                        (p, o, n) -> {
+                            updateExtent();
+                            scheduleRender();
+                        });
+        display.areaProperty().addListener(contentListener);
+
+        mapModel.layersProperty().addListener(rewatchListener);
+        mapModel.baseLayerProperty().addListener((p, o, n) -> rewatch());
+        rewatch();
+    }
+
+    /** The overview's display, set its width and height to control the overview resolution */
+    public @NonNull Display getDisplay() {
+        return viewport.getDisplay();
+    }
+
+    public @Nullable Image getImage() {
+        return imageProperty.get();
+    }
+
+    public @Nullable Bounds getExtent() {
+        return extentProperty.get();
+    }
+
+    public boolean isValid() {
+        return validProperty.get();
+    }
+
+    /**
+     * Releases the overviews kept for other coordinate reference systems than the current one, and
+     * stops keeping them
+     */
+    public void dispose() {
+        disposed = true;
+        snapshots.dispose();
+    }
+
+    /**
+     * Discards the rendered overview and schedules a new rendering of the map's full extent. Called
+     * automatically when the map content changes.
+     */
+    public void invalidate() {
+        setValid(false);
+        ReferencedEnvelope maxBounds = mapModel.getMaxBounds();
+        if (maxBounds != null && !maxBounds.isEmpty()) {
+            // fires an asynchronous bounds update on the viewport, which in turn schedules a
+            // render after the new bounds are set
+            viewport.setFitBounds(maxBounds);
+        }
+        scheduleRender();
+    }
+
+    private void contentChanged() {
+        snapshots.clear();
+        invalidate();
+    }
+
+    /** Keeps the overview of the old CRS and restores the one of the new CRS, if available */
+    private void coordinateReferenceSystemChanged(
+            @Nullable CoordinateReferenceSystem oldCrs,
+            @Nullable CoordinateReferenceSystem newCrs) {
+        final ReferencedEnvelope fitBounds = viewport.getFitBounds();
+        if (!disposed && oldCrs != null && isValid() && getImage() != null && fitBounds != null) {
+            snapshots.put(oldCrs, new Snapshot(getImage(), fitBounds));
+        }
+        viewport.setCoordinateReferenceSystem(newCrs);
+        Snapshot snapshot = newCrs == null ? null : snapshots.remove(newCrs);
+        if (snapshot == null) {
+            invalidate();
+            return;
+        }
+        viewport.setFitBounds(snapshot.fitBounds);
+        ((ObjectProperty<Image>) imageProperty).set(snapshot.image);
+        setValid(true);
+    }
+
+    private void scheduleRender() {
+        if (isValid() || renderScheduled) {
+            return;
+        }
+        renderScheduled = true;
+        Platform.runLater(
+                () -> {
+                    renderScheduled = false;
+                    if (!isValid()) {
+                        render();
+                    }
+                });
+    }
+
+    private void render() {
+        Image image = null;
+        Bounds area = getDisplay().getArea();
+        if (!viewport.isEmpty()) {
+            Canvas canvas = new Canvas(area.getWidth(), area.getHeight());
+            GraphicsContext graphics = canvas.getGraphicsContext2D();
+            mapModel.baseLayer().ifPresent(l -> draw(l, graphics));
+            mapModel.getLayers().forEach(l -> draw(l, graphics));
+            image = canvas.snapshot(null, null);
+        }
+        ((ObjectProperty<Image>) imageProperty).set(image);
+        setValid(true);
+    }
+
+    private void draw(MapLayer layer, GraphicsContext graphics) {
+        if (layer == null || !layer.isVisisble()) {
+            return;
+        }
+        if (layer instanceof LayerGroup) {
+            ((LayerGroup) layer).getLayers().forEach(l -> draw(l, graphics));
+        } else if (layer instanceof DirectLayer) {
+            graphics.save();
+            try {
+                graphics.setGlobalAlpha(layer.getOpacity());
+                ((DirectLayer) layer).render(graphics, viewport, () -> false);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error drawing overview of " + layer, e);
+            } finally {
+                graphics.restore();
+            }
+        }
+    }
+
+    private void updateExtent() {
+        Bounds extent = null;
+        ReferencedEnvelope mainBounds = mapModel.getViewport().getBounds();
+        if (!viewport.isEmpty() && !mainBounds.isEmpty()) {
+            try {
+                extent = viewport.toDisplay(mainBounds);
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.FINE, "Unable to compute overview extent", e);
+            }
+        }
+        ((ObjectProperty<Bounds>) extentProperty).set(extent);
+    }
+
+    private void setValid(boolean valid) {
+        ((SimpleBooleanProperty) validProperty).set(valid);
+    }
+
+    /** Listens to content changes of all the map layers, recursing into layer groups */
+    private void rewatch() {
+        unwatch.forEach(Runnable::run);
+        unwatch.clear();
+        mapModel.baseLayer().ifPresent(this::watch);
+        mapModel.getLayers().forEach(this::watch);
+        contentChanged();
+    }
+
+    private void watch(MapLayer layer) {
+        if (layer == null) {
+            return;
+        }
+        for (Observable o : layer.contentObservables()) {
+            addListener(o, contentListener);
+        }
+        if (layer instanceof LayerGroup) {
+            LayerGroup group = (LayerGroup) layer;
+            // structural changes need to register the listeners on the new children
+            addListener(group.layersProperty(), rewatchListener);
+            group.getLayers().forEach(this::watch);
+        }
+    }
+
+    private void addListener(Observable observable, InvalidationListener listener) {
+        observable.addListener(listener);
+        unwatch.add(() -> observable.removeListener(listener));
+    }
+}
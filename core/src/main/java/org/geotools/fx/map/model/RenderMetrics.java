@@ -0,0 +1,188 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.map.model;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.SimpleLongProperty;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+import org.geotools.fx.map.model.RenderPass.Phase;
+
+/**
+ * Observable rendering statistics of a {@link MapLayer}.
+ *
+ * <p>Renderers report the work done on each render pass through a {@link RenderPass} obtained from
+ * {@link #begin()}, from whatever thread they render on. When the pass {@link RenderPass#end()
+ * ends}, the totals of the pass are published to the properties of this object on the JavaFX
+ * application thread, or the calling one if the toolkit is not running, and a {@code
+ * org.geotools.fx.LayerRender} JFR event is committed, so slow layers can be diagnosed both from
+ * the UI and from a flight recording.
+ *
+ * <p>All times are expressed in nanoseconds.
+ */
+@Accessors(fluent = true)
+public class RenderMetrics {
+
+    private final MapLayer layer;
+
+    /** Features read from the data source during the last completed render pass */
+    private final @Getter ReadOnlyLongProperty featuresReadProperty;
+
+    /** Features actually drawn during the last completed render pass */
+    private final @Getter ReadOnlyLongProperty featuresDrawnProperty;
+
+    /** Bytes read from the data source during the last completed render pass, if known */
+    private final @Getter ReadOnlyLongProperty bytesReadProperty;
+
+    private final @Getter ReadOnlyLongProperty ioTimeProperty;
+
+    private final @Getter ReadOnlyLongProperty styleTimeProperty;
+
+    private final @Getter ReadOnlyLongProperty transformTimeProperty;
+
+    private final @Getter ReadOnlyLongProperty drawTimeProperty;
+
+    /** Wall clock time of the last completed render pass */
+    private final @Getter ReadOnlyLongProperty renderTimeProperty;
+
+    /** Number of render passes completed since the layer was created */
+    private final @Getter ReadOnlyLongProperty renderCountProperty;
+
+    /** Number of render passes cancelled since the layer was created */
+    private final @Getter ReadOnlyLongProperty cancellationsProperty;
+
+    /** Number of render passes that failed since the layer was created */
+    private final @Getter ReadOnlyLongProperty failuresProperty;
+
+    RenderMetrics(@NonNull MapLayer layer) {
+        this.layer = layer;
+        featuresReadProperty = new SimpleLongProperty(this, "featuresRead");
+        featuresDrawnProperty = new SimpleLongProperty(this, "featuresDrawn");
+        bytesReadProperty = new SimpleLongProperty(this, "bytesRead");
+        ioTimeProperty = new SimpleLongProperty(this, "ioTime");
+        styleTimeProperty = new SimpleLongProperty(this, "styleTime");
+        transformTimeProperty = new SimpleLongProperty(this, "transformTime");
+        drawTimeProperty = new SimpleLongProperty(this, "drawTime");
+        renderTimeProperty = new SimpleLongProperty(this, "renderTime");
+        renderCountProperty = new SimpleLongProperty(this, "renderCount");
+        cancellationsProperty = new SimpleLongProperty(this, "cancellations");
+        failuresProperty = new SimpleLongProperty(this, "failures");
+    }
+
+    /** Starts recording a new render pass for the layer */
+    public RenderPass begin() {
+        return new RenderPass(this);
+    }
+
+    public long getFeaturesRead() {
+        return featuresReadProperty.get();
+    }
+
+    public long getFeaturesDrawn() {
+        return featuresDrawnProperty.get();
+    }
+
+    public long getBytesRead() {
+        return bytesReadProperty.get();
+    }
+
+    public long getIoTime() {
+        return ioTimeProperty.get();
+    }
+
+    public long getStyleTime() {
+        return styleTimeProperty.get();
+    }
+
+    public long getTransformTime() {
+        return transformTimeProperty.get();
+    }
+
+    public long getDrawTime() {
+        return drawTimeProperty.get();
+    }
+
+    public long getRenderTime() {
+        return renderTimeProperty.get();
+    }
+
+    public long getRenderCount() {
+        return renderCountProperty.get();
+    }
+
+    public long getCancellations() {
+        return cancellationsProperty.get();
+    }
+
+    public long getFailures() {
+        return failuresProperty.get();
+    }
+
+    /** Called by {@link RenderPass#end()} from the rendering thread */
+    void publish(@NonNull RenderPass pass, long renderTime) {
+        LayerRenderEvent event = pass.event();
+        if (event.shouldCommit()) {
+            event.layer = layer.toString();
+            event.featuresRead = pass.getFeaturesRead();
+            event.featuresDrawn = pass.getFeaturesDrawn();
+            event.bytesRead = pass.getBytesRead();
+            event.ioTime = pass.getTime(Phase.IO);
+            event.styleTime = pass.getTime(Phase.STYLE);
+            event.transformTime = pass.getTime(Phase.TRANSFORM);
+            event.drawTime = pass.getTime(Phase.DRAW);
+            event.cancelled = pass.isCancelled();
+            event.failed = pass.isFailed();
+            event.commit();
+        }
+        if (Platform.isFxApplicationThread()) {
+            update(pass, renderTime);
+        } else {
+            try {
+                Platform.runLater(() -> update(pass, renderTime));
+            } catch (IllegalStateException toolkitNotRunning) {
+                // headless, there's no application thread to publish to
+                update(pass, renderTime);
+            }
+        }
+    }
+
+    private void update(RenderPass pass, long renderTime) {
+        if (pass.isFailed()) {
+            set(failuresProperty, getFailures() + 1);
+            return;
+        }
+        if (pass.isCancelled()) {
+            set(cancellationsProperty, getCancellations() + 1);
+            return;
+        }
+        set(featuresReadProperty, pass.getFeaturesRead());
+        set(featuresDrawnProperty, pass.getFeaturesDrawn());
+        set(bytesReadProperty, pass.getBytesRead());
+        set(ioTimeProperty, pass.getTime(Phase.IO));
+        set(styleTimeProperty, pass.getTime(Phase.STYLE));
+        set(transformTimeProperty, pass.getTime(Phase.TRANSFORM));
+        set(drawTimeProperty, pass.getTime(Phase.DRAW));
+        set(renderTimeProperty, renderTime);
+        set(renderCountProperty, getRenderCount() + 1);
+    }
+
+    private void set(ReadOnlyLongProperty property, long value) {
+        ((SimpleLongProperty) property).set(value);
+    }
+}
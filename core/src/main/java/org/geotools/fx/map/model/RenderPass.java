@@ -0,0 +1,174 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.map.model;
+
+import java.util.EnumMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.NonNull;
+
+/**
+ * Accumulates the work done by a single render pass of a {@link MapLayer}, obtained through {@link
+ * RenderMetrics#begin()}.
+ *
+ * <p>Counters are thread safe, so renderers that split a pass across threads can report to the same
+ * instance. Once the pass is over, call either {@link #end()}, {@link #cancel()}, or {@link
+ * #fail()} exactly once to publish it.
+ */
+public class RenderPass {
+
+    /** The stages a render pass spends time on */
+    public static enum Phase {
+        /** Reading from the data source */
+        IO,
+        /** Evaluating style rules and symbolizers */
+        STYLE,
+        /** Transforming geometries, including reprojection and world to screen */
+        TRANSFORM,
+        /** Drawing on the target surface */
+        DRAW
+    }
+
+    private final RenderMetrics metrics;
+
+    private final LayerRenderEvent event = new LayerRenderEvent();
+
+    private final long start;
+
+    private final LongAdder featuresRead = new LongAdder();
+
+    private final LongAdder featuresDrawn = new LongAdder();
+
+    private final LongAdder bytesRead = new LongAdder();
+
+    private final EnumMap<Phase, LongAdder> times = new EnumMap<>(Phase.class);
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    private final AtomicBoolean ended = new AtomicBoolean();
+
+    RenderPass(@NonNull RenderMetrics metrics) {
+        this.metrics = metrics;
+        for (Phase phase : Phase.values()) {
+            times.put(phase, new LongAdder());
+        }
+        event.begin();
+        this.start = System.nanoTime();
+    }
+
+    public void featureRead() {
+        featuresRead.increment();
+    }
+
+    public void featuresRead(long count) {
+        featuresRead.add(count);
+    }
+
+    public void featureDrawn() {
+        featuresDrawn.increment();
+    }
+
+    public void featuresDrawn(long count) {
+        featuresDrawn.add(count);
+    }
+
+    public void bytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    /** Adds {@code nanos} nanoseconds to the time spent on {@code phase} */
+    public void addTime(@NonNull Phase phase, long nanos) {
+        times.get(phase).add(nanos);
+    }
+
+    /** Runs {@code task} adding the time it takes to the time spent on {@code phase} */
+    public void time(@NonNull Phase phase, @NonNull Runnable task) {
+        final long t = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            addTime(phase, System.nanoTime() - t);
+        }
+    }
+
+    /**
+     * Computes {@code task} adding the time it takes to the time spent on {@code phase}
+     *
+     * @return the result of {@code task}
+     */
+    public <T> T time(@NonNull Phase phase, @NonNull Supplier<T> task) {
+        final long t = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            addTime(phase, System.nanoTime() - t);
+        }
+    }
+
+    public long getFeaturesRead() {
+        return featuresRead.sum();
+    }
+
+    public long getFeaturesDrawn() {
+        return featuresDrawn.sum();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long getTime(@NonNull Phase phase) {
+        return times.get(phase).sum();
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    public boolean isFailed() {
+        return failed.get();
+    }
+
+    /** Ends the pass and publishes its figures to the layer's {@link RenderMetrics} */
+    public void end() {
+        if (ended.compareAndSet(false, true)) {
+            event.end();
+            metrics.publish(this, System.nanoTime() - start);
+        }
+    }
+
+    /** Ends the pass as cancelled, only the layer's cancellation count is updated */
+    public void cancel() {
+        cancelled.set(true);
+        end();
+    }
+
+    /**
+     * Ends the pass as failed, e.g. the renderer threw, only the layer's failure count is updated
+     */
+    public void fail() {
+        failed.set(true);
+        end();
+    }
+
+    LayerRenderEvent event() {
+        return event;
+    }
+}
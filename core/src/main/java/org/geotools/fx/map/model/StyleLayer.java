@@ -16,7 +16,9 @@
  */
 package org.geotools.fx.map.model;
 
+import java.util.List;
 import java.util.Optional;
+import javafx.beans.Observable;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javax.annotation.Nullable;
@@ -49,4 +51,11 @@ public abstract class StyleLayer extends MapLayer {
     protected StyleLayer(@NonNull Style style) {
         setStyle(style);
     }
+
+    @Override
+    List<Observable> contentObservables() {
+        List<Observable> observables = super.contentObservables();
+        observables.add(styleProperty);
+        return observables;
+    }
 }
@@ -17,6 +17,11 @@
 package org.geotools.fx.map.model;
 
 import java.awt.geom.AffineTransform;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.BooleanExpression;
@@ -24,6 +29,7 @@ import javafx.beans.binding.DoubleBinding;
 import javafx.beans.binding.DoubleExpression;
 import javafx.beans.binding.ObjectExpression;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
@@ -34,10 +40,11 @@ import javafx.geometry.Point2D;
 import javafx.scene.transform.Affine;
 import javax.annotation.Nullable;
 import lombok.NonNull;
+import org.geotools.fx.crs.service.ReprojectionService;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.map.MapBoundsEvent;
-import org.geotools.referencing.CRS;
 import org.geotools.renderer.lite.RendererUtilities;
+import org.geotools.util.logging.Logging;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.TransformException;
@@ -53,6 +60,11 @@ import org.opengis.referencing.operation.TransformException;
  */
 public class Viewport {
 
+    private static final Logger LOGGER = Logging.getLogger(Viewport.class);
+
+    /** Maximum number of coordinate reference systems whose last bounds are remembered */
+    static final int MAX_REMEMBERED_CRS = 8;
+
     private final ReadOnlyObjectProperty<Affine> worldToScreen =
             new SimpleObjectProperty<>(this, "World to scren transform");
 
@@ -92,6 +104,29 @@ public class Viewport {
                 }
             };
 
+    private final ReadOnlyBooleanProperty switching = new SimpleBooleanProperty(this, "Switching");
+
+    /** Last bounds shown for each recently used CRS, in access order */
+    private final Map<CoordinateReferenceSystem, ReferencedEnvelope> rememberedBounds =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                protected @Override boolean removeEldestEntry(
+                        Map.Entry<CoordinateReferenceSystem, ReferencedEnvelope> eldest) {
+                    return size() > MAX_REMEMBERED_CRS;
+                }
+            };
+
+    /** The bounds set by the last CRS switch, to tell whether the user navigated since */
+    private ReferencedEnvelope switchedBounds;
+
+    /** Incremented on each switch so only the latest one is applied */
+    private int switchGeneration;
+
+    /**
+     * Whether a switch is setting the CRS property, whose change is not propagated to the delegate
+     * since the switch already set the bounds in the new CRS
+     */
+    private boolean applyingSwitch;
+
     private final org.geotools.map.MapViewport delegate;
 
     public Viewport() {
@@ -100,7 +135,11 @@ public class Viewport {
         delegate.setMatchingAspectRatio(true);
 
         coordinateReferenceSystem.addListener(
-                (p, o, n) -> delegate.setCoordinateReferenceSystem(n));
+                (p, o, n) -> {
+                    if (!applyingSwitch) {
+                        delegate.setCoordinateReferenceSystem(n);
+                    }
+                });
 
         final Display display = getDisplay();
         display.areaProperty()
@@ -171,6 +210,12 @@ public class Viewport {
         return toFXAffine(delegate.getWorldToScreen());
     }
 
+    /** The current world to screen transform, {@code null} if not set, not a copy */
+    @Nullable
+    AffineTransform worldToScreen() {
+        return delegate.getWorldToScreen();
+    }
+
     private Affine toFXAffine(@Nullable AffineTransform awttx) {
         if (awttx == null) {
             return new Affine();
@@ -208,10 +253,9 @@ public class Viewport {
 
     public javafx.geometry.Bounds toDisplay(@NonNull ReferencedEnvelope bounds) {
         CoordinateReferenceSystem crs = getCoordinateReferenceSystem();
-        if (null != bounds.getCoordinateReferenceSystem()
-                && !CRS.equalsIgnoreMetadata(crs, bounds.getCoordinateReferenceSystem())) {
+        if (null != crs && null != bounds.getCoordinateReferenceSystem()) {
             try {
-                bounds = bounds.transform(crs, true);
+                bounds = ReprojectionService.getDefault().transform(bounds, crs);
             } catch (TransformException | FactoryException e) {
                 throw new IllegalArgumentException(e);
             }
@@ -263,7 +307,7 @@ public class Viewport {
         return (int) Math.round(ordinate);
     }
 
-    private double calculateScale() {
+    double calculateScale() {
         if (isEmpty()) {
             return -1;
         }
@@ -329,6 +373,95 @@ public class Viewport {
         coordinateReferenceSystemProperty().set(crs);
     }
 
+    /**
+     * Switches the viewport to {@code crs} without blocking the calling thread, which must be the
+     * JavaFX application thread.
+     *
+     * <p>The new bounds are computed in the background while the viewport keeps showing the current
+     * ones, and both the CRS and the bounds are set at once when ready. If the viewport was showing
+     * {@code crs} recently and hasn't been navigated since switching away from it, the bounds it
+     * had are restored instead, so going back and forth between two CRSs is immediate and lossless.
+     * If another switch is requested before this one completes, only the latter is applied.
+     *
+     * @return a future completed on the JavaFX application thread with the new bounds once applied
+     */
+    public CompletableFuture<ReferencedEnvelope> switchCoordinateReferenceSystem(
+            @NonNull CoordinateReferenceSystem crs) {
+        final CoordinateReferenceSystem current = getCoordinateReferenceSystem();
+        final ReferencedEnvelope currentBounds = delegate.getBounds();
+        if (current == null || crs == current || currentBounds.isEmpty()) {
+            setCoordinateReferenceSystem(crs);
+            return CompletableFuture.completedFuture(getBounds());
+        }
+        final int generation = ++switchGeneration;
+        final boolean navigated = !currentBounds.equals(switchedBounds);
+        final ReferencedEnvelope remembered = navigated ? null : rememberedBounds.get(crs);
+        rememberedBounds.put(current, currentBounds);
+        setSwitching(true);
+
+        final CompletableFuture<ReferencedEnvelope> target;
+        if (remembered == null) {
+            target = CompletableFuture.supplyAsync(() -> reproject(currentBounds, crs));
+        } else {
+            target = CompletableFuture.completedFuture(remembered);
+        }
+        return target.handleAsync(
+                (newBounds, error) -> {
+                    if (generation != switchGeneration) {
+                        return getBounds();
+                    }
+                    setSwitching(false);
+                    if (error != null) {
+                        LOGGER.log(Level.FINE, "Error reprojecting viewport bounds", error);
+                        setCoordinateReferenceSystem(crs);
+                    } else {
+                        applySwitch(newBounds, crs);
+                    }
+                    switchedBounds = delegate.getBounds();
+                    return switchedBounds;
+                },
+                Platform::runLater);
+    }
+
+    /**
+     * Sets the bounds and CRS of the delegate at once, without reprojecting the current bounds nor
+     * notifying an intermediate state, then updates the CRS property to match
+     */
+    private void applySwitch(ReferencedEnvelope newBounds, CoordinateReferenceSystem crs) {
+        if (newBounds.getCoordinateReferenceSystem() != crs) {
+            // e.g. equal CRSs, for which the reprojection returns the bounds as they are
+            newBounds = new ReferencedEnvelope(newBounds, crs);
+        }
+        delegate.setBounds(newBounds);
+        applyingSwitch = true;
+        try {
+            setCoordinateReferenceSystem(crs);
+        } finally {
+            applyingSwitch = false;
+        }
+    }
+
+    private ReferencedEnvelope reproject(ReferencedEnvelope bounds, CoordinateReferenceSystem crs) {
+        try {
+            return ReprojectionService.getDefault().transform(bounds, crs);
+        } catch (TransformException | FactoryException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Whether a {@link #switchCoordinateReferenceSystem CRS switch} is in progress */
+    public ReadOnlyBooleanProperty switchingProperty() {
+        return switching;
+    }
+
+    public boolean isSwitching() {
+        return switching.get();
+    }
+
+    private void setSwitching(boolean value) {
+        ((SimpleBooleanProperty) switching).set(value);
+    }
+
     public ReadOnlyObjectProperty<ReferencedEnvelope> boundsProperty() {
         return bounds;
     }
@@ -0,0 +1,119 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.cache;
+
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.ONE_SECOND;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.application.Platform;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CacheManagerTest {
+
+    private CacheManager manager;
+
+    private ManagedCache<String, byte[]> images;
+
+    private ManagedCache<String, byte[]> symbols;
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+
+        }
+    }
+
+    public @Before void before() {
+        manager = new CacheManager(100);
+        images = manager.register("images", v -> v.length);
+        symbols = manager.register("symbols", v -> v.length);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedAcrossCaches() {
+        images.put("a", new byte[40]);
+        symbols.put("b", new byte[40]);
+        images.get("a");
+        symbols.put("c", new byte[40]);
+
+        assertTrue(images.contains("a"));
+        assertFalse(symbols.contains("b"));
+        assertTrue(symbols.contains("c"));
+    }
+
+    @Test
+    public void testEvictsCheapestPerByteFirst() {
+        symbols.put("expensive", new byte[10], 1_000_000);
+        images.put("cheap", new byte[50], 1_000);
+        images.put("other", new byte[50], 1_000_000);
+
+        assertTrue(symbols.contains("expensive"));
+        assertFalse(images.contains("cheap"));
+        assertTrue(images.contains("other"));
+    }
+
+    @Test
+    public void testEntryLargerThanBudgetIsNotCached() {
+        images.put("a", new byte[10]);
+        images.put("huge", new byte[101]);
+
+        assertFalse(images.contains("huge"));
+        assertTrue(images.contains("a"));
+    }
+
+    @Test
+    public void testLoweringBudgetEvicts() {
+        List<byte[]> removed = new ArrayList<>();
+        images.setRemovalListener(removed::add);
+        byte[] a = new byte[30];
+        images.put("a", a);
+        images.put("b", new byte[30]);
+
+        Platform.runLater(() -> manager.setBudget(50));
+        await().atMost(ONE_SECOND).until(() -> manager.getUsedBytes() == 30);
+
+        assertNull(images.get("a"));
+        assertEquals(1, removed.size());
+        assertTrue(removed.get(0) == a);
+    }
+
+    @Test
+    public void testObservableStatistics() {
+        images.put("a", new byte[10]);
+        symbols.put("b", new byte[20]);
+        images.get("a");
+        images.get("missing");
+        symbols.get("b");
+        symbols.get("b");
+
+        await().atMost(ONE_SECOND).until(() -> manager.getEntryCount() == 2);
+        await().atMost(ONE_SECOND).until(() -> manager.getHitRate() == 0.75);
+        assertEquals(30, manager.getUsedBytes());
+        assertEquals(10, images.getUsedBytes());
+        assertEquals(0.5, images.getHitRate(), 0d);
+        assertEquals(1.0, symbols.getHitRate(), 0d);
+    }
+}
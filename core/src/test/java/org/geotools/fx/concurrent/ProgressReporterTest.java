@@ -0,0 +1,90 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.concurrent;
+
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.ONE_SECOND;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.application.Platform;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ProgressReporterTest {
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+
+        }
+    }
+
+    @Test
+    public void testCoalescesUpdates() {
+        AtomicLong clock = new AtomicLong();
+        ProgressReporter reporter = new ProgressReporter(10, clock::get);
+        AtomicInteger updates = new AtomicInteger();
+        AtomicLong lastDone = new AtomicLong(-2);
+        reporter.start(
+                1_000,
+                (done, total) -> {
+                    updates.incrementAndGet();
+                    lastDone.set(done);
+                    assertEquals(1_000, total);
+                });
+        assertEquals(1, updates.get());
+
+        for (int i = 0; i < 999; i++) {
+            clock.addAndGet(TimeUnit.MICROSECONDS.toNanos(50));
+            reporter.worked();
+        }
+        // 999 * 50us is within the 100ms period
+        assertEquals(1, updates.get());
+        assertEquals(0, lastDone.get());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        reporter.worked();
+        assertEquals(2, updates.get());
+        assertEquals(1_000, lastDone.get());
+        int before = updates.get();
+        reporter.done();
+        assertEquals(before + 1, updates.get());
+
+        await().atMost(ONE_SECOND).until(() -> Duration.ZERO.equals(reporter.getEta()));
+        assertTrue(reporter.getThroughput() > 0);
+    }
+
+    @Test
+    public void testUnknownTotalWork() {
+        ProgressReporter reporter = new ProgressReporter();
+        AtomicLong lastDone = new AtomicLong();
+        reporter.start(-1, (done, total) -> lastDone.set(done));
+        assertEquals(-1, lastDone.get());
+        reporter.worked(5);
+        reporter.done();
+        assertEquals(5, lastDone.get());
+        assertEquals(5, reporter.getWorkDone());
+        assertNull(reporter.getEta());
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.model;
+
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.FIVE_SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javafx.application.Platform;
+import javafx.beans.binding.StringExpression;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+public class CRSInfoTest {
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+
+        }
+    }
+
+    @Test
+    public void testLazyDecodesOnDemand() {
+        CRSInfo info = CRSInfo.lazy("EPSG:4326", "WGS 84", false);
+        assertFalse(info.isDecoded());
+        assertEquals("EPSG:4326", info.getAuthorityCode());
+        assertEquals("WGS 84", info.getDescription());
+        assertFalse(info.isDecoded());
+
+        assertNotNull(info.getCrs());
+        assertTrue(info.isDecoded());
+        assertNull(info.getUnsupportedReason());
+        assertEquals(CoordinateSystemType.GEOGRAPHIC, info.getCoordinateSystemType());
+    }
+
+    @Test
+    public void testDecodeAsync() throws Exception {
+        CRSInfo info = CRSInfo.lazy("EPSG:4326", "WGS 84", false);
+        ReadOnlyBooleanProperty decoded = fx(info::decodedProperty);
+        assertFalse(decoded.get());
+
+        CoordinateReferenceSystem crs = info.decodeAsync().get(5, TimeUnit.SECONDS);
+        assertNotNull(crs);
+        assertTrue(info.isDecoded());
+        // published on the application thread
+        await().atMost(FIVE_SECONDS).until(() -> fx(decoded::get));
+        assertSame(crs, info.decodeAsync().get());
+    }
+
+    @Test
+    public void testFailedDecodeReportsUnsupportedReason() throws Exception {
+        CRSInfo info = CRSInfo.lazy("EPSG:999999", "missing", false);
+        StringExpression reason = fx(info::unsupportedReasonProperty);
+        assertNull(reason.get());
+
+        assertNull(info.decodeAsync().get(5, TimeUnit.SECONDS));
+        assertTrue(info.isDecoded());
+        assertNotNull(info.getUnsupportedReason());
+        await().atMost(FIVE_SECONDS).until(() -> fx(reason::get) != null);
+        assertEquals(info.getUnsupportedReason(), fx(reason::get));
+        assertEquals(CoordinateSystemType.UNKNOWN, info.getCoordinateSystemType());
+    }
+
+    private static <T> T fx(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> result.complete(task.get()));
+        try {
+            return result.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void testCachedMetadataWithoutDecoding() {
+        CRSInfo info =
+                CRSInfo.cached(
+                        "EPSG:32633",
+                        "WGS 84 / UTM zone 33N",
+                        CoordinateSystemType.PROJECTED,
+                        2,
+                        new String("Transverse_Mercator"),
+                        "World - N hemisphere - 12E to 18E",
+                        null,
+                        false);
+        assertFalse(info.isDecoded());
+        assertEquals(CoordinateSystemType.PROJECTED, info.getCoordinateSystemType());
+        assertEquals(2, info.getDimension());
+        // shared among all the entries with the same projection
+        assertSame("Transverse_Mercator", info.getProjectionName());
+        assertFalse(info.isDecoded());
+    }
+
+    @Test
+    public void testDerivedPropertiesDontDecode() throws Exception {
+        CRSInfo info = CRSInfo.lazy("EPSG:4326", "WGS 84", false);
+        ReadOnlyIntegerProperty dimension = fx(info::dimensionProperty);
+        ReadOnlyObjectProperty<CoordinateSystemType> type = fx(info::coordinateSystemTypeProperty);
+        assertFalse(info.isDecoded());
+        assertEquals(0, dimension.get());
+        assertNull(type.get());
+
+        info.decodeAsync().get(5, TimeUnit.SECONDS);
+        await().atMost(FIVE_SECONDS).until(() -> fx(dimension::get) == 2);
+        assertEquals(CoordinateSystemType.GEOGRAPHIC, fx(type::get));
+    }
+
+    @Test
+    public void testDerivedPropertiesFromCachedMetadata() {
+        CRSInfo info =
+                CRSInfo.cached(
+                        "EPSG:32633",
+                        "WGS 84 / UTM zone 33N",
+                        CoordinateSystemType.PROJECTED,
+                        2,
+                        "Transverse_Mercator",
+                        null,
+                        null,
+                        false);
+        assertEquals(2, (int) fx(() -> info.dimensionProperty().get()));
+        assertEquals(
+                CoordinateSystemType.PROJECTED,
+                fx(() -> info.coordinateSystemTypeProperty().get()));
+        assertFalse(info.isDecoded());
+    }
+
+    @Test
+    public void testDecodedPropertyPerInstance() {
+        CRSInfo info = CRSInfo.unsupported("EPSG:1", "test", "unsupported");
+        CRSInfo other = CRSInfo.unsupported("EPSG:2", "test", "unsupported");
+        assertTrue(info.decodedProperty().get());
+        assertSame(info, info.decodedProperty().getBean());
+        assertNotSame(info.decodedProperty(), other.decodedProperty());
+    }
+
+    @Test
+    public void testPropertiesCreatedOnce() {
+        CRSInfo info = CRSInfo.unsupported("EPSG:1", "test", "unsupported");
+        assertTrue(info.isDecoded());
+        assertSame(info.authorityCodeProperty(), info.authorityCodeProperty());
+        assertSame(info.descriptionProperty(), info.descriptionProperty());
+        assertSame(info.unsupportedReasonProperty(), info.unsupportedReasonProperty());
+        assertEquals("EPSG:1", info.authorityCodeProperty().get());
+        assertEquals("unsupported", info.unsupportedReasonProperty().get());
+        assertEquals(CoordinateSystemType.UNKNOWN, info.getCoordinateSystemType());
+        assertTrue(info.decodedProperty().get());
+    }
+
+    @Test
+    public void testDescriptionsFormattedOnce() {
+        CRSInfo info = new CRSInfo("EPSG:4326", DefaultGeographicCRS.WGS84);
+        String wkt = info.getWellKnownText();
+        assertNotNull(wkt);
+        assertSame(wkt, info.getWellKnownText());
+
+        // shared by all the entries with the same coordinate system
+        CRSInfo other = new CRSInfo("CRS:84", DefaultGeographicCRS.WGS84);
+        assertNotNull(info.getAxesDescription());
+        assertSame(info.getAxesDescription(), other.getAxesDescription());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoordinateSystemIndexTest {
+
+    private CoordinateSystemIndex index;
+
+    private static CRSInfo crs(String code, String name, String projection, String domain) {
+        return CRSInfo.cached(
+                code,
+                name,
+                projection == null
+                        ? CoordinateSystemType.GEOGRAPHIC
+                        : CoordinateSystemType.PROJECTED,
+                2,
+                projection,
+                domain,
+                null,
+                false);
+    }
+
+    public @Before void before() {
+        index = new CoordinateSystemIndex();
+        index.add(crs("EPSG:4326", "WGS 84", null, "World."));
+        index.add(crs("EPSG:3857", "WGS 84 / Pseudo-Mercator", "Popular Visualisation", "World"));
+        index.add(crs("EPSG:32633", "WGS 84 / UTM zone 33N", "Transverse_Mercator", "Europe"));
+        index.add(crs("EPSG:25833", "ETRS89 / UTM zone 33N", "Transverse_Mercator", "Europe"));
+        index.add(CRSInfo.unsupported("EPSG:4979", "WGS 84 3D", "unsupported"));
+    }
+
+    private List<String> search(String query) {
+        return index.search(query, 10).stream()
+                .map(CRSInfo::getAuthorityCode)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testCode() {
+        assertEquals(Arrays.asList("EPSG:4326"), search("4326"));
+        assertEquals(Arrays.asList("EPSG:4326"), search("epsg:4326"));
+    }
+
+    @Test
+    public void testPrefixNarrowsAsYouType() {
+        assertEquals(4, search("w").size());
+        assertEquals(Arrays.asList("EPSG:25833", "EPSG:32633"), search("utm 33"));
+        assertEquals(Arrays.asList("EPSG:32633"), search("wgs utm"));
+        assertEquals(Arrays.asList(), search("wgs utm 34"));
+    }
+
+    @Test
+    public void testRanking() {
+        // exact name match ranks above projection prefix matches
+        List<String> mercator = search("mercator");
+        assertEquals("EPSG:3857", mercator.get(0));
+        assertTrue(mercator.containsAll(Arrays.asList("EPSG:32633", "EPSG:25833")));
+        // code matches rank above name matches
+        assertEquals("EPSG:4326", search("4").get(0));
+    }
+
+    @Test
+    public void testRemove() {
+        CRSInfo etrs = index.search("etrs89", 1).get(0);
+        index.remove(etrs);
+        assertEquals(Arrays.asList("EPSG:32633"), search("utm 33"));
+        assertEquals(Arrays.asList(), search("etrs89"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testRemovedLazyEntryNotReindexedOnDecode() {
+        CRSInfo lazy = CRSInfo.lazy("EPSG:27700", "OSGB36 / British National Grid", false);
+        index.add(lazy);
+        assertEquals(Arrays.asList("EPSG:27700"), search("osgb36"));
+        index.remove(lazy);
+
+        lazy.getCrs();
+        assertEquals(Arrays.asList(), search("osgb36"));
+        assertEquals(5, index.size());
+    }
+}
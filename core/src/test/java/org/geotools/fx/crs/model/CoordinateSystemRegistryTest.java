@@ -0,0 +1,235 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CoordinateSystemRegistryTest {
+
+    private CoordinateSystemRegistry registry;
+
+    private List<ListChangeListener.Change<? extends CRSInfo>> changes;
+
+    private static CRSInfo crs(String code) {
+        return CRSInfo.unsupported(code, code, "test");
+    }
+
+    private List<String> codes() {
+        return registry.all().stream().map(CRSInfo::getAuthorityCode).collect(Collectors.toList());
+    }
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+
+        }
+    }
+
+    public @Before void before() {
+        registry = new CoordinateSystemRegistry();
+        changes = new ArrayList<>();
+        registry.all().addListener((ListChangeListener<CRSInfo>) changes::add);
+    }
+
+    @Test
+    public void testAddAllSingleChangeInCodeOrder() {
+        List<CRSInfo> crss =
+                IntStream.of(5, 3, 9, 1, 7)
+                        .mapToObj(i -> crs("EPSG:" + i))
+                        .collect(Collectors.toList());
+        registry.addAll(crss);
+
+        assertEquals(1, changes.size());
+        assertEquals(Arrays.asList("EPSG:1", "EPSG:3", "EPSG:5", "EPSG:7", "EPSG:9"), codes());
+    }
+
+    @Test
+    public void testAddKeepsCodeOrder() {
+        registry.add(crs("EPSG:2"));
+        registry.add(crs("EPSG:1"));
+        registry.add(crs("EPSG:3"));
+        assertEquals(Arrays.asList("EPSG:1", "EPSG:2", "EPSG:3"), codes());
+
+        CRSInfo replacement = crs("EPSG:2");
+        assertFalse(registry.add(replacement));
+        assertEquals(3, registry.size());
+        assertSame(replacement, registry.all().get(1));
+    }
+
+    @Test
+    public void testSmallBatchIsPreciseSingleChange() {
+        registry.addAll(
+                IntStream.range(10, 90)
+                        .mapToObj(i -> crs("EPSG:" + i))
+                        .collect(Collectors.toList()));
+        changes.clear();
+
+        registry.addAll(Arrays.asList(crs("EPSG:500"), crs("EPSG:15")));
+        assertEquals(1, changes.size());
+        ListChangeListener.Change<? extends CRSInfo> change = changes.get(0);
+        int removed = 0, added = 0;
+        while (change.next()) {
+            removed += change.getRemovedSize();
+            added += change.getAddedSize();
+        }
+        // EPSG:15 replaced, EPSG:500 added
+        assertEquals(1, removed);
+        assertEquals(2, added);
+        assertEquals(81, registry.size());
+    }
+
+    @Test
+    public void testRemoveAll() {
+        registry.addAll(Arrays.asList(crs("EPSG:1"), crs("EPSG:2"), crs("EPSG:3")));
+        changes.clear();
+
+        registry.removeAll(Arrays.asList("EPSG:1", "EPSG:3", "EPSG:4"));
+        assertEquals(1, changes.size());
+        assertEquals(Arrays.asList("EPSG:2"), codes());
+        assertTrue(registry.containsAuthorityCode("EPSG:2"));
+        assertFalse(registry.containsAuthorityCode("EPSG:1"));
+    }
+
+    private static CRSInfo crs(String code, CoordinateSystemType type) {
+        return CRSInfo.cached(code, code, type, 2, null, null, null, false);
+    }
+
+    @Test
+    public void testSupportedAndUnsupportedViews() {
+        CRSInfo geographic = crs("EPSG:4326", CoordinateSystemType.GEOGRAPHIC);
+        CRSInfo projected = crs("EPSG:3857", CoordinateSystemType.PROJECTED);
+        CRSInfo vertical = crs("EPSG:5714", CoordinateSystemType.VERTICAL);
+        CRSInfo failed = crs("EPSG:1");
+        registry.addAll(Arrays.asList(geographic, vertical));
+
+        Set<CRSInfo> supported = registry.supported();
+        Set<CRSInfo> unsupported = registry.unsupported();
+        assertEquals(Collections.singleton(geographic), supported);
+        assertEquals(Collections.singleton(vertical), unsupported);
+
+        registry.addAll(Arrays.asList(projected, failed));
+        assertEquals(new HashSet<>(Arrays.asList(geographic, projected)), supported);
+        assertEquals(new HashSet<>(Arrays.asList(vertical, failed)), unsupported);
+        assertEquals(
+                Collections.singleton(projected), registry.ofType(CoordinateSystemType.PROJECTED));
+
+        registry.remove("EPSG:4326");
+        assertEquals(Collections.singleton(projected), supported);
+        assertSame(CoordinateSystemType.PROJECTED, registry.typeOf(projected));
+        assertNull(registry.typeOf(geographic));
+    }
+
+    @Test
+    public void testUndecodedEntriesClassified() throws Exception {
+        CRSInfo cached = crs("EPSG:4326", CoordinateSystemType.GEOGRAPHIC);
+        CRSInfo lazy = CRSInfo.lazy("EPSG:3857", "WGS 84 / Pseudo-Mercator", false);
+        CRSInfo missing = CRSInfo.lazy("EPSG:999999", "missing", false);
+        CRSInfo vertical = crs("EPSG:5714", CoordinateSystemType.VERTICAL);
+        Set<CRSInfo> supported = registry.supported();
+        Set<CRSInfo> unsupported = registry.unsupported();
+        registry.addAll(Arrays.asList(cached, lazy, missing, vertical));
+
+        // lazy entries are presumed supported until decoded
+        assertEquals(new HashSet<>(Arrays.asList(cached, lazy, missing)), supported);
+        assertEquals(Collections.singleton(vertical), unsupported);
+        assertSame(CoordinateSystemType.GEOGRAPHIC, registry.typeOf(cached));
+        assertNull(registry.typeOf(lazy));
+        assertFalse(cached.isDecoded());
+
+        decode(lazy);
+        decode(missing);
+        assertSame(CoordinateSystemType.PROJECTED, registry.typeOf(lazy));
+        assertSame(CoordinateSystemType.UNKNOWN, registry.typeOf(missing));
+        assertEquals(new HashSet<>(Arrays.asList(cached, lazy)), supported);
+        assertEquals(new HashSet<>(Arrays.asList(vertical, missing)), unsupported);
+        assertEquals(Collections.singleton(lazy), registry.ofType(CoordinateSystemType.PROJECTED));
+    }
+
+    @Test
+    public void testRemovedUndecodedEntryNotClassified() throws Exception {
+        CRSInfo lazy = CRSInfo.lazy("EPSG:999999", "missing", false);
+        Set<CRSInfo> supported = registry.supported();
+        Set<CRSInfo> unsupported = registry.unsupported();
+        registry.add(lazy);
+        assertEquals(Collections.singleton(lazy), supported);
+        registry.remove(lazy);
+
+        decode(lazy);
+        assertNull(registry.typeOf(lazy));
+        assertEquals(Collections.emptySet(), supported);
+        assertEquals(Collections.emptySet(), unsupported);
+    }
+
+    @Test
+    public void testAddAllReplacingWithinBatch() {
+        CRSInfo first = crs("EPSG:4326", CoordinateSystemType.GEOGRAPHIC);
+        CRSInfo second = crs("EPSG:4326", CoordinateSystemType.PROJECTED);
+        Set<CRSInfo> supported = registry.supported();
+        registry.addAll(Arrays.asList(first, second));
+
+        assertEquals(Collections.singleton(second), supported);
+        assertEquals(Collections.singletonList(second), registry.all());
+        assertNull(registry.typeOf(first));
+    }
+
+    /** Decodes {@code crs} and waits for the decoding to be published */
+    private static void decode(CRSInfo crs) throws Exception {
+        crs.decodeAsync().get(5, TimeUnit.SECONDS);
+        // published on the application thread, after which this runs
+        CompletableFuture<Void> published = new CompletableFuture<>();
+        Platform.runLater(() -> published.complete(null));
+        published.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testFilteredView() {
+        registry.add(crs("EPSG:4326", CoordinateSystemType.GEOGRAPHIC));
+        Set<CRSInfo> epsg4 = registry.filtered(c -> c.getAuthorityCode().startsWith("EPSG:4"));
+        assertEquals(1, epsg4.size());
+
+        registry.addAll(
+                Arrays.asList(
+                        crs("EPSG:4258", CoordinateSystemType.GEOGRAPHIC),
+                        crs("EPSG:3857", CoordinateSystemType.PROJECTED)));
+        assertEquals(2, epsg4.size());
+
+        registry.removeAll(Arrays.asList("EPSG:4326", "EPSG:4258"));
+        assertTrue(epsg4.isEmpty());
+    }
+}
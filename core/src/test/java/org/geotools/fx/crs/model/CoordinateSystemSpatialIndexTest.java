@@ -0,0 +1,115 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.model;
+
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.ONE_SECOND;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import javafx.application.Platform;
+import org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CoordinateSystemSpatialIndexTest {
+
+    private CoordinateSystemRegistry registry;
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+
+        }
+    }
+
+    private static CRSInfo crs(
+            String code, CoordinateSystemType type, double w, double e, double s, double n) {
+        ReferencedEnvelope aov = new ReferencedEnvelope(w, e, s, n, DefaultGeographicCRS.WGS84);
+        return CRSInfo.cached(code, code, type, 2, null, null, aov, false);
+    }
+
+    public @Before void before() {
+        registry = new CoordinateSystemRegistry();
+        registry.add(crs("EPSG:4326", CoordinateSystemType.GEOGRAPHIC, -180, 180, -90, 90));
+        registry.add(crs("EPSG:3857", CoordinateSystemType.PROJECTED, -180, 180, -85, 85));
+        registry.add(crs("EPSG:32633", CoordinateSystemType.PROJECTED, 12, 18, 0, 84));
+        registry.add(crs("EPSG:25833", CoordinateSystemType.PROJECTED, 12, 18, 34, 84));
+        // crosses the antimeridian
+        registry.add(crs("EPSG:3832", CoordinateSystemType.PROJECTED, 110, 290, -60, 60));
+    }
+
+    private List<String> query(double lon, double lat) {
+        return registry.spatialIndex().query(lon, lat, EnumSet.of(CoordinateSystemType.PROJECTED))
+                .stream()
+                .map(CRSInfo::getAuthorityCode)
+                .collect(Collectors.toList());
+    }
+
+    private void awaitReady() {
+        CoordinateSystemSpatialIndex index = registry.spatialIndex();
+        await().atMost(ONE_SECOND).until(index::isReady);
+    }
+
+    @Test
+    public void testQueryPoint() {
+        awaitReady();
+        assertEquals(Arrays.asList("EPSG:25833", "EPSG:32633", "EPSG:3857"), query(15, 45));
+        assertEquals(Arrays.asList("EPSG:32633", "EPSG:3857"), query(15, 10));
+        assertEquals(Arrays.asList(), query(15, 89));
+    }
+
+    @Test
+    public void testAntimeridian() {
+        awaitReady();
+        assertEquals(Arrays.asList("EPSG:3832", "EPSG:3857"), query(179, 0));
+        assertEquals(Arrays.asList("EPSG:3832", "EPSG:3857"), query(-100, 0));
+        assertEquals(Arrays.asList("EPSG:3857"), query(-50, 0));
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        awaitReady();
+        registry.remove("EPSG:32633");
+        registry.add(crs("EPSG:31467", CoordinateSystemType.PROJECTED, 7, 11, 47, 56));
+        assertEquals(Arrays.asList("EPSG:31467", "EPSG:3857"), query(9, 50));
+        assertEquals(Arrays.asList("EPSG:25833", "EPSG:3857"), query(15, 45));
+
+        registry.spatialIndex().rebuild();
+        await().atMost(ONE_SECOND).until(() -> query(9, 50).size() == 2);
+        assertEquals(Arrays.asList("EPSG:31467", "EPSG:3857"), query(9, 50));
+        assertEquals(Arrays.asList("EPSG:25833", "EPSG:3857"), query(15, 45));
+    }
+
+    @Test
+    public void testLazyEntryIndexedOnceDecoded() {
+        awaitReady();
+        CRSInfo lazy = CRSInfo.lazy("EPSG:27700", "OSGB36 / British National Grid", false);
+        registry.add(lazy);
+        assertEquals(Arrays.asList("EPSG:3857"), query(-1, 52));
+
+        lazy.getCrs();
+        await().atMost(ONE_SECOND).until(() -> query(-1, 52).contains("EPSG:27700"));
+    }
+}
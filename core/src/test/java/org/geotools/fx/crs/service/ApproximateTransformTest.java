@@ -0,0 +1,93 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.geotools.referencing.operation.transform.AbstractMathTransform;
+import org.geotools.referencing.operation.transform.IdentityTransform;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.opengis.referencing.operation.MathTransform;
+
+public class ApproximateTransformTest {
+
+    /** Spherical mercator from degrees to "pixels" at 1000 pixels per radian */
+    private static class Mercator extends AbstractMathTransform {
+        public @Override int getSourceDimensions() {
+            return 2;
+        }
+
+        public @Override int getTargetDimensions() {
+            return 2;
+        }
+
+        public @Override void transform(
+                double[] src, int srcOff, double[] dst, int dstOff, int numPts) {
+            for (int i = 0; i < numPts; i++) {
+                double lon = Math.toRadians(src[srcOff + 2 * i]);
+                double lat = Math.toRadians(src[srcOff + 2 * i + 1]);
+                dst[dstOff + 2 * i] = 1000 * lon;
+                dst[dstOff + 2 * i + 1] = 1000 * Math.log(Math.tan(Math.PI / 4 + lat / 2));
+            }
+        }
+    }
+
+    @Test
+    public void testWithinTolerance() throws Exception {
+        Mercator exact = new Mercator();
+        Envelope area = new Envelope(-30, 30, -70, 70);
+        ApproximateTransform approximate = new ApproximateTransform(exact, area, 0.125);
+        assertTrue(approximate.getCellCount() > 1);
+
+        Random random = new Random(1);
+        double[] points = new double[2000];
+        for (int i = 0; i < points.length; i += 2) {
+            points[i] = -30 + 60 * random.nextDouble();
+            points[i + 1] = -70 + 140 * random.nextDouble();
+        }
+        double[] expected = new double[points.length];
+        double[] actual = new double[points.length];
+        exact.transform(points, 0, expected, 0, points.length / 2);
+        approximate.transform(points, 0, actual, 0, points.length / 2);
+        for (int i = 0; i < points.length; i++) {
+            assertEquals(expected[i], actual[i], 0.125);
+        }
+    }
+
+    @Test
+    public void testOutsideAreaIsExact() throws Exception {
+        Mercator exact = new Mercator();
+        ApproximateTransform approximate =
+                new ApproximateTransform(exact, new Envelope(0, 10, 0, 10), 1);
+        double[] point = {45, 80};
+        double[] expected = new double[2];
+        exact.transform(point, 0, expected, 0, 1);
+        approximate.transform(point, 0, point, 0, 1);
+        assertEquals(expected[0], point[0], 0);
+        assertEquals(expected[1], point[1], 0);
+    }
+
+    @Test
+    public void testIdentityNotApproximated() throws Exception {
+        MathTransform identity = IdentityTransform.create(2);
+        assertSame(identity, ApproximateTransform.create(identity, new Envelope(0, 1, 0, 1), 1));
+    }
+}
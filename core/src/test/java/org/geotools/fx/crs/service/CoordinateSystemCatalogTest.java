@@ -0,0 +1,134 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.geotools.fx.crs.model.CRSInfo;
+import org.geotools.fx.crs.model.CRSInfo.CoordinateSystemType;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CoordinateSystemCatalogTest {
+
+    public @Rule TemporaryFolder tmp = new TemporaryFolder();
+
+    private String version = "10.0";
+
+    private CoordinateSystemCatalog newCatalog() {
+        return new CoordinateSystemCatalog(tmp.getRoot().toPath()) {
+            protected @Override String databaseVersion() {
+                return version;
+            }
+        };
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        ReferencedEnvelope aov =
+                new ReferencedEnvelope(-180, 180, -80, 84, DefaultGeographicCRS.WGS84);
+        CRSInfo projected =
+                CRSInfo.cached(
+                        "EPSG:3395",
+                        "WGS 84 / World Mercator",
+                        CoordinateSystemType.PROJECTED,
+                        2,
+                        "Mercator_1SP",
+                        "World - between 80S and 84N.",
+                        aov,
+                        false);
+        CRSInfo unsupported = CRSInfo.unsupported("EPSG:5800", "Astra Minas Grid", "no datum");
+
+        CoordinateSystemCatalog catalog = newCatalog();
+        catalog.write(Arrays.asList(projected, unsupported), false);
+        assertFalse(catalog.read(true).isPresent());
+
+        List<CRSInfo> read = catalog.read(false).get();
+        assertEquals(2, read.size());
+        CRSInfo p = read.get(0);
+        assertEquals("EPSG:3395", p.getAuthorityCode());
+        assertEquals("WGS 84 / World Mercator", p.getDescription());
+        assertEquals(CoordinateSystemType.PROJECTED, p.getCoordinateSystemType());
+        assertEquals(2, p.getDimension());
+        assertEquals("Mercator_1SP", p.getProjectionName());
+        assertEquals("World - between 80S and 84N.", p.getDomainOfValidity());
+        assertEquals(aov, p.getGeographicAreaOfValidity());
+        assertNull(p.getUnsupportedReason());
+
+        CRSInfo u = read.get(1);
+        assertEquals("EPSG:5800", u.getAuthorityCode());
+        assertEquals("Astra Minas Grid", u.getDescription());
+        assertEquals("no datum", u.getUnsupportedReason());
+    }
+
+    @Test
+    public void testCorruptCatalogIgnored() throws Exception {
+        CoordinateSystemCatalog catalog = newCatalog();
+        catalog.write(
+                Arrays.asList(
+                        CRSInfo.unsupported("EPSG:1", "first", "reason"),
+                        CRSInfo.unsupported("EPSG:2", "second", "reason")),
+                false);
+        final Path file = catalog.file(false);
+        final byte[] valid = Files.readAllBytes(file);
+        // header: magic, format version, database version string
+        final int countOffset = 4 + 4 + 4 + version.length();
+
+        // entry count way larger than the file
+        assertIgnored(catalog, file, withInt(valid, countOffset, Integer.MAX_VALUE));
+        assertIgnored(catalog, file, withInt(valid, countOffset, -1));
+        // length of the first authority code past the end of the file
+        assertIgnored(catalog, file, withInt(valid, countOffset + 4, valid.length));
+        // truncated
+        assertIgnored(catalog, file, Arrays.copyOf(valid, valid.length - 3));
+    }
+
+    private static byte[] withInt(byte[] contents, int offset, int value) {
+        byte[] corrupt = contents.clone();
+        ByteBuffer.wrap(corrupt).putInt(offset, value);
+        return corrupt;
+    }
+
+    private static void assertIgnored(CoordinateSystemCatalog catalog, Path file, byte[] contents)
+            throws IOException {
+        Files.write(file, contents);
+        assertEquals(Optional.empty(), catalog.read(false));
+    }
+
+    @Test
+    public void testInvalidatedByDatabaseVersion() throws Exception {
+        CoordinateSystemCatalog catalog = newCatalog();
+        catalog.write(Arrays.asList(CRSInfo.unsupported("EPSG:1", null, "reason")), false);
+        assertTrue(catalog.read(false).isPresent());
+
+        version = "10.1";
+        assertEquals(Optional.empty(), catalog.read(false));
+    }
+}
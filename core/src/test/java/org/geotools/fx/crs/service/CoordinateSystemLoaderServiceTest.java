@@ -0,0 +1,172 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.FIVE_SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import org.geotools.fx.crs.model.CRSInfo;
+import org.geotools.util.SimpleInternationalString;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CRSAuthorityFactory;
+
+public class CoordinateSystemLoaderServiceTest {
+
+    private static final int PARALLELISM = 4;
+
+    private final List<String> codes =
+            IntStream.range(0, 1000).mapToObj(i -> "TEST:" + i).collect(Collectors.toList());
+
+    /** Codes decoded by each worker factory */
+    private final Map<Integer, Set<String>> decodedBy = new ConcurrentHashMap<>();
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    private final AtomicInteger disposed = new AtomicInteger();
+
+    private final AtomicInteger decodes = new AtomicInteger();
+
+    private volatile long decodeMillis;
+
+    private CoordinateSystemLoaderService service;
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+
+        }
+    }
+
+    public @Before void before() {
+        service =
+                new CoordinateSystemLoaderService() {
+                    protected @Override CRSAuthorityFactory createAuthorityFactory(
+                            boolean forceLongitudeFirst) {
+                        return factory(created.getAndIncrement());
+                    }
+
+                    protected @Override void disposeAuthorityFactory(CRSAuthorityFactory f) {
+                        disposed.incrementAndGet();
+                    }
+                };
+        service.setCatalog(null);
+        service.setParallelism(PARALLELISM);
+        service.setProvidedCodes(codes);
+    }
+
+    /** A factory that fails to decode every code, so each one is loaded as unsupported */
+    private CRSAuthorityFactory factory(int worker) {
+        Set<String> decoded = ConcurrentHashMap.newKeySet();
+        decodedBy.put(worker, decoded);
+        return (CRSAuthorityFactory)
+                Proxy.newProxyInstance(
+                        getClass().getClassLoader(),
+                        new Class<?>[] {CRSAuthorityFactory.class},
+                        (proxy, method, args) -> {
+                            String code = (String) args[0];
+                            switch (method.getName()) {
+                                case "createCoordinateReferenceSystem":
+                                    decodes.incrementAndGet();
+                                    decoded.add(code);
+                                    if (decodeMillis > 0) {
+                                        Thread.sleep(decodeMillis);
+                                    }
+                                    throw new FactoryException("unsupported " + code);
+                                case "getDescriptionText":
+                                    return new SimpleInternationalString(code);
+                                default:
+                                    throw new UnsupportedOperationException(method.getName());
+                            }
+                        });
+    }
+
+    @Test
+    public void testParallelLoadIsComplete() throws Exception {
+        Task<ObservableList<CRSInfo>> task = service.createTask();
+        task.run();
+        List<CRSInfo> loaded = task.get();
+
+        assertEquals(codes.size(), loaded.size());
+        Set<String> loadedCodes =
+                loaded.stream().map(CRSInfo::getAuthorityCode).collect(Collectors.toSet());
+        assertEquals(new HashSet<>(codes), loadedCodes);
+        assertEquals(codes.size(), decodes.get());
+
+        // each worker got its own factory, a striped share of the codes, and released it
+        assertEquals(PARALLELISM, created.get());
+        assertEquals(PARALLELISM, disposed.get());
+        Set<String> all = new HashSet<>();
+        for (Set<String> partition : decodedBy.values()) {
+            assertEquals(codes.size() / PARALLELISM, partition.size());
+            partition.forEach(code -> assertTrue("decoded twice: " + code, all.add(code)));
+        }
+    }
+
+    @Test
+    public void testLazyLoadDoesNotDecode() throws Exception {
+        service.setLazy(true);
+        Task<ObservableList<CRSInfo>> task = service.createTask();
+        task.run();
+        List<CRSInfo> loaded = task.get();
+
+        assertEquals(codes.size(), loaded.size());
+        assertEquals(0, decodes.get());
+        for (CRSInfo info : loaded) {
+            assertFalse(info.isDecoded());
+            assertEquals(info.getAuthorityCode(), info.getDescription());
+            assertNull(info.getUnsupportedReason());
+        }
+    }
+
+    @Test
+    public void testCancelStopsWorkers() throws Exception {
+        decodeMillis = 5;
+        Task<ObservableList<CRSInfo>> task = service.createTask();
+        Thread thread = new Thread(task);
+        thread.start();
+        await().atMost(FIVE_SECONDS).until(() -> decodes.get() >= PARALLELISM);
+        task.cancel(false);
+        thread.join(FIVE_SECONDS.toMillis());
+
+        assertTrue(task.isCancelled());
+        await().atMost(FIVE_SECONDS).until(() -> disposed.get() == created.get());
+        final int stoppedAt = decodes.get();
+        Thread.sleep(50);
+        assertEquals(stoppedAt, decodes.get());
+        assertTrue(stoppedAt < codes.size());
+    }
+}
@@ -21,8 +21,12 @@ import static org.awaitility.Durations.ONE_SECOND;
 import static org.awaitility.Durations.TWO_SECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
@@ -35,17 +39,23 @@ import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener;
+import org.geotools.fx.crs.model.CRSInfo;
 import org.geotools.fx.crs.model.CoordinateSystemRegistry;
 import org.geotools.referencing.CRS;
 import org.geotools.referencing.factory.epsg.FactoryUsingWKT;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 
 public class CoordinateSystemRegistryLoaderServiceTest {
 
+    public @Rule TemporaryFolder tmp = new TemporaryFolder();
+
     private CoordinateSystemRegistryLoaderService service;
 
     private ObjectProperty<CoordinateSystemRegistry> value = new SimpleObjectProperty<>();
@@ -64,6 +74,7 @@ public class CoordinateSystemRegistryLoaderServiceTest {
 
     public @Before void before() {
         service = new CoordinateSystemRegistryLoaderService();
+        service.setCatalog(new CoordinateSystemCatalog(tmp.getRoot().toPath()));
         value.unbind();
         exception.unbind();
         running.unbind();
@@ -94,7 +105,7 @@ public class CoordinateSystemRegistryLoaderServiceTest {
         return value.get();
     }
 
-    public @Test final void testLoadProvided() throws Throwable {
+    private List<String> wktCodes() throws IOException {
         Properties props = new Properties();
         try (InputStream is = FactoryUsingWKT.class.getResourceAsStream("epsg.properties")) {
             props.load(is);
@@ -104,6 +115,11 @@ public class CoordinateSystemRegistryLoaderServiceTest {
                         .map(code -> String.format("EPSG:%s", code))
                         .collect(Collectors.toList());
         assertFalse(codes.isEmpty());
+        return codes;
+    }
+
+    public @Test final void testLoadProvided() throws Throwable {
+        final List<String> codes = wktCodes();
         service.setProvidedCodes(codes);
 
         AtomicInteger reportedProgress;
@@ -119,6 +135,34 @@ public class CoordinateSystemRegistryLoaderServiceTest {
         assertEquals(codes.size(), reportedProgress.get());
     }
 
+    public @Test final void testStreaming() throws Throwable {
+        final List<String> codes = wktCodes();
+        service.setProvidedCodes(codes);
+        service.setCatalog(null);
+        service.setStreaming(true);
+        service.setBatchSize(10);
+
+        AtomicInteger batches = new AtomicInteger();
+        List<String> first = new ArrayList<>();
+        ListChangeListener<CRSInfo> batchListener =
+                c -> {
+                    if (batches.getAndIncrement() == 0) {
+                        c.getList().forEach(crs -> first.add(crs.getAuthorityCode()));
+                    }
+                };
+        Platform.runLater(
+                () ->
+                        service.registryProperty()
+                                .addListener((p, o, n) -> n.all().addListener(batchListener)));
+
+        CoordinateSystemRegistry registry = runAndWait();
+        assertSame(registry, service.getRegistry());
+        assertEquals(codes.size(), registry.size());
+        assertTrue(batches.get() >= codes.size() / 10);
+        // the most common codes are loaded first
+        assertTrue(first.contains("EPSG:4326"));
+    }
+
     @Ignore
     public @Test final void testLoadAll() throws Throwable {
         Set<String> crsCodes =
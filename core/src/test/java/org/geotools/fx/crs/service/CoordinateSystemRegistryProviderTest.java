@@ -0,0 +1,151 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import org.geotools.fx.crs.model.CRSInfo;
+import org.geotools.fx.crs.model.CoordinateSystemRegistry;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CoordinateSystemRegistryProviderTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final AtomicBoolean fail = new AtomicBoolean();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final AtomicBoolean lazy = new AtomicBoolean();
+
+    private CoordinateSystemRegistryProvider provider;
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+
+        }
+    }
+
+    public @Before void before() {
+        provider =
+                new CoordinateSystemRegistryProvider() {
+                    protected @Override CoordinateSystemLoaderService createLoader() {
+                        return new StubLoader();
+                    }
+                };
+    }
+
+    /** Loads one unsupported, or lazy, entry per provided code once released */
+    private class StubLoader extends CoordinateSystemLoaderService {
+        protected @Override Task<ObservableList<CRSInfo>> createTask() {
+            final List<String> codes = List.copyOf(getProvidedCodes());
+            return new Task<ObservableList<CRSInfo>>() {
+                protected @Override ObservableList<CRSInfo> call() throws Exception {
+                    loads.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    if (fail.get()) {
+                        throw new IllegalStateException("failed");
+                    }
+                    return codes.stream()
+                            .map(
+                                    c ->
+                                            lazy.get()
+                                                    ? CRSInfo.lazy(c, c, false)
+                                                    : CRSInfo.unsupported(c, c, "test"))
+                            .collect(Collectors.toCollection(FXCollections::observableArrayList));
+                }
+            };
+        }
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneLoad() throws Exception {
+        Set<String> codes = Set.of("EPSG:1", "EPSG:2");
+        CompletableFuture<CoordinateSystemRegistry> first = provider.get(false, codes);
+        CompletableFuture<CoordinateSystemRegistry> second = provider.get(false, codes);
+        assertSame(first, second);
+        assertNotSame(first, provider.get(false, Set.of("EPSG:1")));
+
+        release.countDown();
+        CoordinateSystemRegistry registry = first.get(5, TimeUnit.SECONDS);
+        assertEquals(2, registry.size());
+        assertSame(registry, provider.get(false, codes).get());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testFailedLoadIsEvicted() throws Exception {
+        fail.set(true);
+        release.countDown();
+        Set<String> codes = Set.of("EPSG:1");
+        try {
+            provider.get(true, codes).get(5, TimeUnit.SECONDS);
+            fail("expected failure");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+        assertFalse(provider.isCached(true, codes));
+
+        fail.set(false);
+        assertEquals(1, provider.get(true, codes).get(5, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    public void testLongitudeFirstSharesUndecodedEntries() throws Exception {
+        lazy.set(true);
+        release.countDown();
+        Set<String> codes = Set.of("EPSG:1", "EPSG:2");
+        CoordinateSystemRegistry latitudeFirst =
+                provider.get(false, codes).get(5, TimeUnit.SECONDS);
+        assertEquals(1, loads.get());
+
+        CoordinateSystemRegistry longitudeFirst =
+                provider.get(true, codes).get(5, TimeUnit.SECONDS);
+        // no codes left to load
+        assertEquals(1, loads.get());
+        assertEquals(2, longitudeFirst.size());
+        Set<String> shared =
+                longitudeFirst.all().stream()
+                        .peek(info -> assertFalse(info.isDecoded()))
+                        .map(CRSInfo::getAuthorityCode)
+                        .collect(Collectors.toSet());
+        assertEquals(codes, shared);
+        latitudeFirst.all().forEach(info -> assertFalse(info.isDecoded()));
+    }
+}
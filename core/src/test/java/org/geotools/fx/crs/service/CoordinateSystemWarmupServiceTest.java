@@ -0,0 +1,56 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import static org.junit.Assert.assertEquals;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import org.geotools.referencing.CRS;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+public class CoordinateSystemWarmupServiceTest {
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+            // ignore
+        }
+    }
+
+    @Test
+    public void testBuildsConfiguredPairs() throws Exception {
+        CoordinateReferenceSystem wgs84 = CRS.decode("EPSG:4326", true);
+        CoordinateReferenceSystem webMercator = CRS.decode("EPSG:3857", true);
+        ReprojectionService reprojection = new ReprojectionService();
+
+        CoordinateSystemWarmupService service = new CoordinateSystemWarmupService();
+        service.setReprojectionService(reprojection);
+        service.addPair(wgs84, webMercator);
+        // duplicates are built once
+        service.addPair(wgs84, webMercator);
+
+        Task<Integer> task = service.createTask();
+        task.run();
+        assertEquals(1, task.get().intValue());
+        // forward and inverse
+        assertEquals(2, reprojection.size());
+    }
+}
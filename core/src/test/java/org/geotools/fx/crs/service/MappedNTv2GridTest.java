@@ -0,0 +1,152 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.geotools.referencing.CRS;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opengis.referencing.crs.GeographicCRS;
+import org.opengis.referencing.operation.MathTransform;
+
+public class MappedNTv2GridTest {
+
+    public @Rule TemporaryFolder tmp = new TemporaryFolder();
+
+    /**
+     * Writes a one degree square grid with a node every half degree, west of Greenwich and north of
+     * the equator. Latitude shifts grow northwards by one second per row, longitude shifts are two
+     * seconds everywhere.
+     */
+    private Path writeGrid(ByteOrder order) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16 * (11 + 11 + 9 + 1)).order(order);
+        intRecord(buffer, "NUM_OREC", 11);
+        intRecord(buffer, "NUM_SREC", 11);
+        intRecord(buffer, "NUM_FILE", 1);
+        textRecord(buffer, "GS_TYPE", "SECONDS");
+        textRecord(buffer, "VERSION", "TEST");
+        textRecord(buffer, "SYSTEM_F", "FROM");
+        textRecord(buffer, "SYSTEM_T", "TO");
+        for (String key : new String[] {"MAJOR_F", "MINOR_F", "MAJOR_T", "MINOR_T"}) {
+            doubleRecord(buffer, key, 6378137);
+        }
+        textRecord(buffer, "SUB_NAME", "TEST");
+        textRecord(buffer, "PARENT", "NONE");
+        textRecord(buffer, "CREATED", "");
+        textRecord(buffer, "UPDATED", "");
+        doubleRecord(buffer, "S_LAT", 0);
+        doubleRecord(buffer, "N_LAT", 3600);
+        doubleRecord(buffer, "E_LONG", 0);
+        doubleRecord(buffer, "W_LONG", 3600);
+        doubleRecord(buffer, "LAT_INC", 1800);
+        doubleRecord(buffer, "LONG_INC", 1800);
+        intRecord(buffer, "GS_COUNT", 9);
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                buffer.putFloat(row).putFloat(2).putFloat(0).putFloat(0);
+            }
+        }
+        textRecord(buffer, "END", "");
+        Path file = tmp.newFile().toPath();
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    private void intRecord(ByteBuffer buffer, String key, int value) {
+        buffer.put(key(key)).putInt(value).putInt(0);
+    }
+
+    private void doubleRecord(ByteBuffer buffer, String key, double value) {
+        buffer.put(key(key)).putDouble(value);
+    }
+
+    private void textRecord(ByteBuffer buffer, String key, String value) {
+        buffer.put(key(key)).put(key(value));
+    }
+
+    private byte[] key(String key) {
+        return String.format("%-8s", key).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testShift() throws Exception {
+        for (ByteOrder order : new ByteOrder[] {ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+            MappedNTv2Grid grid = MappedNTv2Grid.open(writeGrid(order));
+            assertEquals(1, grid.getSubGridCount());
+            assertTrue(grid.contains(-0.5, 0.5));
+            assertFalse(grid.contains(0.5, 0.5));
+
+            double[] coords = {-0.5, 0.25, 10, 10};
+            assertEquals(1, grid.shift(coords, 0, 2, false));
+            assertEquals(-0.5 - 2 / 3600d, coords[0], 1e-12);
+            assertEquals(0.25 + 0.5 / 3600d, coords[1], 1e-12);
+            // outside of the grid
+            assertEquals(10, coords[2], 0);
+            assertEquals(10, coords[3], 0);
+        }
+    }
+
+    @Test
+    public void testTransformRoundTrip() throws Exception {
+        MappedNTv2Grid grid = MappedNTv2Grid.open(writeGrid(ByteOrder.LITTLE_ENDIAN));
+        // latitude first source, longitude first target
+        MathTransform forward = new GridShiftTransform(grid, false, true, false);
+        double[] source = {0.3, -0.7, 0.9, -0.1};
+        double[] shifted = new double[4];
+        forward.transform(source, 0, shifted, 0, 2);
+        assertEquals(-0.7 - 2 / 3600d, shifted[0], 1e-12);
+        assertEquals(0.3 + 0.6 / 3600d, shifted[1], 1e-12);
+
+        double[] back = new double[4];
+        forward.inverse().transform(shifted, 0, back, 0, 2);
+        assertArrayEquals(source, back, 1e-10);
+    }
+
+    @Test
+    public void testOnlyDegreesFromGreenwich() throws Exception {
+        GeographicCRS ntf = (GeographicCRS) CRS.decode("EPSG:4275");
+        GeographicCRS wgs84 = (GeographicCRS) CRS.decode("EPSG:4326");
+        // NTF (Paris), in grads from the Paris meridian
+        GeographicCRS paris = (GeographicCRS) CRS.decode("EPSG:4807");
+        GridShiftService service = new GridShiftService();
+        service.register(ntf, wgs84, writeGrid(ByteOrder.LITTLE_ENDIAN));
+
+        assertNotNull(service.findTransform(ntf, wgs84));
+        assertNull(service.findTransform(paris, wgs84));
+        assertNull(service.findTransform(wgs84, paris));
+        try {
+            service.register(paris, wgs84, writeGrid(ByteOrder.LITTLE_ENDIAN));
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertNull(service.findTransform(paris, wgs84));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.crs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+
+public class ReprojectionServiceTest {
+
+    private ReprojectionService service;
+
+    private CoordinateReferenceSystem wgs84;
+
+    private CoordinateReferenceSystem webMercator;
+
+    public @Before void before() throws Exception {
+        service = new ReprojectionService();
+        wgs84 = CRS.decode("EPSG:4326", true);
+        webMercator = CRS.decode("EPSG:3857", true);
+    }
+
+    @Test
+    public void testTransformsAreCached() throws Exception {
+        MathTransform transform = service.getTransform(wgs84, webMercator);
+        assertSame(transform, service.getTransform(wgs84, webMercator));
+        assertEquals(1, service.size());
+        assertFalse(service.isIdentity(wgs84, webMercator));
+    }
+
+    @Test
+    public void testHotTransformsSurviveManyPairs() throws Exception {
+        MathTransform transform = service.getTransform(wgs84, webMercator);
+        String wkt = webMercator.toWKT();
+        for (int i = 0; i < 300; i++) {
+            service.getTransform(wgs84, CRS.parseWKT(wkt));
+        }
+        assertEquals(301, service.size());
+        assertSame(transform, service.getTransform(wgs84, webMercator));
+    }
+
+    @Test
+    public void testIdentity() throws Exception {
+        CoordinateReferenceSystem same = CRS.decode("EPSG:4326", true);
+        assertTrue(service.isIdentity(wgs84, same));
+        ReferencedEnvelope bounds = new ReferencedEnvelope(-10, 10, -5, 5, wgs84);
+        assertSame(bounds, service.transform(bounds, same));
+    }
+
+    @Test
+    public void testBulkTransform() throws Exception {
+        double[] coords = {0, 0, 180, 0, -180, 0};
+        service.transform(wgs84, webMercator, coords);
+        assertEquals(0, coords[0], 1e-6);
+        assertEquals(20037508.34, coords[2], 0.01);
+        assertEquals(-20037508.34, coords[4], 0.01);
+    }
+
+    @Test
+    public void testEnvelope() throws Exception {
+        ReferencedEnvelope bounds = new ReferencedEnvelope(-180, 180, -60, 60, wgs84);
+        ReferencedEnvelope transformed = service.transform(bounds, webMercator);
+        assertSame(webMercator, transformed.getCoordinateReferenceSystem());
+        assertEquals(-20037508.34, transformed.getMinX(), 0.01);
+        assertEquals(20037508.34, transformed.getMaxX(), 0.01);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.data.service;
+
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.FIVE_SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotools.data.DataAccess;
+import org.geotools.data.DataAccessFactory;
+import org.junit.Test;
+import org.opengis.feature.Feature;
+import org.opengis.feature.type.FeatureType;
+
+public class DataStoreFactoryDiscoveryTest {
+
+    private final AtomicInteger probes = new AtomicInteger();
+
+    private class ProbedFactory implements DataAccessFactory {
+        final long probeMillis;
+        final boolean available;
+
+        ProbedFactory(long probeMillis, boolean available) {
+            this.probeMillis = probeMillis;
+            this.available = available;
+        }
+
+        public @Override boolean isAvailable() {
+            probes.incrementAndGet();
+            try {
+                Thread.sleep(probeMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return available;
+        }
+
+        public @Override DataAccess<? extends FeatureType, ? extends Feature> createDataStore(
+                Map<String, ?> params) {
+            return null;
+        }
+
+        public @Override String getDisplayName() {
+            return getClass().getSimpleName();
+        }
+
+        public @Override String getDescription() {
+            return getClass().getSimpleName();
+        }
+
+        public @Override Param[] getParametersInfo() {
+            return new Param[0];
+        }
+    }
+
+    @Test
+    public void testParallelProbesWithTimeout() {
+        List<DataAccessFactory> factories = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            factories.add(new ProbedFactory(200, true));
+        }
+        factories.add(new ProbedFactory(0, false));
+        ProbedFactory slow = new ProbedFactory(5_000, true);
+        factories.add(slow);
+        DataStoreFactoryDiscovery discovery =
+                new DataStoreFactoryDiscovery(Duration.ofSeconds(1), factories::iterator);
+
+        long start = System.nanoTime();
+        List<DataAccessFactory> found = new ArrayList<>();
+        discovery.available().forEachRemaining(found::add);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        // probed in parallel, and the slow one was given up on
+        assertTrue("took " + millis + "ms", millis < 2_500);
+        assertEquals(factories.subList(0, 8), found);
+        assertTrue(discovery.isDone());
+    }
+
+    @Test
+    public void testServiceProviderOrder() {
+        ProbedFactory first = new ProbedFactory(300, true);
+        ProbedFactory second = new ProbedFactory(0, true);
+        DataStoreFactoryDiscovery discovery =
+                new DataStoreFactoryDiscovery(
+                        Duration.ofSeconds(5), List.<DataAccessFactory>of(first, second)::iterator);
+        List<DataAccessFactory> found = new ArrayList<>();
+        discovery.available().forEachRemaining(found::add);
+        assertEquals(List.of(first, second), found);
+    }
+
+    @Test
+    public void testLateProbeRecorded() {
+        ProbedFactory fast = new ProbedFactory(0, true);
+        ProbedFactory late = new ProbedFactory(1_000, true);
+        DataStoreFactoryDiscovery discovery =
+                new DataStoreFactoryDiscovery(
+                        Duration.ofMillis(200), List.<DataAccessFactory>of(late, fast)::iterator);
+        Set<DataAccessFactory> found = new HashSet<>();
+        discovery.available().forEachRemaining(found::add);
+        assertEquals(Set.of(fast), found);
+
+        // not probed again, but included once its probe completes
+        await().atMost(FIVE_SECONDS).until(() -> available(discovery).contains(late));
+        assertEquals(List.of(late, fast), available(discovery));
+        assertEquals(2, probes.get());
+    }
+
+    private static List<DataAccessFactory> available(DataStoreFactoryDiscovery discovery) {
+        List<DataAccessFactory> found = new ArrayList<>();
+        discovery.available().forEachRemaining(found::add);
+        return found;
+    }
+
+    @Test
+    public void testCached() {
+        List<DataAccessFactory> factories = List.of(new ProbedFactory(0, true));
+        DataStoreFactoryDiscovery discovery =
+                new DataStoreFactoryDiscovery(Duration.ofSeconds(1), factories::iterator);
+        discovery.available().forEachRemaining(f -> {});
+        discovery.available().forEachRemaining(f -> {});
+        assertEquals(1, probes.get());
+
+        discovery.clearCache();
+        discovery.available().forEachRemaining(f -> {});
+        assertEquals(2, probes.get());
+    }
+}
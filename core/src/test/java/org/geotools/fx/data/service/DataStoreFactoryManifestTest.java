@@ -0,0 +1,126 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.data.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotools.data.DataAccess;
+import org.geotools.data.DataAccessFactory;
+import org.geotools.fx.data.model.DataStoreFactory;
+import org.geotools.fx.data.model.ParameterDescriptor;
+import org.geotools.util.SimpleInternationalString;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opengis.feature.Feature;
+import org.opengis.feature.type.FeatureType;
+
+public class DataStoreFactoryManifestTest {
+
+    private static final AtomicInteger instances = new AtomicInteger();
+
+    public @Rule TemporaryFolder tmp = new TemporaryFolder();
+
+    public static class TestFactory implements DataAccessFactory {
+
+        public TestFactory() {
+            instances.incrementAndGet();
+        }
+
+        public @Override DataAccess<? extends FeatureType, ? extends Feature> createDataStore(
+                Map<String, ?> params) {
+            return null;
+        }
+
+        public @Override String getDisplayName() {
+            return "Test";
+        }
+
+        public @Override String getDescription() {
+            return "Test factory";
+        }
+
+        public @Override Param[] getParametersInfo() {
+            return new Param[] {
+                new Param(
+                        "count",
+                        Integer.class,
+                        new SimpleInternationalString("Count"),
+                        new SimpleInternationalString("Number of things"),
+                        true,
+                        1,
+                        1,
+                        3,
+                        null)
+            };
+        }
+
+        public @Override boolean isAvailable() {
+            return true;
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Path dir = tmp.getRoot().toPath();
+        Path file = dir.resolve(DataStoreFactoryManifest.LOCATION);
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            DataStoreFactoryManifest.write(
+                    List.<DataAccessFactory>of(new TestFactory()).iterator(), out);
+        }
+        instances.set(0);
+
+        try (URLClassLoader loader =
+                new URLClassLoader(new URL[] {dir.toUri().toURL()}, getClass().getClassLoader())) {
+            DataStoreFactoryManifest manifest = DataStoreFactoryManifest.load(loader);
+            assertFalse(manifest.isEmpty());
+            // not a simple features factory
+            assertTrue(manifest.createFactories(true, false).isEmpty());
+
+            List<DataStoreFactory> factories = manifest.createFactories(true, true);
+            assertEquals(1, factories.size());
+            DataStoreFactory factory = factories.get(0);
+            assertEquals("Test", factory.getDisplayName());
+            assertEquals("Test factory", factory.getDescription());
+
+            ParameterDescriptor param = factory.getParameterDescriptors().get(0);
+            assertNull(param.getParam());
+            assertEquals("count", param.getName());
+            assertEquals("Count", param.getTitle());
+            assertEquals(Integer.class, param.getType());
+            assertTrue(param.isRequired());
+            assertEquals(3, param.getDefaultValue());
+            assertEquals(0, instances.get());
+
+            assertTrue(factory.getFactory() instanceof TestFactory);
+            assertTrue(factory.isAvailable());
+            assertEquals(1, instances.get());
+        }
+    }
+}
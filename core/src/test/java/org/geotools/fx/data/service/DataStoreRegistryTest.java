@@ -0,0 +1,87 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.data.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Map;
+import org.geotools.fx.data.model.DataStore;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DataStoreRegistryTest {
+
+    public @Rule TemporaryFolder tmp = new TemporaryFolder();
+
+    private DataStoreRegistry registry;
+
+    private File directory;
+
+    public @Before void before() throws Exception {
+        registry = new DataStoreRegistry(Duration.ofHours(1));
+        directory = tmp.newFolder();
+    }
+
+    @Test
+    public void testSharedByNormalizedParameters() throws Exception {
+        Map<String, Serializable> params = Map.of("directory", directory);
+        Map<String, Serializable> equivalent =
+                Map.of("directory", new File(directory, "../" + directory.getName()));
+        try (DataStore first = registry.acquire(params);
+                DataStore second = registry.acquire(equivalent)) {
+            assertSame(first.getDataAccess(), second.getDataAccess());
+            assertEquals(1, registry.size());
+        }
+        // idle, but kept until the idle timeout expires
+        assertTrue(registry.isOpen(params));
+    }
+
+    @Test
+    public void testDisposeIdle() throws Exception {
+        Map<String, Serializable> params = Map.of("directory", directory);
+        DataStore inUse = registry.acquire(params);
+        DataStore closed = registry.acquire(params);
+        closed.close();
+        // closing twice doesn't release twice
+        closed.close();
+        registry.disposeIdle();
+        assertTrue(registry.isOpen(params));
+
+        inUse.close();
+        registry.disposeIdle();
+        assertFalse(registry.isOpen(params));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testSecretsComparedAsGiven() throws Exception {
+        Map<String, Serializable> params = Map.of("directory", directory, "passwd", "secret");
+        try (DataStore store = registry.acquire(params)) {
+            assertTrue(registry.isOpen(Map.of("directory", directory, "passwd", "secret")));
+            assertFalse(registry.isOpen(Map.of("directory", directory, "passwd", " secret ")));
+            assertFalse(registry.isOpen(Map.of("directory", directory)));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.map.model;
+
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.FIVE_SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.canvas.GraphicsContext;
+import org.geotools.data.FeatureSource;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.styling.Style;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class OverviewMapTest {
+
+    private static final ReferencedEnvelope WORLD =
+            new ReferencedEnvelope(-180, 180, -90, 90, DefaultGeographicCRS.WGS84);
+
+    private static class CountingLayer extends DirectLayer {
+        final AtomicInteger draws = new AtomicInteger();
+
+        public @Override void draw(
+                GraphicsContext graphics, Viewport viewport, BooleanSupplier aborted) {
+            draws.incrementAndGet();
+        }
+
+        public @Override ReferencedEnvelope getBounds() {
+            return WORLD;
+        }
+    }
+
+    private MapModel mapModel;
+
+    private CountingLayer layer;
+
+    private OverviewMap overview;
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+
+        }
+    }
+
+    public @Before void before() {
+        layer = new CountingLayer();
+        overview =
+                fx(
+                        () -> {
+                            mapModel = new MapModel();
+                            mapModel.getViewport().getDisplay().setWidth(400);
+                            mapModel.getViewport().getDisplay().setHeight(200);
+                            mapModel.getViewport()
+                                    .setCoordinateReferenceSystem(DefaultGeographicCRS.WGS84);
+                            mapModel.getViewport().setFitBounds(WORLD);
+                            mapModel.addLayer(layer);
+                            return new OverviewMap(mapModel);
+                        });
+        awaitValid();
+    }
+
+    @Test
+    public void testRendersOnce() {
+        assertNotNull(overview.getImage());
+        int draws = layer.draws.get();
+        assertTrue(draws > 0);
+        // let pending updates run, nothing changed so nothing is rendered again
+        assertTrue(fx(overview::isValid));
+        assertEquals(draws, layer.draws.get());
+    }
+
+    @Test
+    public void testPanOnlyUpdatesExtent() {
+        final int draws = layer.draws.get();
+        await().atMost(FIVE_SECONDS).until(() -> overview.getExtent() != null);
+        final Bounds extent = overview.getExtent();
+
+        fx(
+                () -> {
+                    mapModel.getViewport()
+                            .setFitBounds(
+                                    new ReferencedEnvelope(
+                                            0, 20, 0, 10, DefaultGeographicCRS.WGS84));
+                    return null;
+                });
+        await().atMost(FIVE_SECONDS).until(() -> !extent.equals(overview.getExtent()));
+
+        assertNotEquals(extent, overview.getExtent());
+        assertEquals(draws, layer.draws.get());
+        assertTrue(overview.isValid());
+    }
+
+    @Test
+    public void testRendersAgainOnContentChange() {
+        int draws = layer.draws.get();
+        assertFalse(fx(() -> set(() -> layer.setOpacity(0.5))));
+        awaitValid();
+        assertEquals(draws + 1, layer.draws.get());
+
+        assertFalse(fx(() -> set(() -> layer.setVisible(false))));
+        awaitValid();
+    }
+
+    /** Properties the overview doesn't read itself must keep notifying after the first change */
+    @Test
+    public void testUnreadContentPropertiesKeepNotifying() {
+        FeatureLayer featureLayer = new FeatureLayer();
+        fx(() -> set(() -> mapModel.addLayer(featureLayer)));
+        awaitValid();
+
+        assertFalse(fx(() -> set(() -> featureLayer.setStyle(proxy(Style.class)))));
+        awaitValid();
+        assertFalse(fx(() -> set(() -> featureLayer.setStyle(proxy(Style.class)))));
+        awaitValid();
+        assertFalse(fx(() -> set(() -> featureLayer.setFeatureSource(proxy(FeatureSource.class)))));
+        awaitValid();
+        assertFalse(fx(() -> set(() -> featureLayer.setFeatureSource(proxy(FeatureSource.class)))));
+    }
+
+    /** Runs {@code change} and tells whether the overview is still valid right after */
+    private boolean set(Runnable change) {
+        change.run();
+        return overview.isValid();
+    }
+
+    private void awaitValid() {
+        await().atMost(FIVE_SECONDS).until(() -> fx(overview::isValid));
+    }
+
+    private static <T> T proxy(Class<T> type) {
+        return type.cast(
+                Proxy.newProxyInstance(
+                        OverviewMapTest.class.getClassLoader(),
+                        new Class<?>[] {type},
+                        (proxy, method, args) -> null));
+    }
+
+    private static <T> T fx(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(
+                () -> {
+                    try {
+                        result.complete(task.get());
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                });
+        try {
+            return result.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.map.model;
+
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.FIVE_SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import javafx.application.Platform;
+import javafx.scene.canvas.GraphicsContext;
+import org.geotools.fx.map.model.RenderPass.Phase;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class RenderMetricsTest {
+
+    private static class TestLayer extends DirectLayer {
+        volatile RuntimeException failure;
+
+        public @Override void draw(
+                GraphicsContext graphics, Viewport viewport, BooleanSupplier aborted) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        public @Override ReferencedEnvelope getBounds() {
+            return new ReferencedEnvelope();
+        }
+    }
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+
+        }
+    }
+
+    @Test
+    public void testEndPublishesTotals() {
+        TestLayer layer = new TestLayer();
+        RenderMetrics metrics = layer.getRenderMetrics();
+        RenderPass pass = metrics.begin();
+        pass.featuresRead(10);
+        pass.featuresDrawn(7);
+        pass.addTime(Phase.DRAW, 1_000);
+        pass.end();
+        // ending twice publishes once
+        pass.end();
+
+        await().atMost(FIVE_SECONDS).until(() -> fx(metrics::getRenderCount) == 1);
+        assertEquals(10, (long) fx(metrics::getFeaturesRead));
+        assertEquals(7, (long) fx(metrics::getFeaturesDrawn));
+        assertEquals(1_000, (long) fx(metrics::getDrawTime));
+        assertTrue(fx(metrics::getRenderTime) > 0);
+        assertEquals(0, (long) fx(metrics::getCancellations));
+    }
+
+    @Test
+    public void testCancelOnlyCountsCancellation() {
+        TestLayer layer = new TestLayer();
+        RenderMetrics metrics = layer.getRenderMetrics();
+        layer.render(null, null, () -> true);
+
+        await().atMost(FIVE_SECONDS).until(() -> fx(metrics::getCancellations) == 1);
+        assertEquals(0, (long) fx(metrics::getRenderCount));
+        assertEquals(0, (long) fx(metrics::getFailures));
+    }
+
+    @Test
+    public void testFailureIsNotPublishedAsRender() {
+        TestLayer layer = new TestLayer();
+        RenderMetrics metrics = layer.getRenderMetrics();
+        layer.failure = new IllegalStateException("test");
+        try {
+            layer.render(null, null, () -> false);
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            assertEquals("test", expected.getMessage());
+        }
+
+        await().atMost(FIVE_SECONDS).until(() -> fx(metrics::getFailures) == 1);
+        assertEquals(0, (long) fx(metrics::getRenderCount));
+        assertEquals(0, (long) fx(metrics::getCancellations));
+
+        layer.failure = null;
+        layer.render(null, null, () -> false);
+        await().atMost(FIVE_SECONDS).until(() -> fx(metrics::getRenderCount) == 1);
+    }
+
+    private static <T> T fx(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(
+                () -> {
+                    try {
+                        result.complete(task.get());
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                });
+        try {
+            return result.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.map.model;
+
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Durations.FIVE_SECONDS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javafx.application.Platform;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+public class ViewportTest {
+
+    private static final ReferencedEnvelope AREA =
+            new ReferencedEnvelope(-20, 20, -10, 10, DefaultGeographicCRS.WGS84);
+
+    private Viewport viewport;
+
+    private CoordinateReferenceSystem webMercator;
+
+    private CoordinateReferenceSystem worldMercator;
+
+    public static @BeforeClass void beforeClass() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException toolkitAlreadyInitialized) {
+
+        }
+    }
+
+    public @Before void before() throws Exception {
+        webMercator = CRS.decode("EPSG:3857");
+        worldMercator = CRS.decode("EPSG:3395");
+        viewport =
+                fx(
+                        () -> {
+                            Viewport v = new Viewport();
+                            v.getDisplay().setWidth(400);
+                            v.getDisplay().setHeight(200);
+                            v.setCoordinateReferenceSystem(DefaultGeographicCRS.WGS84);
+                            v.setFitBounds(AREA);
+                            return v;
+                        });
+        await().atMost(FIVE_SECONDS).until(() -> !fx(viewport::getBounds).isEmpty());
+    }
+
+    @Test
+    public void testSwitchingFlag() throws Exception {
+        CompletableFuture<ReferencedEnvelope> switched =
+                fx(
+                        () -> {
+                            CompletableFuture<ReferencedEnvelope> f =
+                                    viewport.switchCoordinateReferenceSystem(webMercator);
+                            assertTrue(viewport.isSwitching());
+                            return f;
+                        });
+        ReferencedEnvelope bounds = switched.get(5, TimeUnit.SECONDS);
+        assertFalse(fx(viewport::isSwitching));
+        assertSame(webMercator, bounds.getCoordinateReferenceSystem());
+        assertSame(webMercator, fx(viewport::getCoordinateReferenceSystem));
+    }
+
+    @Test
+    public void testStaleSwitchDropped() throws Exception {
+        CompletableFuture<ReferencedEnvelope> latest =
+                fx(
+                        () -> {
+                            viewport.switchCoordinateReferenceSystem(webMercator);
+                            return viewport.switchCoordinateReferenceSystem(worldMercator);
+                        });
+        ReferencedEnvelope bounds = latest.get(5, TimeUnit.SECONDS);
+        assertSame(worldMercator, bounds.getCoordinateReferenceSystem());
+        // let the earlier switch complete, if it hadn't yet, it must not be applied
+        fx(() -> null);
+        assertSame(worldMercator, fx(viewport::getCoordinateReferenceSystem));
+        assertFalse(fx(viewport::isSwitching));
+        await().atMost(FIVE_SECONDS)
+                .until(
+                        () ->
+                                fx(viewport::getBounds).getCoordinateReferenceSystem()
+                                        == worldMercator);
+    }
+
+    @Test
+    public void testRememberedBoundsRestored() throws Exception {
+        ReferencedEnvelope original = fx(viewport::getBounds);
+        fx(() -> viewport.switchCoordinateReferenceSystem(webMercator)).get(5, TimeUnit.SECONDS);
+        ReferencedEnvelope restored =
+                fx(() -> viewport.switchCoordinateReferenceSystem(DefaultGeographicCRS.WGS84))
+                        .get(5, TimeUnit.SECONDS);
+        assertSame(DefaultGeographicCRS.WGS84, restored.getCoordinateReferenceSystem());
+        assertTrue(original + " vs " + restored, original.boundsEquals2D(restored, 1e-9));
+    }
+
+    private static <T> T fx(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(
+                () -> {
+                    try {
+                        result.complete(task.get());
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                });
+        try {
+            return result.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
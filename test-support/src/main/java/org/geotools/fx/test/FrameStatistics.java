@@ -0,0 +1,89 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LongSummaryStatistics;
+import lombok.NonNull;
+
+/** Frame time statistics of a {@link RenderStressHarness} run */
+public class FrameStatistics {
+
+    private final long[] sortedNanos;
+
+    private final LongSummaryStatistics summary;
+
+    public FrameStatistics(@NonNull long[] frameNanos) {
+        this.sortedNanos = frameNanos.clone();
+        Arrays.sort(this.sortedNanos);
+        this.summary = Arrays.stream(sortedNanos).summaryStatistics();
+    }
+
+    public int getFrameCount() {
+        return sortedNanos.length;
+    }
+
+    public Duration getMin() {
+        return Duration.ofNanos(summary.getCount() == 0 ? 0 : summary.getMin());
+    }
+
+    public Duration getMax() {
+        return Duration.ofNanos(summary.getCount() == 0 ? 0 : summary.getMax());
+    }
+
+    public Duration getMean() {
+        return Duration.ofNanos(Math.round(summary.getAverage()));
+    }
+
+    public Duration getTotal() {
+        return Duration.ofNanos(summary.getSum());
+    }
+
+    /**
+     * @param percentile a value between {@code 0} and {@code 100}
+     * @return the frame time at the given percentile, using the nearest-rank method
+     */
+    public Duration getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        if (sortedNanos.length == 0) {
+            return Duration.ZERO;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedNanos.length);
+        return Duration.ofNanos(sortedNanos[Math.max(0, rank - 1)]);
+    }
+
+    public @Override String toString() {
+        return String.format(
+                "frames: %,d, total: %,d ms, mean: %s, min: %s, p50: %s, p90: %s, p95: %s, p99: %s, max: %s",
+                getFrameCount(),
+                getTotal().toMillis(),
+                millis(getMean()),
+                millis(getMin()),
+                millis(getPercentile(50)),
+                millis(getPercentile(90)),
+                millis(getPercentile(95)),
+                millis(getPercentile(99)),
+                millis(getMax()));
+    }
+
+    private static String millis(Duration d) {
+        return String.format("%.2f ms", d.toNanos() / 1e6);
+    }
+}
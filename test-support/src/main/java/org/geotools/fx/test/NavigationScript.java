@@ -0,0 +1,186 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+
+/**
+ * A sequence of pan and zoom steps to replay on a {@link org.geotools.fx.map.model.Viewport}.
+ *
+ * <p>Scripts can be built programmatically, generated at random, or parsed from text, one step per
+ * line, blank lines and lines starting with {@code #} ignored:
+ *
+ * <pre>
+ * # zoom to the full extent of the map
+ * extent
+ * # zoom in by a factor of 4 around the center
+ * zoom 4
+ * # pan a quarter of the viewport width to the east, and half its height to the south
+ * pan 0.25 -0.5
+ * </pre>
+ */
+public class NavigationScript {
+
+    public static interface Step {
+        /**
+         * @param current the current viewport bounds
+         * @param maxBounds the full extent of the map
+         * @return the bounds to fit the viewport to
+         */
+        ReferencedEnvelope apply(ReferencedEnvelope current, ReferencedEnvelope maxBounds);
+    }
+
+    private final List<Step> steps = new ArrayList<>();
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    public int size() {
+        return steps.size();
+    }
+
+    public NavigationScript add(@NonNull Step step) {
+        steps.add(step);
+        return this;
+    }
+
+    /** Adds a step moving the viewport by a fraction of its width and height */
+    public NavigationScript pan(double dx, double dy) {
+        return add(new Pan(dx, dy));
+    }
+
+    /** Adds a step zooming in by {@code factor} around the viewport center, out if {@code < 1} */
+    public NavigationScript zoom(double factor) {
+        return add(new Zoom(factor));
+    }
+
+    /** Adds a step zooming to the map full extent */
+    public NavigationScript extent() {
+        return add(new Extent());
+    }
+
+    /**
+     * Creates a script that starts at the map full extent and performs {@code steps} random pans
+     * and zooms, never zooming in further than {@code 1 / 2^maxZoomLevel} of the full extent.
+     */
+    public static NavigationScript random(int steps, int maxZoomLevel, long seed) {
+        Random random = new Random(seed);
+        NavigationScript script = new NavigationScript().extent();
+        int level = 0;
+        for (int i = 0; i < steps; i++) {
+            if (random.nextInt(3) == 0) {
+                boolean in = level == 0 || (level < maxZoomLevel && random.nextBoolean());
+                script.zoom(in ? 2 : 0.5);
+                level += in ? 1 : -1;
+            } else {
+                script.pan(random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+            }
+        }
+        return script;
+    }
+
+    public static NavigationScript parse(@NonNull Path file) throws IOException {
+        return parse(Files.readAllLines(file));
+    }
+
+    public static NavigationScript parse(@NonNull List<String> lines) {
+        NavigationScript script = new NavigationScript();
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] tokens = line.split("\\s+");
+            try {
+                switch (tokens[0].toLowerCase(Locale.ROOT)) {
+                    case "pan":
+                        script.pan(Double.parseDouble(tokens[1]), Double.parseDouble(tokens[2]));
+                        break;
+                    case "zoom":
+                        script.zoom(Double.parseDouble(tokens[1]));
+                        break;
+                    case "extent":
+                        script.extent();
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown step " + tokens[0]);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(
+                        String.format("Invalid step at line %d: '%s'", lineNumber, line), e);
+            }
+        }
+        return script;
+    }
+
+    @ToString
+    @RequiredArgsConstructor
+    public static class Pan implements Step {
+        private final @Getter double dx;
+        private final @Getter double dy;
+
+        public @Override ReferencedEnvelope apply(
+                ReferencedEnvelope current, ReferencedEnvelope maxBounds) {
+            ReferencedEnvelope bounds = new ReferencedEnvelope(current);
+            bounds.translate(dx * current.getWidth(), dy * current.getHeight());
+            return bounds;
+        }
+    }
+
+    @ToString
+    @RequiredArgsConstructor
+    public static class Zoom implements Step {
+        private final @Getter double factor;
+
+        public @Override ReferencedEnvelope apply(
+                ReferencedEnvelope current, ReferencedEnvelope maxBounds) {
+            double halfWidth = current.getWidth() / factor / 2;
+            double halfHeight = current.getHeight() / factor / 2;
+            double x = current.getMedian(0);
+            double y = current.getMedian(1);
+            return new ReferencedEnvelope(
+                    x - halfWidth,
+                    x + halfWidth,
+                    y - halfHeight,
+                    y + halfHeight,
+                    current.getCoordinateReferenceSystem());
+        }
+    }
+
+    @ToString
+    public static class Extent implements Step {
+        public @Override ReferencedEnvelope apply(
+                ReferencedEnvelope current, ReferencedEnvelope maxBounds) {
+            return new ReferencedEnvelope(maxBounds);
+        }
+    }
+}
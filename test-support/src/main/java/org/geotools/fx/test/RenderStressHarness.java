@@ -0,0 +1,261 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.geotools.data.DataStore;
+import org.geotools.data.FileDataStoreFinder;
+import org.geotools.data.simple.SimpleFeatureSource;
+import org.geotools.fx.map.model.FeatureLayer;
+import org.geotools.fx.map.model.MapLayer;
+import org.geotools.fx.map.model.MapModel;
+import org.geotools.fx.map.model.Viewport;
+import org.geotools.fx.test.SyntheticDataGenerator.GeometryType;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.MapContent;
+import org.geotools.renderer.lite.StreamingRenderer;
+import org.geotools.styling.SLD;
+import org.geotools.styling.Style;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Headless rendering stress harness.
+ *
+ * <p>Loads feature sources into a {@link MapModel}, replays a {@link NavigationScript} on its
+ * {@link Viewport}, and renders every resulting frame off screen with a {@link StreamingRenderer},
+ * measuring the time from the viewport change to the end of the frame render.
+ *
+ * <p>The JavaFX toolkit must be available, since viewport bounds are updated on the JavaFX
+ * application thread. On machines without a display, run with a headless toolkit such as Monocle
+ * ({@code -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw}).
+ *
+ * <pre>{@code
+ * RenderStressHarness harness = new RenderStressHarness().width(1920).height(1080);
+ * harness.addLayer(store.getFeatureSource("polygons"));
+ * FrameStatistics stats = harness.run(NavigationScript.random(500, 12, 0));
+ * }</pre>
+ */
+@Accessors(fluent = true)
+public class RenderStressHarness {
+
+    private static final Logger LOGGER = Logging.getLogger(RenderStressHarness.class);
+
+    private final @Getter MapModel mapModel;
+
+    private @Getter @Setter int width = 1024;
+
+    private @Getter @Setter int height = 768;
+
+    /** Maximum time to wait for each viewport update */
+    private @Getter @Setter long timeoutMillis = 10_000;
+
+    /** Whether to use antialiasing, more expensive but closer to what a real map looks like */
+    private @Getter @Setter boolean antialiasing = true;
+
+    public RenderStressHarness() {
+        this(new MapModel());
+    }
+
+    public RenderStressHarness(@NonNull MapModel mapModel) {
+        this.mapModel = mapModel;
+        startPlatform();
+    }
+
+    /** Adds a layer for {@code source}, styled with a default style for its geometry type */
+    public FeatureLayer addLayer(@NonNull SimpleFeatureSource source) {
+        Style style = SLD.createSimpleStyle(source.getSchema());
+        FeatureLayer layer = new FeatureLayer(source, style);
+        layer.setTitle(source.getName().getLocalPart());
+        runAndWait(() -> mapModel.addLayer(layer));
+        return layer;
+    }
+
+    /**
+     * Replays {@code script} on the map viewport, rendering a frame after each step
+     *
+     * @return the frame time statistics
+     */
+    public FrameStatistics run(@NonNull NavigationScript script) throws IOException {
+        final ReferencedEnvelope maxBounds = mapModel.getMaxBounds();
+        if (maxBounds == null || maxBounds.isEmpty()) {
+            throw new IllegalStateException("The map has no content to render");
+        }
+        final Viewport viewport = mapModel.getViewport();
+        runAndWait(
+                () -> {
+                    viewport.getDisplay().setWidth(width);
+                    viewport.getDisplay().setHeight(height);
+                    viewport.setCoordinateReferenceSystem(maxBounds.getCoordinateReferenceSystem());
+                    viewport.setFitBounds(maxBounds);
+                });
+        // bounds are updated asynchronously, wait for the pending update to be applied
+        runAndWait(() -> {});
+
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        final Rectangle paintArea = new Rectangle(width, height);
+        final long[] frameTimes = new long[script.size()];
+        final MapContent content = createMapContent();
+        try {
+            final StreamingRenderer renderer = new StreamingRenderer();
+            renderer.setMapContent(content);
+            renderer.setJava2DHints(
+                    new RenderingHints(
+                            RenderingHints.KEY_ANTIALIASING,
+                            antialiasing
+                                    ? RenderingHints.VALUE_ANTIALIAS_ON
+                                    : RenderingHints.VALUE_ANTIALIAS_OFF));
+            int frame = 0;
+            for (NavigationScript.Step step : script.getSteps()) {
+                final long start = System.nanoTime();
+                runAndWait(
+                        () -> viewport.setFitBounds(step.apply(viewport.getBounds(), maxBounds)));
+                runAndWait(() -> {});
+                ReferencedEnvelope bounds = callAndWait(viewport::getBounds);
+
+                Graphics2D graphics = image.createGraphics();
+                try {
+                    graphics.setBackground(Color.WHITE);
+                    graphics.clearRect(0, 0, width, height);
+                    renderer.paint(graphics, paintArea, bounds);
+                } finally {
+                    graphics.dispose();
+                }
+                frameTimes[frame++] = System.nanoTime() - start;
+            }
+        } finally {
+            content.dispose();
+        }
+        return new FrameStatistics(frameTimes);
+    }
+
+    private MapContent createMapContent() {
+        MapContent content = new MapContent();
+        List<MapLayer> layers = new ArrayList<>();
+        mapModel.baseLayer().ifPresent(layers::add);
+        layers.addAll(mapModel.getLayers());
+        for (MapLayer layer : layers) {
+            if (layer instanceof FeatureLayer && layer.isVisisble()) {
+                FeatureLayer fl = (FeatureLayer) layer;
+                if (fl.getFeatureSource() != null && fl.getStyle() != null) {
+                    content.addLayer(
+                            new org.geotools.map.FeatureLayer(
+                                    fl.getFeatureSource(), fl.getStyle(), fl.getTitle()));
+                }
+            } else {
+                LOGGER.fine("Skipping non feature layer " + layer);
+            }
+        }
+        return content;
+    }
+
+    private static void startPlatform() {
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Platform.startup(started::countDown);
+            started.await();
+        } catch (IllegalStateException alreadyStarted) {
+            // fine
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void runAndWait(Runnable task) {
+        callAndWait(
+                () -> {
+                    task.run();
+                    return null;
+                });
+    }
+
+    private <T> T callAndWait(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        Platform.runLater(future);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for the JavaFX application thread");
+        }
+    }
+
+    /**
+     * Generates (or reuses) point, line, and polygon shapefiles in a directory and runs a random
+     * navigation script over them.
+     *
+     * <p>Arguments: {@code [directory] [featureCount] [steps] [seed]}
+     */
+    public static void main(String[] args) throws Exception {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "target/stress-data");
+        int featureCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        RenderStressHarness harness = new RenderStressHarness();
+        List<DataStore> stores = new ArrayList<>();
+        try {
+            for (GeometryType type : GeometryType.values()) {
+                String typeName = type.name().toLowerCase(Locale.ROOT) + "_" + featureCount;
+                File shp = dir.resolve(typeName + ".shp").toFile();
+                if (!shp.exists()) {
+                    System.out.printf("Generating %,d %s features...%n", featureCount, type);
+                    new SyntheticDataGenerator()
+                            .geometryType(type)
+                            .featureCount(featureCount)
+                            .seed(seed)
+                            .writeShapefile(dir, typeName);
+                }
+                DataStore store = FileDataStoreFinder.getDataStore(shp);
+                stores.add(store);
+                harness.addLayer(store.getFeatureSource(store.getTypeNames()[0]));
+            }
+            FrameStatistics stats = harness.run(NavigationScript.random(steps, 12, seed));
+            System.out.println(stats);
+        } finally {
+            stores.forEach(DataStore::dispose);
+            Platform.exit();
+        }
+    }
+}
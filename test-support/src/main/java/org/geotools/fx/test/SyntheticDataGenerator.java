@@ -0,0 +1,213 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2020, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.fx.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.geotools.data.DataStore;
+import org.geotools.data.FeatureWriter;
+import org.geotools.data.Transaction;
+import org.geotools.data.property.PropertyDataStore;
+import org.geotools.data.shapefile.ShapefileDataStoreFactory;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+
+/**
+ * Generates synthetic point, line, or polygon datasets of arbitrary size, to test rendering and
+ * indexing at production scale without depending on real data.
+ *
+ * <p>Features are streamed to the target store as they're generated, so memory usage doesn't depend
+ * on the {@link #featureCount() feature count}. Generation is deterministic for a given {@link
+ * #seed() seed}.
+ *
+ * <pre>{@code
+ * File shp =
+ *         new SyntheticDataGenerator()
+ *                 .geometryType(GeometryType.POLYGON)
+ *                 .featureCount(2_000_000)
+ *                 .writeShapefile(dir, "polygons");
+ * }</pre>
+ */
+@Accessors(fluent = true)
+public class SyntheticDataGenerator {
+
+    public static enum GeometryType {
+        POINT(Point.class),
+        LINE(LineString.class),
+        POLYGON(Polygon.class);
+
+        private final Class<? extends Geometry> binding;
+
+        GeometryType(Class<? extends Geometry> binding) {
+            this.binding = binding;
+        }
+    }
+
+    private @Getter @Setter @NonNull GeometryType geometryType = GeometryType.POINT;
+
+    private @Getter @Setter int featureCount = 1_000_000;
+
+    /** Number of vertices of each generated line or polygon ring */
+    private @Getter @Setter int vertices = 16;
+
+    /** Maximum size of each line or polygon, as a fraction of the extent's width */
+    private @Getter @Setter double featureSize = 0.001;
+
+    private @Getter @Setter long seed = 0;
+
+    private @Getter @Setter @NonNull ReferencedEnvelope extent =
+            new ReferencedEnvelope(-180, 180, -90, 90, DefaultGeographicCRS.WGS84);
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    /**
+     * Writes the dataset as a shapefile, with a spatial index.
+     *
+     * @return the {@code .shp} file
+     */
+    public File writeShapefile(@NonNull Path directory, @NonNull String typeName)
+            throws IOException {
+        Files.createDirectories(directory);
+        File file = directory.resolve(typeName + ".shp").toFile();
+        Map<String, Object> params = new HashMap<>();
+        params.put(ShapefileDataStoreFactory.URLP.key, file.toURI().toURL());
+        params.put(ShapefileDataStoreFactory.CREATE_SPATIAL_INDEX.key, Boolean.TRUE);
+        DataStore store = new ShapefileDataStoreFactory().createNewDataStore(params);
+        try {
+            write(store, typeName);
+        } finally {
+            store.dispose();
+        }
+        return file;
+    }
+
+    /**
+     * Writes the dataset as a {@link PropertyDataStore property file}.
+     *
+     * @return the {@code .properties} file
+     */
+    public File writeProperties(@NonNull Path directory, @NonNull String typeName)
+            throws IOException {
+        Files.createDirectories(directory);
+        DataStore store = new PropertyDataStore(directory.toFile());
+        try {
+            write(store, typeName);
+        } finally {
+            store.dispose();
+        }
+        return directory.resolve(typeName + ".properties").toFile();
+    }
+
+    /** Creates the {@code typeName} feature type in {@code store} and fills it with features */
+    public void write(@NonNull DataStore store, @NonNull String typeName) throws IOException {
+        store.createSchema(createFeatureType(typeName));
+        final Random random = new Random(seed);
+        try (FeatureWriter<SimpleFeatureType, SimpleFeature> writer =
+                store.getFeatureWriterAppend(typeName, Transaction.AUTO_COMMIT)) {
+            for (int i = 0; i < featureCount; i++) {
+                SimpleFeature feature = writer.next();
+                // not by name, the store may rename the geometry attribute
+                feature.setDefaultGeometry(createGeometry(random));
+                feature.setAttribute("index", i);
+                feature.setAttribute("value", random.nextDouble() * 1000);
+                feature.setAttribute("name", "feature-" + i);
+                writer.write();
+            }
+        }
+    }
+
+    public SimpleFeatureType createFeatureType(@NonNull String typeName) {
+        SimpleFeatureTypeBuilder builder = new SimpleFeatureTypeBuilder();
+        builder.setName(typeName);
+        builder.setCRS(extent.getCoordinateReferenceSystem());
+        builder.add("the_geom", geometryType.binding);
+        builder.add("index", Integer.class);
+        builder.add("value", Double.class);
+        builder.length(24).add("name", String.class);
+        return builder.buildFeatureType();
+    }
+
+    private Geometry createGeometry(Random random) {
+        final double x = extent.getMinX() + random.nextDouble() * extent.getWidth();
+        final double y = extent.getMinY() + random.nextDouble() * extent.getHeight();
+        switch (geometryType) {
+            case LINE:
+                return createLine(random, x, y);
+            case POLYGON:
+                return createPolygon(random, x, y);
+            case POINT:
+            default:
+                return geometryFactory.createPoint(new Coordinate(x, y));
+        }
+    }
+
+    /** A random walk starting at x, y */
+    private LineString createLine(Random random, double x, double y) {
+        final int size = Math.max(2, vertices);
+        final double step = extent.getWidth() * featureSize / size;
+        Coordinate[] coords = new Coordinate[size];
+        for (int i = 0; i < size; i++) {
+            coords[i] = new Coordinate(clampX(x), clampY(y));
+            x += (random.nextDouble() - 0.5) * 2 * step;
+            y += (random.nextDouble() - 0.5) * 2 * step;
+        }
+        return geometryFactory.createLineString(coords);
+    }
+
+    /** A star shaped ring centered at x, y, so it's always valid */
+    private Polygon createPolygon(Random random, double x, double y) {
+        final int size = Math.max(3, vertices);
+        final double maxRadius = extent.getWidth() * featureSize / 2;
+        Coordinate[] ring = new Coordinate[size + 1];
+        for (int i = 0; i < size; i++) {
+            double angle = 2 * Math.PI * i / size;
+            double radius = maxRadius * (0.3 + 0.7 * random.nextDouble());
+            ring[i] =
+                    new Coordinate(
+                            clampX(x + radius * Math.cos(angle)),
+                            clampY(y + radius * Math.sin(angle)));
+        }
+        ring[size] = new Coordinate(ring[0]);
+        return geometryFactory.createPolygon(ring);
+    }
+
+    private double clampX(double x) {
+        return Math.max(extent.getMinX(), Math.min(extent.getMaxX(), x));
+    }
+
+    private double clampY(double y) {
+        return Math.max(extent.getMinY(), Math.min(extent.getMaxY(), y));
+    }
+}